@@ -0,0 +1,137 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+package org.elasticsearch.benchmark.routing.allocation;
+
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.cluster.ClusterName;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.metadata.IndexMetadata;
+import org.elasticsearch.cluster.metadata.Metadata;
+import org.elasticsearch.cluster.node.DiscoveryNodes;
+import org.elasticsearch.cluster.routing.RoutingChangesObserver;
+import org.elasticsearch.cluster.routing.RoutingNode;
+import org.elasticsearch.cluster.routing.RoutingNodes;
+import org.elasticsearch.cluster.routing.RoutingTable;
+import org.elasticsearch.cluster.routing.ShardRouting;
+import org.elasticsearch.cluster.routing.allocation.AllocationService;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.IndexVersion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Measures the cost of taking a mutable copy of the {@link RoutingNodes} of a fully-allocated cluster, which happens on every reroute.
+ * Run with {@code -prof gc} to see the allocation rate too.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") // invoked by benchmarking framework
+public class RoutingNodesCopyBenchmark {
+
+    @Param(
+        {
+            // indices| shards| replicas| nodes
+            "      100|      1|        1|    10",
+            "     1000|      1|        1|    10",
+            "     1000|      3|        1|    50",
+            "     5000|      1|        1|    50" }
+    )
+    public String indicesShardsReplicasNodes = "100|1|1|10";
+
+    private ClusterState clusterState;
+    private String sourceNodeId;
+    private String targetNodeId;
+
+    @Setup
+    public void setUp() throws Exception {
+        final String[] params = indicesShardsReplicasNodes.split("\\|");
+
+        int numIndices = toInt(params[0]);
+        int numShards = toInt(params[1]);
+        int numReplicas = toInt(params[2]);
+        int numNodes = toInt(params[3]);
+
+        AllocationService strategy = Allocators.createAllocationService(Settings.EMPTY);
+
+        Metadata.Builder mb = Metadata.builder();
+        for (int i = 1; i <= numIndices; i++) {
+            mb.put(
+                IndexMetadata.builder("test_" + i)
+                    .settings(Settings.builder().put(IndexMetadata.SETTING_VERSION_CREATED, IndexVersion.current()))
+                    .numberOfShards(numShards)
+                    .numberOfReplicas(numReplicas)
+            );
+        }
+        Metadata metadata = mb.build();
+        RoutingTable.Builder rb = RoutingTable.builder(TestShardRoutingRoleStrategies.DEFAULT_ROLE_ONLY);
+        for (int i = 1; i <= numIndices; i++) {
+            rb.addAsNew(metadata.index("test_" + i));
+        }
+        DiscoveryNodes.Builder nb = DiscoveryNodes.builder();
+        for (int i = 1; i <= numNodes; i++) {
+            nb.add(Allocators.newNode("node" + i, Map.of()));
+        }
+        clusterState = ClusterState.builder(ClusterName.DEFAULT).metadata(metadata).routingTable(rb.build()).nodes(nb).build();
+        clusterState = strategy.reroute(clusterState, "reroute", ActionListener.noop());
+        while (clusterState.getRoutingNodes().hasInactiveShards()) {
+            clusterState = strategy.applyStartedShards(
+                clusterState,
+                clusterState.getRoutingNodes()
+                    .stream()
+                    .flatMap(shardRoutings -> StreamSupport.stream(shardRoutings.spliterator(), false))
+                    .filter(ShardRouting::initializing)
+                    .collect(Collectors.toList())
+            );
+            clusterState = strategy.reroute(clusterState, "reroute", ActionListener.noop());
+        }
+        sourceNodeId = "node1";
+        targetNodeId = "node" + numNodes;
+    }
+
+    private int toInt(String v) {
+        return Integer.valueOf(v.trim());
+    }
+
+    @Benchmark
+    public RoutingNodes measureMutableCopy() {
+        return clusterState.getRoutingNodes().mutableCopy();
+    }
+
+    @Benchmark
+    public RoutingNodes measureMutableCopyAndRelocateOneShard() {
+        final RoutingNodes routingNodes = clusterState.getRoutingNodes().mutableCopy();
+        final RoutingNode sourceNode = routingNodes.node(sourceNodeId);
+        final RoutingNode targetNode = routingNodes.node(targetNodeId);
+        for (ShardRouting shardRouting : sourceNode) {
+            if (shardRouting.started() && targetNode.getByShardId(shardRouting.shardId()) == null) {
+                routingNodes.relocateShard(shardRouting, targetNodeId, 0L, new RoutingChangesObserver() {
+                });
+                break;
+            }
+        }
+        return routingNodes;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.benchmark.xcontent;
+
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.xcontent.XContent;
+import org.elasticsearch.xcontent.XContentBuilder;
+import org.elasticsearch.xcontent.XContentFactory;
+import org.elasticsearch.xcontent.XContentParser;
+import org.elasticsearch.xcontent.XContentParserConfiguration;
+import org.elasticsearch.xcontent.XContentType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how many log documents of the same shape can be parsed per second, reading each value the way the document parser would.
+ * Run with {@code -prof gc} to see the allocation per document too.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class LogsDocumentParsingBenchmark {
+
+    private static final int NUM_DOCS = 1024;
+
+    private static final String[] HOSTS = { "web-01", "web-02", "web-03", "db-01", "cache-01" };
+    private static final String[] METHODS = { "GET", "GET", "GET", "POST", "PUT", "DELETE" };
+    private static final String[] PATHS = { "/", "/index.html", "/api/v1/items", "/api/v1/users", "/static/app.js" };
+    private static final Set<String> NUMERIC_FIELDS = Set.of("@timestamp", "status_code", "bytes", "event.duration");
+
+    /**
+     * Whether numeric values are sent as JSON numbers or, as many log shippers do, as JSON strings.
+     */
+    @Param({ "false", "true" })
+    public boolean numbersAsStrings;
+
+    private BytesReference[] docs;
+
+    @Setup
+    public void setup() throws IOException {
+        final Random random = new Random(42);
+        docs = new BytesReference[NUM_DOCS];
+        long timestamp = 1_700_000_000_000L;
+        for (int i = 0; i < NUM_DOCS; i++) {
+            timestamp += random.nextInt(1000);
+            try (XContentBuilder builder = XContentFactory.jsonBuilder()) {
+                builder.startObject();
+                builder.field("@timestamp", timestamp);
+                builder.startObject("host").field("name", HOSTS[random.nextInt(HOSTS.length)]).endObject();
+                builder.startObject("http");
+                builder.startObject("request").field("method", METHODS[random.nextInt(METHODS.length)]).endObject();
+                builder.startObject("response");
+                numberField(builder, "status_code", random.nextInt(10) == 0 ? 404 : 200);
+                numberField(builder, "bytes", random.nextInt(1 << 20));
+                builder.endObject();
+                builder.endObject();
+                builder.startObject("url").field("path", PATHS[random.nextInt(PATHS.length)]).endObject();
+                numberField(builder, "event.duration", random.nextInt(1_000_000_000));
+                builder.field("message", "request served in " + random.nextInt(1000) + "ms");
+                builder.endObject();
+                docs[i] = BytesReference.bytes(builder);
+            }
+        }
+    }
+
+    private void numberField(XContentBuilder builder, String name, long value) throws IOException {
+        if (numbersAsStrings) {
+            builder.field(name, Long.toString(value));
+        } else {
+            builder.field(name, value);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_DOCS)
+    public void parseDocs(Blackhole bh) throws IOException {
+        final XContent xContent = XContentType.JSON.xContent();
+        for (BytesReference doc : docs) {
+            try (XContentParser parser = xContent.createParser(XContentParserConfiguration.EMPTY, doc.streamInput())) {
+                XContentParser.Token token;
+                while ((token = parser.nextToken()) != null) {
+                    switch (token) {
+                        case FIELD_NAME -> bh.consume(parser.currentName());
+                        case VALUE_NUMBER, VALUE_STRING -> {
+                            if (NUMERIC_FIELDS.contains(parser.currentName())) {
+                                bh.consume(parser.longValue());
+                            } else {
+                                bh.consume(parser.text());
+                            }
+                        }
+                        default -> bh.consume(token);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -19,6 +19,7 @@ module org.elasticsearch.nativeaccess {
             org.elasticsearch.nativeaccess.jna,
             org.elasticsearch.server,
             org.elasticsearch.systemd,
+            org.elasticsearch.transport.netty4,
             org.elasticsearch.vec;
     // allows jna to implement a library provider, and ProviderLocator to load it
     exports org.elasticsearch.nativeaccess.lib to org.elasticsearch.nativeaccess.jna, org.elasticsearch.base;
@@ -111,7 +111,7 @@ public abstract class AbstractXContentParser implements XContentParser {
         if (token == Token.VALUE_STRING) {
             checkCoerceString(coerce, Short.class);
 
-            double doubleValue = Double.parseDouble(text());
+            double doubleValue = isPlainInteger() ? plainIntegerValue() : Double.parseDouble(text());
 
             if (doubleValue < Short.MIN_VALUE || doubleValue > Short.MAX_VALUE) {
                 throw new IllegalArgumentException("Value [" + text() + "] is out of range for a short");
@@ -136,7 +136,7 @@ public abstract class AbstractXContentParser implements XContentParser {
         Token token = currentToken();
         if (token == Token.VALUE_STRING) {
             checkCoerceString(coerce, Integer.class);
-            double doubleValue = Double.parseDouble(text());
+            double doubleValue = isPlainInteger() ? plainIntegerValue() : Double.parseDouble(text());
 
             if (doubleValue < Integer.MIN_VALUE || doubleValue > Integer.MAX_VALUE) {
                 throw new IllegalArgumentException("Value [" + text() + "] is out of range for an integer");
@@ -189,6 +189,49 @@ public abstract class AbstractXContentParser implements XContentParser {
         return bigIntegerValue.longValue();
     }
 
+    /** The number of digits that always fit into a long, whatever they are. */
+    private static final int MAX_PLAIN_INTEGER_DIGITS = 18;
+
+    /** Returns whether the current string value is an optional minus sign followed by at most {@link #MAX_PLAIN_INTEGER_DIGITS} digits.
+     *  Numbers that are sent as strings are usually of this shape, which lets {@link #plainIntegerValue()} read them directly from
+     *  {@link #textCharacters()} rather than creating a {@link String} just to parse it. */
+    private boolean isPlainInteger() throws IOException {
+        if (hasTextCharacters() == false) {
+            return false;
+        }
+        final char[] chars = textCharacters();
+        int offset = textOffset();
+        final int end = offset + textLength();
+        if (offset < end && chars[offset] == '-') {
+            offset++;
+        }
+        if (offset == end || end - offset > MAX_PLAIN_INTEGER_DIGITS) {
+            return false;
+        }
+        for (int i = offset; i < end; i++) {
+            if (chars[i] < '0' || chars[i] > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Returns the value of the current string value, which must have been checked with {@link #isPlainInteger()}. */
+    private long plainIntegerValue() throws IOException {
+        final char[] chars = textCharacters();
+        int offset = textOffset();
+        final int end = offset + textLength();
+        final boolean negative = chars[offset] == '-';
+        if (negative) {
+            offset++;
+        }
+        long value = 0;
+        for (int i = offset; i < end; i++) {
+            value = value * 10 + (chars[i] - '0');
+        }
+        return negative ? -value : value;
+    }
+
     @Override
     public long longValue() throws IOException {
         return longValue(DEFAULT_NUMBER_COERCE_POLICY);
@@ -199,6 +242,9 @@ public abstract class AbstractXContentParser implements XContentParser {
         Token token = currentToken();
         if (token == Token.VALUE_STRING) {
             checkCoerceString(coerce, Long.class);
+            if (isPlainInteger()) {
+                return plainIntegerValue();
+            }
             return toLong(text(), coerce);
         }
         long result = doLongValue();
@@ -74,6 +74,48 @@ public class XContentParserTests extends ESTestCase {
         }
     }
 
+    public void testIntegersAsStrings() throws IOException {
+        final long value = randomBoolean() ? randomLongBetween(-999_999_999_999_999_999L, 999_999_999_999_999_999L) : randomLong();
+        try (XContentParser parser = createParser(JsonXContent.jsonXContent, "{\"foo\": \"" + value + "\"}")) {
+            assertEquals(XContentParser.Token.START_OBJECT, parser.nextToken());
+            assertEquals(XContentParser.Token.FIELD_NAME, parser.nextToken());
+            assertEquals(XContentParser.Token.VALUE_STRING, parser.nextToken());
+            assertEquals(value, parser.longValue());
+        }
+
+        final int intValue = randomInt();
+        try (XContentParser parser = createParser(JsonXContent.jsonXContent, "{\"foo\": \"" + intValue + "\"}")) {
+            parser.nextToken();
+            parser.nextToken();
+            parser.nextToken();
+            assertEquals(intValue, parser.intValue());
+        }
+
+        for (String outOfRange : List.of("2147483648", "-2147483649", "99999999999999999999")) {
+            try (XContentParser parser = createParser(JsonXContent.jsonXContent, "{\"foo\": \"" + outOfRange + "\"}")) {
+                parser.nextToken();
+                parser.nextToken();
+                parser.nextToken();
+                IllegalArgumentException e = expectThrows(IllegalArgumentException.class, parser::intValue);
+                assertThat(e.getMessage(), equalTo("Value [" + outOfRange + "] is out of range for an integer"));
+            }
+        }
+
+        for (String notPlain : List.of("-", "", "+12", "1.5", "1e3", " 12")) {
+            try (XContentParser parser = createParser(JsonXContent.jsonXContent, "{\"foo\": \"" + notPlain + "\"}")) {
+                parser.nextToken();
+                parser.nextToken();
+                parser.nextToken();
+                switch (notPlain) {
+                    case "+12" -> assertEquals(12L, parser.longValue());
+                    case "1.5" -> assertEquals(1L, parser.longValue());
+                    case "1e3" -> assertEquals(1000L, parser.longValue());
+                    default -> expectThrows(IllegalArgumentException.class, parser::longValue);
+                }
+            }
+        }
+    }
+
     public void testReadList() throws IOException {
         assertThat(readList("{\"foo\": [\"bar\"]}"), contains("bar"));
         assertThat(readList("{\"foo\": [\"bar\",\"baz\"]}"), contains("bar", "baz"));
@@ -11,6 +11,7 @@ module org.elasticsearch.transport.netty4 {
     requires org.elasticsearch.base;
     requires org.elasticsearch.server;
     requires org.elasticsearch.sslconfig;
+    requires org.elasticsearch.nativeaccess;
     requires org.elasticsearch.xcontent;
     requires org.apache.logging.log4j;
     requires org.apache.lucene.core;
@@ -0,0 +1,174 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.http.netty4;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.handler.codec.http.HttpContentCompressor;
+import io.netty.handler.codec.http.HttpResponse;
+
+import org.elasticsearch.nativeaccess.CloseableByteBuffer;
+import org.elasticsearch.nativeaccess.NativeAccess;
+
+import java.nio.ByteBuffer;
+import java.util.Locale;
+
+/**
+ * Compresses HTTP response bodies. If enabled with {@code http.compression_zstd}, uses zstd if the client prefers it and the native zstd
+ * library is available, and otherwise falls back to the gzip or deflate encodings that Netty's {@link HttpContentCompressor} supports.
+ */
+class Netty4HttpContentCompressor extends HttpContentCompressor {
+
+    static final String ZSTD_ENCODING = "zstd";
+
+    /**
+     * The zstd level to use for each of the gzip levels 1 to 9 of {@code http.compression_level}. zstd's fastest levels already compress
+     * about as well as gzip's middle levels at a fraction of the CPU cost, whereas its highest levels cost far more CPU than gzip's for
+     * a small gain, so gzip's fast levels map to zstd's fastest level and gzip's slowest levels only reach the middle of zstd's range.
+     */
+    private static final int[] ZSTD_LEVELS = { 1, 1, 1, 2, 3, 3, 5, 7, 9 };
+
+    private final int zstdLevel;
+    private final boolean zstdEnabled;
+
+    Netty4HttpContentCompressor(int compressionLevel, boolean zstdEnabled) {
+        super(compressionLevel);
+        this.zstdLevel = zstdLevel(compressionLevel);
+        this.zstdEnabled = zstdEnabled;
+    }
+
+    @Override
+    protected Result beginEncode(HttpResponse httpResponse, String acceptEncoding) throws Exception {
+        if (zstdEnabled && prefersZstd(acceptEncoding) && ZstdHolder.ZSTD_AVAILABLE) {
+            return new Result(ZSTD_ENCODING, new EmbeddedChannel(new ZstdFrameEncoder(zstdLevel)));
+        }
+        return super.beginEncode(httpResponse, acceptEncoding);
+    }
+
+    static int zstdLevel(int gzipLevel) {
+        return ZSTD_LEVELS[Math.min(Math.max(gzipLevel, 1), ZSTD_LEVELS.length) - 1];
+    }
+
+    /**
+     * Returns whether the given {@code Accept-Encoding} header value accepts {@code zstd} with a non-zero quality value which is at least
+     * as high as the quality value of each of the encodings that {@link HttpContentCompressor} supports. An encoding which is not listed
+     * has the quality value of the {@code *} wildcard, if present, and is not acceptable otherwise.
+     */
+    static boolean prefersZstd(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        float zstdQ = -1f;
+        float gzipQ = -1f;
+        float deflateQ = -1f;
+        float wildcardQ = -1f;
+        for (String encoding : acceptEncoding.split(",")) {
+            final String[] parts = encoding.split(";");
+            final float q = qValue(parts);
+            switch (parts[0].trim().toLowerCase(Locale.ROOT)) {
+                case ZSTD_ENCODING -> zstdQ = Math.max(zstdQ, q);
+                case "gzip", "x-gzip" -> gzipQ = Math.max(gzipQ, q);
+                case "deflate", "x-deflate" -> deflateQ = Math.max(deflateQ, q);
+                case "*" -> wildcardQ = Math.max(wildcardQ, q);
+                default -> {
+                }
+            }
+        }
+        if (zstdQ <= 0f) {
+            return false;
+        }
+        return zstdQ >= (gzipQ < 0f ? wildcardQ : gzipQ) && zstdQ >= (deflateQ < 0f ? wildcardQ : deflateQ);
+    }
+
+    private static float qValue(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            final String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Float.parseFloat(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0f;
+                }
+            }
+        }
+        return 1f;
+    }
+
+    private static final class ZstdHolder {
+        // resolved lazily so that nodes without native access only warn about it if a client asks for zstd
+        static final boolean ZSTD_AVAILABLE = NativeAccess.instance().getZstd() != null;
+    }
+
+    /**
+     * Compresses the response body into a sequence of zstd frames of up to {@link #BLOCK_SIZE} bytes of input each. A sequence of frames
+     * is a valid zstd stream, so this lets us compress chunked responses as they are produced without holding on to a streaming
+     * compression context. Small chunks are collected into the same frame, and the last frame is written when the encoder is closed at
+     * the end of the response. The native buffers are allocated once per response and released when the encoder is removed.
+     */
+    static final class ZstdFrameEncoder extends MessageToByteEncoder<ByteBuf> {
+
+        static final int BLOCK_SIZE = 64 * 1024;
+
+        private final int level;
+        private CloseableByteBuffer src;
+        private CloseableByteBuffer dest;
+
+        ZstdFrameEncoder(int level) {
+            this.level = level;
+        }
+
+        @Override
+        protected void encode(ChannelHandlerContext ctx, ByteBuf msg, ByteBuf out) {
+            if (msg.isReadable() && src == null) {
+                final NativeAccess nativeAccess = NativeAccess.instance();
+                src = nativeAccess.newBuffer(BLOCK_SIZE);
+                dest = nativeAccess.newBuffer(nativeAccess.getZstd().compressBound(BLOCK_SIZE));
+            }
+            while (msg.isReadable()) {
+                final ByteBuffer buffer = src.buffer();
+                buffer.limit(buffer.position() + Math.min(msg.readableBytes(), buffer.remaining()));
+                msg.readBytes(buffer);
+                buffer.limit(buffer.capacity());
+                if (buffer.hasRemaining() == false) {
+                    compressBlock(out);
+                }
+            }
+        }
+
+        @Override
+        public void close(ChannelHandlerContext ctx, ChannelPromise promise) throws Exception {
+            if (src != null && src.buffer().position() > 0) {
+                final ByteBuf out = ctx.alloc().buffer(dest.buffer().capacity());
+                compressBlock(out);
+                ctx.writeAndFlush(out);
+            }
+            ctx.close(promise);
+        }
+
+        @Override
+        public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+            try (CloseableByteBuffer releasedSrc = src; CloseableByteBuffer releasedDest = dest) {
+                src = null;
+                dest = null;
+                super.handlerRemoved(ctx);
+            }
+        }
+
+        private void compressBlock(ByteBuf out) {
+            src.buffer().flip();
+            final int compressedLen = NativeAccess.instance().getZstd().compress(dest, src, level);
+            out.writeBytes(dest.buffer().limit(compressedLen));
+            dest.buffer().clear();
+            src.buffer().clear();
+        }
+    }
+}
@@ -81,6 +81,15 @@ public class Netty4Plugin extends Plugin implements NetworkPlugin {
         Setting.Property.NodeScope
     );
     public static final Setting<Integer> NETTY_BOSS_COUNT = intSetting("transport.netty.boss_count", 1, 1, Setting.Property.NodeScope);
+    /*
+     * Whether to coalesce the flushes of outbound transport messages, which reduces the number of write system calls on connections that
+     * carry many small messages at the cost of slightly delaying some of them.
+     */
+    public static final Setting<Boolean> NETTY_FLUSH_CONSOLIDATION = Setting.boolSetting(
+        "transport.netty.flush_consolidation",
+        false,
+        Setting.Property.NodeScope
+    );
     /*
      * Size in bytes of an individual message received by io.netty.handler.codec.MessageAggregator which accumulates the content for an
      * HTTP request. This number is used for estimating the maximum number of allowed buffers before the MessageAggregator's internal
@@ -133,7 +142,8 @@ public class Netty4Plugin extends Plugin implements NetworkPlugin {
             NETTY_RECEIVE_PREDICTOR_SIZE,
             NETTY_RECEIVE_PREDICTOR_MIN,
             NETTY_RECEIVE_PREDICTOR_MAX,
-            NETTY_BOSS_COUNT
+            NETTY_BOSS_COUNT,
+            NETTY_FLUSH_CONSOLIDATION
         );
     }
 
@@ -0,0 +1,173 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.http.netty4;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.ReferenceCountUtil;
+
+import org.elasticsearch.nativeaccess.NativeAccess;
+import org.elasticsearch.test.ESTestCase;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class Netty4HttpContentCompressorTests extends ESTestCase {
+
+    public void testPrefersZstd() {
+        assertTrue(Netty4HttpContentCompressor.prefersZstd("zstd"));
+        assertTrue(Netty4HttpContentCompressor.prefersZstd("gzip, deflate, br, zstd"));
+        assertTrue(Netty4HttpContentCompressor.prefersZstd("gzip;q=0.5, ZSTD;q=1.0"));
+        assertTrue(Netty4HttpContentCompressor.prefersZstd("zstd ; q=1"));
+        assertTrue(Netty4HttpContentCompressor.prefersZstd("zstd;q=0.5, *;q=0.1"));
+
+        assertFalse(Netty4HttpContentCompressor.prefersZstd(null));
+        assertFalse(Netty4HttpContentCompressor.prefersZstd(""));
+        assertFalse(Netty4HttpContentCompressor.prefersZstd("*"));
+        assertFalse(Netty4HttpContentCompressor.prefersZstd("gzip, deflate"));
+        assertFalse(Netty4HttpContentCompressor.prefersZstd("gzip, zstd;q=0"));
+        assertFalse(Netty4HttpContentCompressor.prefersZstd("zstd;q=invalid"));
+        assertFalse(Netty4HttpContentCompressor.prefersZstd("zstdx"));
+        // the client prefers another encoding
+        assertFalse(Netty4HttpContentCompressor.prefersZstd("gzip;q=1.0, zstd;q=0.5"));
+        assertFalse(Netty4HttpContentCompressor.prefersZstd("deflate, zstd;q=0.9"));
+        assertFalse(Netty4HttpContentCompressor.prefersZstd("zstd;q=0.5, *"));
+    }
+
+    public void testZstdLevel() {
+        assertThat(Netty4HttpContentCompressor.zstdLevel(1), equalTo(1));
+        assertThat(Netty4HttpContentCompressor.zstdLevel(3), equalTo(1));
+        assertThat(Netty4HttpContentCompressor.zstdLevel(6), equalTo(3));
+        assertThat(Netty4HttpContentCompressor.zstdLevel(9), equalTo(9));
+        assertThat(Netty4HttpContentCompressor.zstdLevel(between(Integer.MIN_VALUE, 1)), equalTo(1));
+        assertThat(Netty4HttpContentCompressor.zstdLevel(between(9, Integer.MAX_VALUE)), equalTo(9));
+        for (int level = 1; level < 9; level++) {
+            assertThat(Netty4HttpContentCompressor.zstdLevel(level), lessThanOrEqualTo(Netty4HttpContentCompressor.zstdLevel(level + 1)));
+        }
+    }
+
+    public void testFallsBackToGzip() {
+        final var channel = new EmbeddedChannel(new Netty4HttpContentCompressor(randomIntBetween(1, 9), randomBoolean()));
+        final var response = sendResponse(channel, "gzip;q=1.0, zstd;q=0.5", randomAlphaOfLength(between(1, 1024)));
+        assertThat(response.headers().get(HttpHeaderNames.CONTENT_ENCODING), equalTo("gzip"));
+        ReferenceCountUtil.release(response);
+        channel.finishAndReleaseAll();
+    }
+
+    public void testZstdDisabledByDefault() {
+        final var channel = new EmbeddedChannel(new Netty4HttpContentCompressor(randomIntBetween(1, 9), false));
+        final var response = sendResponse(channel, "zstd, gzip", randomAlphaOfLength(between(1, 1024)));
+        assertThat(response.headers().get(HttpHeaderNames.CONTENT_ENCODING), equalTo("gzip"));
+        ReferenceCountUtil.release(response);
+        channel.finishAndReleaseAll();
+    }
+
+    public void testZstdRoundTrip() {
+        assumeTrue("requires the native zstd library", NativeAccess.instance().getZstd() != null);
+
+        final var channel = new EmbeddedChannel(new Netty4HttpContentCompressor(randomIntBetween(1, 9), true));
+        final String body = randomAlphaOfLength(between(1, 100)).repeat(between(1, 100));
+        final var response = sendResponse(channel, "gzip, zstd", body);
+        assertThat(response.headers().get(HttpHeaderNames.CONTENT_ENCODING), equalTo(Netty4HttpContentCompressor.ZSTD_ENCODING));
+        ReferenceCountUtil.release(response);
+
+        final byte[] expected = body.getBytes(StandardCharsets.UTF_8);
+        final ByteBuf compressed = readCompressedContent(channel);
+        assertThat(compressed.readableBytes(), greaterThanOrEqualTo(1));
+        if (expected.length > 1024) {
+            assertThat(compressed.readableBytes(), lessThan(expected.length));
+        }
+        assertThat(decompress(compressed, expected.length), equalTo(body));
+        channel.finishAndReleaseAll();
+    }
+
+    public void testZstdChunkedRoundTrip() {
+        assumeTrue("requires the native zstd library", NativeAccess.instance().getZstd() != null);
+
+        final var channel = new EmbeddedChannel(new Netty4HttpContentCompressor(randomIntBetween(1, 9), true));
+        final DefaultFullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/");
+        request.headers().set(HttpHeaderNames.ACCEPT_ENCODING, "zstd");
+        assertTrue(channel.writeInbound(request));
+        ReferenceCountUtil.release(channel.readInbound());
+
+        final HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+        HttpUtil.setTransferEncodingChunked(response, true);
+        channel.writeOutbound(response);
+        final HttpResponse encodedResponse = channel.readOutbound();
+        assertThat(encodedResponse.headers().get(HttpHeaderNames.CONTENT_ENCODING), equalTo(Netty4HttpContentCompressor.ZSTD_ENCODING));
+
+        // small chunks share a frame, and chunks larger than a block are split across frames
+        final StringBuilder body = new StringBuilder();
+        final int chunks = between(1, 20);
+        for (int i = 0; i < chunks; i++) {
+            final String chunk = randomAlphaOfLength(between(0, 2 * Netty4HttpContentCompressor.ZstdFrameEncoder.BLOCK_SIZE));
+            body.append(chunk);
+            channel.writeOutbound(new DefaultHttpContent(Unpooled.copiedBuffer(chunk, StandardCharsets.UTF_8)));
+        }
+        channel.writeOutbound(LastHttpContent.EMPTY_LAST_CONTENT);
+
+        final ByteBuf compressed = readCompressedContent(channel);
+        assertThat(decompress(compressed, body.length()), equalTo(body.toString()));
+        channel.finishAndReleaseAll();
+    }
+
+    private static ByteBuf readCompressedContent(EmbeddedChannel channel) {
+        final ByteBuf compressed = Unpooled.buffer();
+        while (true) {
+            final HttpContent content = channel.readOutbound();
+            compressed.writeBytes(content.content());
+            final boolean last = content instanceof LastHttpContent;
+            ReferenceCountUtil.release(content);
+            if (last) {
+                return compressed;
+            }
+        }
+    }
+
+    private static String decompress(ByteBuf compressed, int length) {
+        final NativeAccess nativeAccess = NativeAccess.instance();
+        try (var src = nativeAccess.newBuffer(compressed.readableBytes()); var dest = nativeAccess.newBuffer(length)) {
+            compressed.readBytes(src.buffer());
+            src.buffer().flip();
+            assertThat(nativeAccess.getZstd().decompress(dest, src), equalTo(length));
+            final byte[] actual = new byte[length];
+            dest.buffer().get(0, actual);
+            return new String(actual, StandardCharsets.UTF_8);
+        }
+    }
+
+    private HttpResponse sendResponse(EmbeddedChannel channel, String acceptEncoding, String body) {
+        final DefaultFullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/");
+        request.headers().set(HttpHeaderNames.ACCEPT_ENCODING, acceptEncoding);
+        assertTrue(channel.writeInbound(request));
+        ReferenceCountUtil.release(channel.readInbound());
+
+        channel.writeOutbound(
+            new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK, Unpooled.copiedBuffer(body, StandardCharsets.UTF_8))
+        );
+        return channel.readOutbound();
+    }
+}
@@ -59,6 +59,9 @@ public class SimpleNetty4TransportTests extends AbstractSimpleTransportTestCase
     @Override
     protected Transport build(Settings settings, TransportVersion version, ClusterSettings clusterSettings, boolean doHandshake) {
         NamedWriteableRegistry namedWriteableRegistry = new NamedWriteableRegistry(Collections.emptyList());
+        if (Netty4Plugin.NETTY_FLUSH_CONSOLIDATION.exists(settings) == false) {
+            settings = Settings.builder().put(settings).put(Netty4Plugin.NETTY_FLUSH_CONSOLIDATION.getKey(), randomBoolean()).build();
+        }
         return new Netty4Transport(
             settings,
             version,
@@ -74,13 +77,13 @@ public class SimpleNetty4TransportTests extends AbstractSimpleTransportTestCase
                 DiscoveryNode node,
                 TcpChannel channel,
                 ConnectionProfile profile,
-                ActionListener<TransportVersion> listener
+                ActionListener<TcpTransport.HandshakeResult> listener
             ) {
                 if (doHandshake) {
                     super.executeHandshake(node, channel, profile, listener);
                 } else {
                     assert getVersion().equals(TransportVersion.current());
-                    listener.onResponse(TransportVersions.MINIMUM_COMPATIBLE);
+                    listener.onResponse(new TcpTransport.HandshakeResult(TransportVersions.MINIMUM_COMPATIBLE, false));
                 }
             }
         };
@@ -58,6 +58,8 @@ import static org.elasticsearch.core.Types.forciblyCast;
  * When the query primary sort is perform on a field, this phase extracts the min/max value in each shard and
  * sort them according to the provided order. This can be useful for instance to ensure that shards that contain recent
  * data are executed first when sorting by descending timestamp.
+ * In coordinator-rewrite-only mode this phase only pre-filters shards using information available on the coordinating node, such as the
+ * {@code @timestamp} ranges of indices held in the cluster state, and never reaches out to the shards.
  */
 final class CanMatchPreFilterSearchPhase extends SearchPhase {
 
@@ -74,6 +76,7 @@ final class CanMatchPreFilterSearchPhase extends SearchPhase {
     private final SearchTask task;
     private final Executor executor;
     private final boolean requireAtLeastOneMatch;
+    private final boolean coordinatorRewriteOnly;
 
     private final CanMatchSearchPhaseResults results;
     private final CoordinatorRewriteContextProvider coordinatorRewriteContextProvider;
@@ -92,6 +95,44 @@ final class CanMatchPreFilterSearchPhase extends SearchPhase {
         boolean requireAtLeastOneMatch,
         CoordinatorRewriteContextProvider coordinatorRewriteContextProvider,
         ActionListener<GroupShardsIterator<SearchShardIterator>> listener
+    ) {
+        this(
+            logger,
+            searchTransportService,
+            nodeIdToConnection,
+            aliasFilter,
+            concreteIndexBoosts,
+            executor,
+            request,
+            shardsIts,
+            timeProvider,
+            task,
+            requireAtLeastOneMatch,
+            false,
+            coordinatorRewriteContextProvider,
+            listener
+        );
+    }
+
+    /**
+     * @param coordinatorRewriteOnly if {@code true}, shards which cannot be excluded on the coordinating node are treated as possible
+     *                               matches rather than sending them a {@code can_match} request.
+     */
+    CanMatchPreFilterSearchPhase(
+        Logger logger,
+        SearchTransportService searchTransportService,
+        BiFunction<String, String, Transport.Connection> nodeIdToConnection,
+        Map<String, AliasFilter> aliasFilter,
+        Map<String, Float> concreteIndexBoosts,
+        Executor executor,
+        SearchRequest request,
+        GroupShardsIterator<SearchShardIterator> shardsIts,
+        TransportSearchAction.SearchTimeProvider timeProvider,
+        SearchTask task,
+        boolean requireAtLeastOneMatch,
+        boolean coordinatorRewriteOnly,
+        CoordinatorRewriteContextProvider coordinatorRewriteContextProvider,
+        ActionListener<GroupShardsIterator<SearchShardIterator>> listener
     ) {
         super("can_match");
         this.logger = logger;
@@ -105,6 +146,7 @@ final class CanMatchPreFilterSearchPhase extends SearchPhase {
         this.aliasFilter = aliasFilter;
         this.task = task;
         this.requireAtLeastOneMatch = requireAtLeastOneMatch;
+        this.coordinatorRewriteOnly = coordinatorRewriteOnly;
         this.coordinatorRewriteContextProvider = coordinatorRewriteContextProvider;
         this.executor = executor;
         this.shardItIndexMap = new HashMap<>();
@@ -172,7 +214,9 @@ final class CanMatchPreFilterSearchPhase extends SearchPhase {
                     // treat as if shard is still a potential match
                 }
             }
-            if (canMatch) {
+            if (canMatch && coordinatorRewriteOnly) {
+                consumeResult(true, request);
+            } else if (canMatch) {
                 matchedShardLevelRequests.add(searchShardIterator);
             } else {
                 consumeResult(false, request);
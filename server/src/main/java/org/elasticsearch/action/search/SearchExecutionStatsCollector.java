@@ -10,6 +10,7 @@ package org.elasticsearch.action.search;
 
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.DelegatingActionListener;
+import org.elasticsearch.core.Releasable;
 import org.elasticsearch.node.ResponseCollectorService;
 import org.elasticsearch.search.SearchPhaseResult;
 import org.elasticsearch.search.query.QuerySearchResult;
@@ -21,19 +22,23 @@ import java.util.function.BiFunction;
 /**
  * A wrapper of search action listeners (search results) that unwraps the query
  * result to get the piggybacked queue size and service time EWMA, adding those
- * values to the coordinating nodes' {@link ResponseCollectorService}.
+ * values to the coordinating nodes' {@link ResponseCollectorService}. Also
+ * tracks each request as in flight to its target node until it completes.
  */
 public final class SearchExecutionStatsCollector extends DelegatingActionListener<SearchPhaseResult, SearchPhaseResult> {
 
     private final String nodeId;
     private final ResponseCollectorService collector;
     private final long startNanos;
+    private final Releasable inFlightRequest;
 
     SearchExecutionStatsCollector(ActionListener<SearchPhaseResult> listener, ResponseCollectorService collector, String nodeId) {
         super(Objects.requireNonNull(listener, "listener cannot be null"));
         this.collector = Objects.requireNonNull(collector, "response collector cannot be null");
         this.startNanos = System.nanoTime();
         this.nodeId = nodeId;
+        // released on completion, at most once even if the delegate's onResponse throws and we are then completed exceptionally
+        this.inFlightRequest = nodeId == null ? () -> {} : collector.onRequestSent(nodeId, startNanos);
     }
 
     @SuppressWarnings("unchecked")
@@ -49,6 +54,7 @@ public final class SearchExecutionStatsCollector extends DelegatingActionListene
 
     @Override
     public void onResponse(SearchPhaseResult response) {
+        inFlightRequest.close();
         QuerySearchResult queryResult = response.queryResult();
         if (nodeId != null && queryResult != null) {
             final long serviceTimeEWMA = queryResult.serviceTimeEWMA();
@@ -61,4 +67,10 @@ public final class SearchExecutionStatsCollector extends DelegatingActionListene
         }
         delegate.onResponse(response);
     }
+
+    @Override
+    public void onFailure(Exception e) {
+        inFlightRequest.close();
+        super.onFailure(e);
+    }
 }
@@ -388,12 +388,35 @@ public class SearchResponse extends ActionResponse implements ChunkedToXContentO
         );
     }
 
+    /**
+     * Returns a view of this response that renders like {@link #toXContentChunked} but releases each search hit as soon as it has been
+     * rendered, see {@link SearchHits#toXContentChunkedReleasingHits}. Must only be used by the last holder of this response, to render
+     * it once.
+     */
+    public ChunkedToXContent releasingHitsOnceRendered() {
+        return params -> {
+            assert hasReferences();
+            return Iterators.concat(
+                ChunkedToXContentHelper.startObject(),
+                innerToXContentChunked(params, true),
+                ChunkedToXContentHelper.endObject()
+            );
+        };
+    }
+
     public Iterator<? extends ToXContent> innerToXContentChunked(ToXContent.Params params) {
+        return innerToXContentChunked(params, false);
+    }
+
+    private Iterator<? extends ToXContent> innerToXContentChunked(ToXContent.Params params, boolean releaseHits) {
         return Iterators.concat(
             ChunkedToXContentHelper.singleChunk(SearchResponse.this::headerToXContent),
             Iterators.single(clusters),
             Iterators.concat(
-                Iterators.flatMap(Iterators.single(hits), r -> r.toXContentChunked(params)),
+                Iterators.flatMap(
+                    Iterators.single(hits),
+                    r -> releaseHits ? r.toXContentChunkedReleasingHits(params) : r.toXContentChunked(params)
+                ),
                 Iterators.single((ToXContent) (b, p) -> {
                     if (aggregations != null) {
                         aggregations.toXContent(b, p);
@@ -1231,6 +1231,33 @@ public class TransportSearchAction extends HandledTransportAction<SearchRequest,
             && preFilterShardSize < numShards;
     }
 
+    /**
+     * Whether it is worth running the {@link CanMatchPreFilterSearchPhase} in coordinator-rewrite-only mode for a search that does not
+     * otherwise pre-filter its shards. This is the case if some of the target indices have a known {@code @timestamp} range in the cluster
+     * state, since the coordinating node can then exclude their shards from the search without any round trips to the shards themselves.
+     */
+    static boolean shouldPruneShardsOnCoordinator(
+        ClusterState clusterState,
+        SearchRequest searchRequest,
+        GroupShardsIterator<SearchShardIterator> shardIterators
+    ) {
+        if (searchRequest.searchType() != QUERY_THEN_FETCH
+            || shardIterators.size() <= 1
+            || SearchService.canRewriteToMatchNone(searchRequest.source()) == false) {
+            return false;
+        }
+        for (SearchShardIterator shardIterator : shardIterators) {
+            if (shardIterator.getClusterAlias() == null && shardIterator.prefiltered() == false) {
+                final IndexMetadata indexMetadata = clusterState.metadata().index(shardIterator.shardId().getIndex());
+                if (indexMetadata != null
+                    && (indexMetadata.hasTimeSeriesTimestampRange() || indexMetadata.getTimestampRange().containsAllShardRanges())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     private static boolean hasReadOnlyIndices(String[] indices, ClusterState clusterState) {
         for (String index : indices) {
             ClusterBlockException writeBlock = clusterState.blocks().indexBlockedException(ClusterBlockLevel.WRITE, index);
@@ -1289,7 +1316,7 @@ public class TransportSearchAction extends HandledTransportAction<SearchRequest,
             ThreadPool threadPool,
             SearchResponse.Clusters clusters
         ) {
-            if (preFilter) {
+            if (preFilter || shouldPruneShardsOnCoordinator(clusterState, searchRequest, shardIterators)) {
                 return new CanMatchPreFilterSearchPhase(
                     logger,
                     searchTransportService,
@@ -1302,9 +1329,10 @@ public class TransportSearchAction extends HandledTransportAction<SearchRequest,
                     timeProvider,
                     task,
                     true,
+                    preFilter == false,
                     searchService.getCoordinatorRewriteContextProvider(timeProvider::absoluteStartMillis),
                     listener.delegateFailureAndWrap((l, iters) -> {
-                        SearchPhase action = newSearchPhase(
+                        SearchPhase action = newSearchAsyncAction(
                             task,
                             searchRequest,
                             executor,
@@ -1314,69 +1342,93 @@ public class TransportSearchAction extends HandledTransportAction<SearchRequest,
                             clusterState,
                             aliasFilter,
                             concreteIndexBoosts,
-                            false,
-                            threadPool,
                             clusters
                         );
                         action.start();
                     })
                 );
             } else {
-                // for synchronous CCS minimize_roundtrips=false, use the CCSSingleCoordinatorSearchProgressListener
-                // (AsyncSearchTask will not return SearchProgressListener.NOOP, since it uses its own progress listener
-                // which delegates to CCSSingleCoordinatorSearchProgressListener when minimizing roundtrips)
-                if (clusters.isCcsMinimizeRoundtrips() == false
-                    && clusters.hasRemoteClusters()
-                    && task.getProgressListener() == SearchProgressListener.NOOP) {
-                    task.setProgressListener(new CCSSingleCoordinatorSearchProgressListener());
-                }
-                final SearchPhaseResults<SearchPhaseResult> queryResultConsumer = searchPhaseController.newSearchPhaseResults(
+                return newSearchAsyncAction(
+                    task,
+                    searchRequest,
                     executor,
-                    circuitBreaker,
-                    task::isCancelled,
-                    task.getProgressListener(),
+                    shardIterators,
+                    timeProvider,
+                    connectionLookup,
+                    clusterState,
+                    aliasFilter,
+                    concreteIndexBoosts,
+                    clusters
+                );
+            }
+        }
+
+        private SearchPhase newSearchAsyncAction(
+            SearchTask task,
+            SearchRequest searchRequest,
+            Executor executor,
+            GroupShardsIterator<SearchShardIterator> shardIterators,
+            SearchTimeProvider timeProvider,
+            BiFunction<String, String, Transport.Connection> connectionLookup,
+            ClusterState clusterState,
+            Map<String, AliasFilter> aliasFilter,
+            Map<String, Float> concreteIndexBoosts,
+            SearchResponse.Clusters clusters
+        ) {
+            // for synchronous CCS minimize_roundtrips=false, use the CCSSingleCoordinatorSearchProgressListener
+            // (AsyncSearchTask will not return SearchProgressListener.NOOP, since it uses its own progress listener
+            // which delegates to CCSSingleCoordinatorSearchProgressListener when minimizing roundtrips)
+            if (clusters.isCcsMinimizeRoundtrips() == false
+                && clusters.hasRemoteClusters()
+                && task.getProgressListener() == SearchProgressListener.NOOP) {
+                task.setProgressListener(new CCSSingleCoordinatorSearchProgressListener());
+            }
+            final SearchPhaseResults<SearchPhaseResult> queryResultConsumer = searchPhaseController.newSearchPhaseResults(
+                executor,
+                circuitBreaker,
+                task::isCancelled,
+                task.getProgressListener(),
+                searchRequest,
+                shardIterators.size(),
+                exc -> searchTransportService.cancelSearchTask(task, "failed to merge result [" + exc.getMessage() + "]")
+            );
+            if (searchRequest.searchType() == DFS_QUERY_THEN_FETCH) {
+                return new SearchDfsQueryThenFetchAsyncAction(
+                    logger,
+                    namedWriteableRegistry,
+                    searchTransportService,
+                    connectionLookup,
+                    aliasFilter,
+                    concreteIndexBoosts,
+                    executor,
+                    queryResultConsumer,
                     searchRequest,
-                    shardIterators.size(),
-                    exc -> searchTransportService.cancelSearchTask(task, "failed to merge result [" + exc.getMessage() + "]")
+                    listener,
+                    shardIterators,
+                    timeProvider,
+                    clusterState,
+                    task,
+                    clusters
+                );
+            } else {
+                assert searchRequest.searchType() == QUERY_THEN_FETCH : searchRequest.searchType();
+                return new SearchQueryThenFetchAsyncAction(
+                    logger,
+                    namedWriteableRegistry,
+                    searchTransportService,
+                    connectionLookup,
+                    aliasFilter,
+                    concreteIndexBoosts,
+                    executor,
+                    queryResultConsumer,
+                    searchRequest,
+                    listener,
+                    shardIterators,
+                    timeProvider,
+                    clusterState,
+                    task,
+                    clusters
                 );
-                if (searchRequest.searchType() == DFS_QUERY_THEN_FETCH) {
-                    return new SearchDfsQueryThenFetchAsyncAction(
-                        logger,
-                        namedWriteableRegistry,
-                        searchTransportService,
-                        connectionLookup,
-                        aliasFilter,
-                        concreteIndexBoosts,
-                        executor,
-                        queryResultConsumer,
-                        searchRequest,
-                        listener,
-                        shardIterators,
-                        timeProvider,
-                        clusterState,
-                        task,
-                        clusters
-                    );
-                } else {
-                    assert searchRequest.searchType() == QUERY_THEN_FETCH : searchRequest.searchType();
-                    return new SearchQueryThenFetchAsyncAction(
-                        logger,
-                        namedWriteableRegistry,
-                        searchTransportService,
-                        connectionLookup,
-                        aliasFilter,
-                        concreteIndexBoosts,
-                        executor,
-                        queryResultConsumer,
-                        searchRequest,
-                        listener,
-                        shardIterators,
-                        timeProvider,
-                        clusterState,
-                        task,
-                        clusters
-                    );
-                }
             }
         }
     }
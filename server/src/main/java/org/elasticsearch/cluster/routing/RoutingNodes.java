@@ -65,6 +65,14 @@ public class RoutingNodes implements Iterable<RoutingNode> {
 
     private final Map<ShardId, List<ShardRouting>> assignedShards;
 
+    /**
+     * The {@link #assignedShards} of the read-only instance from which this instance was copied, or {@code null} if this instance was built
+     * from scratch. Lists of assigned shards are shared with the original instance until they are first modified, see
+     * {@link #mutableAssignedShards}, which avoids copying the list for every shard in the cluster on each reroute.
+     */
+    @Nullable
+    private final Map<ShardId, List<ShardRouting>> copyOnWriteAssignedShards;
+
     private final boolean readOnly;
 
     private int inactivePrimaryCount = 0;
@@ -94,6 +102,7 @@ public class RoutingNodes implements Iterable<RoutingNode> {
         this.recoveriesPerNode = new HashMap<>();
         final int indexCount = routingTable.indicesRouting().size();
         this.assignedShards = Maps.newMapWithExpectedSize(indexCount);
+        this.copyOnWriteAssignedShards = null;
         this.unassignedShards = new UnassignedShards(this);
         this.attributeValuesByAttribute = Collections.synchronizedMap(new HashMap<>());
 
@@ -159,7 +168,8 @@ public class RoutingNodes implements Iterable<RoutingNode> {
         assert routingNodes.readOnly : "tried to create a mutable copy from a mutable instance";
         this.readOnly = false;
         this.nodesToShards = Maps.copyOf(routingNodes.nodesToShards, RoutingNode::copy);
-        this.assignedShards = Maps.copyOf(routingNodes.assignedShards, ArrayList::new);
+        this.assignedShards = new HashMap<>(routingNodes.assignedShards);
+        this.copyOnWriteAssignedShards = routingNodes.assignedShards;
         this.unassignedShards = routingNodes.unassignedShards.copyFor(this);
         this.inactivePrimaryCount = routingNodes.inactivePrimaryCount;
         this.inactiveShardCount = routingNodes.inactiveShardCount;
@@ -317,7 +327,7 @@ public class RoutingNodes implements Iterable<RoutingNode> {
 
     /**
      * Returns all shards that are not in the state UNASSIGNED with the same shard
-     * ID as the given shard.
+     * ID as the given shard. The returned list may not reflect subsequent changes to this instance.
      */
     public List<ShardRouting> assignedShards(ShardId shardId) {
         final List<ShardRouting> replicaSet = assignedShards.get(shardId);
@@ -773,9 +783,23 @@ public class RoutingNodes implements Iterable<RoutingNode> {
         return relocationMarkerRemoved;
     }
 
+    /**
+     * @return the list of assigned shards with the given shard ID, creating it if absent, and first copying it if it is still shared with
+     *         the instance from which this instance was copied.
+     */
+    private List<ShardRouting> mutableAssignedShards(ShardId shardId) {
+        final List<ShardRouting> shards = assignedShards.get(shardId);
+        if (shards == null || (copyOnWriteAssignedShards != null && copyOnWriteAssignedShards.get(shardId) == shards)) {
+            final List<ShardRouting> mutableShards = shards == null ? new ArrayList<>() : new ArrayList<>(shards);
+            assignedShards.put(shardId, mutableShards);
+            return mutableShards;
+        }
+        return shards;
+    }
+
     private void assignedShardsAdd(ShardRouting shard) {
         assert shard.unassigned() == false : "unassigned shard " + shard + " cannot be added to list of assigned shards";
-        List<ShardRouting> shards = assignedShards.computeIfAbsent(shard.shardId(), k -> new ArrayList<>());
+        List<ShardRouting> shards = mutableAssignedShards(shard.shardId());
         assert assertInstanceNotInList(shard, shards) : "shard " + shard + " cannot appear twice in list of assigned shards";
         shards.add(shard);
     }
@@ -788,7 +812,7 @@ public class RoutingNodes implements Iterable<RoutingNode> {
     }
 
     private void assignedShardsRemove(ShardRouting shard) {
-        final List<ShardRouting> replicaSet = assignedShards.get(shard.shardId());
+        final List<ShardRouting> replicaSet = assignedShards.containsKey(shard.shardId()) ? mutableAssignedShards(shard.shardId()) : null;
         if (replicaSet != null) {
             final Iterator<ShardRouting> iterator = replicaSet.iterator();
             while (iterator.hasNext()) {
@@ -819,7 +843,7 @@ public class RoutingNodes implements Iterable<RoutingNode> {
         assert oldShard.currentNodeId().equals(newShard.currentNodeId())
             : "shard to update " + oldShard + " can only update " + oldShard + " by shard assigned to same node but was " + newShard;
         node(oldShard.currentNodeId()).update(oldShard, newShard);
-        List<ShardRouting> shardsWithMatchingShardId = assignedShards.computeIfAbsent(oldShard.shardId(), k -> new ArrayList<>());
+        List<ShardRouting> shardsWithMatchingShardId = mutableAssignedShards(oldShard.shardId());
         int previousShardIndex = shardsWithMatchingShardId.indexOf(oldShard);
         assert previousShardIndex >= 0 : "shard to update " + oldShard + " does not exist in list of assigned shards";
         shardsWithMatchingShardId.set(previousShardIndex, newShard);
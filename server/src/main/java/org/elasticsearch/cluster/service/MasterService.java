@@ -52,6 +52,8 @@ import org.elasticsearch.tasks.Task;
 import org.elasticsearch.tasks.TaskAwareRequest;
 import org.elasticsearch.tasks.TaskId;
 import org.elasticsearch.tasks.TaskManager;
+import org.elasticsearch.telemetry.metric.LongHistogram;
+import org.elasticsearch.telemetry.metric.MeterRegistry;
 import org.elasticsearch.threadpool.Scheduler;
 import org.elasticsearch.threadpool.ThreadPool;
 
@@ -69,6 +71,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.IntSupplier;
 import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
@@ -92,6 +95,21 @@ public class MasterService extends AbstractLifecycleComponent {
         Setting.Property.NodeScope
     );
 
+    /**
+     * The maximum number of tasks from a single {@link MasterServiceTaskQueue} which are executed in one batch. Any further tasks remain
+     * queued and the queue goes to the back of the line for its priority, giving other queues at the same priority a chance to run first.
+     */
+    public static final Setting<Integer> MASTER_SERVICE_MAX_TASKS_PER_BATCH_SETTING = Setting.intSetting(
+        "cluster.service.max_master_tasks_per_batch",
+        Integer.MAX_VALUE,
+        1,
+        Setting.Property.Dynamic,
+        Setting.Property.NodeScope
+    );
+
+    public static final String TASK_QUEUE_WAIT_TIME_HISTOGRAM_NAME = "es.master_service.task_queue.wait_time.histogram";
+    public static final String TASK_QUEUE_EXECUTION_TIME_HISTOGRAM_NAME = "es.master_service.task_queue.execution_time.histogram";
+
     public static final String MASTER_UPDATE_THREAD_NAME = "masterService#updateTask";
 
     public static final String STATE_UPDATE_ACTION_NAME = "publish_cluster_state_update";
@@ -105,6 +123,7 @@ public class MasterService extends AbstractLifecycleComponent {
 
     private volatile TimeValue slowTaskLoggingThreshold;
     private final TimeValue starvationLoggingThreshold;
+    private volatile int maxTasksPerBatch;
 
     protected final ThreadPool threadPool;
     private final TaskManager taskManager;
@@ -117,8 +136,20 @@ public class MasterService extends AbstractLifecycleComponent {
 
     private final ClusterStateUpdateStatsTracker clusterStateUpdateStatsTracker = new ClusterStateUpdateStatsTracker();
     private final StarvationWatcher starvationWatcher = new StarvationWatcher();
+    private final LongHistogram taskQueueWaitTimeHistogram;
+    private final LongHistogram taskQueueExecutionTimeHistogram;
 
     public MasterService(Settings settings, ClusterSettings clusterSettings, ThreadPool threadPool, TaskManager taskManager) {
+        this(settings, clusterSettings, threadPool, taskManager, MeterRegistry.NOOP);
+    }
+
+    public MasterService(
+        Settings settings,
+        ClusterSettings clusterSettings,
+        ThreadPool threadPool,
+        TaskManager taskManager,
+        MeterRegistry meterRegistry
+    ) {
         this.nodeName = Objects.requireNonNull(Node.NODE_NAME_SETTING.get(settings));
 
         this.slowTaskLoggingThreshold = MASTER_SERVICE_SLOW_TASK_LOGGING_THRESHOLD_SETTING.get(settings);
@@ -126,6 +157,20 @@ public class MasterService extends AbstractLifecycleComponent {
 
         this.starvationLoggingThreshold = MASTER_SERVICE_STARVATION_LOGGING_THRESHOLD_SETTING.get(settings);
 
+        this.maxTasksPerBatch = MASTER_SERVICE_MAX_TASKS_PER_BATCH_SETTING.get(settings);
+        clusterSettings.addSettingsUpdateConsumer(MASTER_SERVICE_MAX_TASKS_PER_BATCH_SETTING, this::setMaxTasksPerBatch);
+
+        this.taskQueueWaitTimeHistogram = meterRegistry.registerLongHistogram(
+            TASK_QUEUE_WAIT_TIME_HISTOGRAM_NAME,
+            "Time that master service tasks spent waiting in their queue before execution, by queue",
+            "millis"
+        );
+        this.taskQueueExecutionTimeHistogram = meterRegistry.registerLongHistogram(
+            TASK_QUEUE_EXECUTION_TIME_HISTOGRAM_NAME,
+            "Time taken to execute and publish each batch of master service tasks, by queue",
+            "millis"
+        );
+
         this.threadPool = threadPool;
         this.taskManager = taskManager;
 
@@ -141,6 +186,14 @@ public class MasterService extends AbstractLifecycleComponent {
         this.slowTaskLoggingThreshold = slowTaskLoggingThreshold;
     }
 
+    private void setMaxTasksPerBatch(int maxTasksPerBatch) {
+        this.maxTasksPerBatch = maxTasksPerBatch;
+    }
+
+    private int getMaxTasksPerBatch() {
+        return maxTasksPerBatch;
+    }
+
     public synchronized void setClusterStatePublisher(ClusterStatePublisher publisher) {
         clusterStatePublisher = publisher;
     }
@@ -599,10 +652,11 @@ public class MasterService extends AbstractLifecycleComponent {
     }
 
     private Stream<Batch> allBatchesStream() {
+        // a batch may already be back in its queue while it completes, in which case it must only be counted once
         return Stream.concat(
             Stream.ofNullable(currentlyExecutingBatch),
             queuesByPriority.values().stream().filter(Objects::nonNull).flatMap(q -> q.queue.stream())
-        );
+        ).distinct();
     }
 
     private void logExecutionTime(TimeValue executionTime, String activity, BatchSummary summary) {
@@ -1422,10 +1476,33 @@ public class MasterService extends AbstractLifecycleComponent {
             insertionIndexSupplier,
             queuesByPriority.get(priority),
             executor,
-            threadPool
+            threadPool,
+            this::getMaxTasksPerBatch,
+            new BatchingTaskQueueMetrics(
+                taskQueueWaitTimeHistogram,
+                taskQueueExecutionTimeHistogram,
+                Map.of("es_master_task_queue_name", name, "es_master_task_queue_priority", priority.name())
+            )
         );
     }
 
+    /**
+     * Histograms shared by all {@link BatchingTaskQueue} instances, together with the attributes identifying one particular queue.
+     */
+    private record BatchingTaskQueueMetrics(
+        LongHistogram waitTimeHistogram,
+        LongHistogram executionTimeHistogram,
+        Map<String, Object> attributes
+    ) {
+        void recordWaitTime(long waitTimeMillis) {
+            waitTimeHistogram.record(waitTimeMillis, attributes);
+        }
+
+        void recordExecutionTime(long executionTimeMillis) {
+            executionTimeHistogram.record(executionTimeMillis, attributes);
+        }
+    }
+
     @FunctionalInterface
     private interface BatchConsumer<T extends ClusterStateTaskListener> {
         void runBatch(
@@ -1499,8 +1576,9 @@ public class MasterService extends AbstractLifecycleComponent {
      * transitions between empty and nonempty queues and arrange to process the queue if and only if it's nonempty. There is only ever one
      * active processor for each such queue.
      *
-     * Works differently from {@link PerPriorityQueue} in that each time the queue is processed it will drain all the pending items at once
-     * and process them in a single batch.
+     * Works differently from {@link PerPriorityQueue} in that each time the queue is processed it will drain the pending items (up to
+     * {@link #MASTER_SERVICE_MAX_TASKS_PER_BATCH_SETTING} of them) and process them in a single batch. If any items remain then the queue
+     * re-enters its {@link PerPriorityQueue} as the batch completes, behind any other queues of the same priority which are waiting.
      *
      * Also handles that tasks may time out before being processed.
      */
@@ -1515,6 +1593,8 @@ public class MasterService extends AbstractLifecycleComponent {
         private final PerPriorityQueue perPriorityQueue;
         private final ClusterStateTaskExecutor<T> executor;
         private final ThreadPool threadPool;
+        private final IntSupplier maxTasksPerBatchSupplier;
+        private final BatchingTaskQueueMetrics metrics;
         private final Batch processor = new Processor();
 
         BatchingTaskQueue(
@@ -1523,7 +1603,9 @@ public class MasterService extends AbstractLifecycleComponent {
             LongSupplier insertionIndexSupplier,
             PerPriorityQueue perPriorityQueue,
             ClusterStateTaskExecutor<T> executor,
-            ThreadPool threadPool
+            ThreadPool threadPool,
+            IntSupplier maxTasksPerBatchSupplier,
+            BatchingTaskQueueMetrics metrics
         ) {
             this.name = name;
             this.batchConsumer = batchConsumer;
@@ -1531,6 +1613,8 @@ public class MasterService extends AbstractLifecycleComponent {
             this.perPriorityQueue = perPriorityQueue;
             this.executor = executor;
             this.threadPool = threadPool;
+            this.maxTasksPerBatchSupplier = maxTasksPerBatchSupplier;
+            this.metrics = metrics;
         }
 
         @Override
@@ -1630,7 +1714,25 @@ public class MasterService extends AbstractLifecycleComponent {
             @Override
             public void run(ActionListener<Void> listener) {
                 assert executing.isEmpty() : executing;
-                final var entryCount = queueSize.getAndSet(0);
+                final var maxTasksPerBatch = maxTasksPerBatchSupplier.getAsInt();
+                int entryCount;
+                int remainingCount;
+                do {
+                    final var queuedCount = queueSize.get();
+                    assert queuedCount > 0 : queuedCount;
+                    entryCount = Math.min(queuedCount, maxTasksPerBatch);
+                    remainingCount = queuedCount - entryCount;
+                } while (queueSize.compareAndSet(entryCount + remainingCount, remainingCount) == false);
+
+                // Only this processor consumes from the queue, and it is not in the PerPriorityQueue while running, so if there are
+                // remaining entries then nothing else will reschedule it: we must do so ourselves once this batch is complete. We do this
+                // before completing the listener so that the master service never sees an empty queue, and the remaining entries are never
+                // missing from the pending tasks, while this processor moves to the back of its PerPriorityQueue.
+                final var batchListener = remainingCount > 0
+                    ? ActionListener.runBefore(listener, () -> perPriorityQueue.execute(processor))
+                    : listener;
+
+                final var currentTimeMillis = threadPool.relativeTimeInMillis();
                 var taskCount = 0;
                 final var tasks = new ArrayList<ExecutionResult<T>>(entryCount);
                 for (int i = 0; i < entryCount; i++) {
@@ -1640,19 +1742,22 @@ public class MasterService extends AbstractLifecycleComponent {
                     if (task != null) {
                         taskCount += 1;
                         executing.add(entry);
+                        metrics.recordWaitTime(Math.max(0L, currentTimeMillis - entry.insertionTimeMillis()));
                         tasks.add(
                             new ExecutionResult<>(entry.source(), task, threadPool.getThreadContext(), entry.storedContextSupplier())
                         );
                     }
                 }
                 if (taskCount == 0) {
-                    listener.onResponse(null);
+                    batchListener.onResponse(null);
                     return;
                 }
                 final var finalTaskCount = taskCount;
-                ActionListener.run(ActionListener.runBefore(listener, () -> {
+                final var startTimeMillis = threadPool.rawRelativeTimeInMillis();
+                ActionListener.run(ActionListener.runBefore(batchListener, () -> {
                     assert executing.size() == finalTaskCount;
                     executing.clear();
+                    metrics.recordExecutionTime(Math.max(0L, threadPool.rawRelativeTimeInMillis() - startTimeMillis));
                 }), l -> batchConsumer.runBatch(executor, tasks, new BatchSummary(() -> buildTasksDescription(tasks)), l));
             }
 
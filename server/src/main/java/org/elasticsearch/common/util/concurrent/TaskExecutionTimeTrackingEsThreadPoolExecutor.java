@@ -11,6 +11,8 @@ package org.elasticsearch.common.util.concurrent;
 import org.elasticsearch.common.ExponentiallyWeightedMovingAverage;
 import org.elasticsearch.common.util.concurrent.EsExecutors.TaskTrackingConfig;
 import org.elasticsearch.core.TimeValue;
+import org.elasticsearch.telemetry.metric.LongHistogram;
+import org.elasticsearch.telemetry.metric.MeterRegistry;
 
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
@@ -32,6 +34,8 @@ public final class TaskExecutionTimeTrackingEsThreadPoolExecutor extends EsThrea
     private final boolean trackOngoingTasks;
     // The set of currently running tasks and the timestamp of when they started execution in the Executor.
     private final Map<Runnable, Long> ongoingTasks = new ConcurrentHashMap<>();
+    private LongHistogram queueLatencyHistogram = LongHistogram.NOOP;
+    private LongHistogram executionTimeHistogram = LongHistogram.NOOP;
 
     TaskExecutionTimeTrackingEsThreadPoolExecutor(
         String name,
@@ -81,6 +85,28 @@ public final class TaskExecutionTimeTrackingEsThreadPoolExecutor extends EsThrea
         return totalExecutionTime.sum();
     }
 
+    /**
+     * Registers histograms with the given registry that record the time each task spent waiting in the queue and the time it spent
+     * running, in milliseconds. Queue latency is recorded for every task that ran, execution time only for those that completed normally.
+     */
+    public void registerHistograms(
+        MeterRegistry meterRegistry,
+        String queueLatencyMetricName,
+        String executionTimeMetricName,
+        String threadPoolName
+    ) {
+        queueLatencyHistogram = meterRegistry.registerLongHistogram(
+            queueLatencyMetricName,
+            "time tasks spent in the queue of " + threadPoolName,
+            "millis"
+        );
+        executionTimeHistogram = meterRegistry.registerLongHistogram(
+            executionTimeMetricName,
+            "time tasks spent executing on " + threadPoolName,
+            "millis"
+        );
+    }
+
     /**
      * Returns the current queue size (operations that are queued)
      */
@@ -116,6 +142,11 @@ public final class TaskExecutionTimeTrackingEsThreadPoolExecutor extends EsThrea
                 // taskExecutionNanos may be -1 if the task threw an exception
                 executionEWMA.addValue(taskExecutionNanos);
                 totalExecutionTime.add(taskExecutionNanos);
+                executionTimeHistogram.record(TimeUnit.NANOSECONDS.toMillis(taskExecutionNanos));
+            }
+            final long queueTimeNanos = timedRunnable.getQueueTimeNanos();
+            if (queueTimeNanos != -1) {
+                queueLatencyHistogram.record(TimeUnit.NANOSECONDS.toMillis(queueTimeNanos));
             }
         } finally {
             // if trackOngoingTasks is false -> ongoingTasks must be empty
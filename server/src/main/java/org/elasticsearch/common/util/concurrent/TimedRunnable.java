@@ -69,6 +69,17 @@ class TimedRunnable extends AbstractRunnable implements WrappedRunnable {
         return Math.max(finishTimeNanos - startTimeNanos, 1);
     }
 
+    /**
+     * Return the time this task spent waiting in the queue before it started to run.
+     * If the task has not yet been run, returns -1.
+     */
+    long getQueueTimeNanos() {
+        if (finishTimeNanos == -1) {
+            return -1;
+        }
+        return Math.max(startTimeNanos - creationTimeNanos, 0);
+    }
+
     /**
      * If the task was failed or rejected, return true.
      * Otherwise, false.
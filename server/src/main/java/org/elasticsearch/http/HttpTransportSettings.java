@@ -66,6 +66,11 @@ public final class HttpTransportSettings {
     // we intentionally use a different compression level as Netty here as our benchmarks have shown that a compression level of 3 is the
     // best compromise between reduction in network traffic and added latency. For more details please check #7309.
     public static final Setting<Integer> SETTING_HTTP_COMPRESSION_LEVEL = intSetting("http.compression_level", 3, Property.NodeScope);
+    public static final Setting<Boolean> SETTING_HTTP_COMPRESSION_ZSTD = Setting.boolSetting(
+        "http.compression_zstd",
+        false,
+        Property.NodeScope
+    );
     public static final Setting<List<String>> SETTING_HTTP_HOST = stringListSetting("http.host", Property.NodeScope);
     public static final Setting<List<String>> SETTING_HTTP_PUBLISH_HOST = listSetting(
         "http.publish_host",
@@ -435,6 +435,31 @@ public final class IndexSettings {
         Property.Dynamic
     );
 
+    /**
+     * Controls how many of the most recent operations a primary keeps in memory, so that operation-based recoveries and CCR followers
+     * that only need recent history can be served without refreshing the index and loading the operations from Lucene. Set to zero
+     * (the default) to disable the buffer.
+     **/
+    public static final Setting<Integer> INDEX_RECENT_OPERATIONS_BUFFER_SIZE_SETTING = Setting.intSetting(
+        "index.recent_operations_buffer.size",
+        0,
+        0,
+        1 << 20,
+        Property.IndexScope
+    );
+
+    /**
+     * The maximum total size of the operations held in the buffer controlled by {@link #INDEX_RECENT_OPERATIONS_BUFFER_SIZE_SETTING}.
+     * Operations that do not fit are not buffered, and requests for history that includes them are served from Lucene instead.
+     **/
+    public static final Setting<ByteSizeValue> INDEX_RECENT_OPERATIONS_BUFFER_MAX_BYTES_SETTING = Setting.byteSizeSetting(
+        "index.recent_operations_buffer.max_bytes",
+        new ByteSizeValue(16, ByteSizeUnit.MB),
+        ByteSizeValue.ZERO,
+        ByteSizeValue.ofBytes(Long.MAX_VALUE),
+        Property.IndexScope
+    );
+
     /**
      * Controls how long translog files that are no longer needed for persistence reasons
      * will be kept around before being deleted. Keeping more files is useful to increase
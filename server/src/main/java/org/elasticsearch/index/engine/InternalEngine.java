@@ -184,6 +184,8 @@ public class InternalEngine extends Engine {
 
     private final NumericDocValuesField softDeletesField = Lucene.newSoftDeletesField();
     private final SoftDeletesPolicy softDeletesPolicy;
+    @Nullable
+    private final RecentOperationsBuffer recentOperationsBuffer;
     private final LastRefreshedCheckpointListener lastRefreshedCheckpointListener;
     private final FlushListeners flushListener;
     private final AsyncIOProcessor<Tuple<Long, Translog.Location>> translogSyncProcessor;
@@ -237,6 +239,14 @@ public class InternalEngine extends Engine {
         this.lastFlushTimestamp = relativeTimeInNanosSupplier.getAsLong(); // default to creation timestamp
         this.liveVersionMapArchive = createLiveVersionMapArchive();
         this.versionMap = new LiveVersionMap(liveVersionMapArchive);
+        final int recentOperationsBufferSize = engineConfig.getIndexSettings()
+            .getValue(IndexSettings.INDEX_RECENT_OPERATIONS_BUFFER_SIZE_SETTING);
+        this.recentOperationsBuffer = recentOperationsBufferSize > 0
+            ? new RecentOperationsBuffer(
+                recentOperationsBufferSize,
+                engineConfig.getIndexSettings().getValue(IndexSettings.INDEX_RECENT_OPERATIONS_BUFFER_MAX_BYTES_SETTING).getBytes()
+            )
+            : null;
         final TranslogDeletionPolicy translogDeletionPolicy = new TranslogDeletionPolicy();
         store.incRef();
         IndexWriter writer = null;
@@ -1226,7 +1236,9 @@ public class InternalEngine extends Engine {
                 if (index.origin().isFromTranslog() == false) {
                     final Translog.Location location;
                     if (indexResult.getResultType() == Result.Type.SUCCESS) {
-                        location = translog.add(new Translog.Index(index, indexResult));
+                        final Translog.Index operation = new Translog.Index(index, indexResult);
+                        location = translog.add(operation);
+                        addToRecentOperations(index.origin(), operation);
                     } else if (indexResult.getSeqNo() != SequenceNumbers.UNASSIGNED_SEQ_NO) {
                         // if we have document failure, record it as a no-op in the translog and Lucene with the generated seq_no
                         final NoOp noOp = new NoOp(
@@ -1662,7 +1674,9 @@ public class InternalEngine extends Engine {
                 }
             }
             if (delete.origin().isFromTranslog() == false && deleteResult.getResultType() == Result.Type.SUCCESS) {
-                final Translog.Location location = translog.add(new Translog.Delete(delete, deleteResult));
+                final Translog.Delete operation = new Translog.Delete(delete, deleteResult);
+                final Translog.Location location = translog.add(operation);
+                addToRecentOperations(delete.origin(), operation);
                 deleteResult.setTranslogLocation(location);
             }
             localCheckpointTracker.markSeqNoAsProcessed(deleteResult.getSeqNo());
@@ -1990,7 +2004,9 @@ public class InternalEngine extends Engine {
                 }
                 noOpResult = new NoOpResult(noOp.primaryTerm(), noOp.seqNo());
                 if (noOp.origin().isFromTranslog() == false && noOpResult.getResultType() == Result.Type.SUCCESS) {
-                    final Translog.Location location = translog.add(new Translog.NoOp(noOp.seqNo(), noOp.primaryTerm(), noOp.reason()));
+                    final Translog.NoOp operation = new Translog.NoOp(noOp.seqNo(), noOp.primaryTerm(), noOp.reason());
+                    final Translog.Location location = translog.add(operation);
+                    addToRecentOperations(noOp.origin(), operation);
                     noOpResult.setTranslogLocation(location);
                 }
             }
@@ -3116,6 +3132,18 @@ public class InternalEngine extends Engine {
         boolean accessStats
     ) throws IOException {
         ensureOpen();
+        if (recentOperationsBuffer != null) {
+            // without a full range, serve everything up to the max seq_no, e.g. for peer recoveries and resyncs asking up to Long.MAX_VALUE
+            final Translog.Snapshot recentOperations = recentOperationsBuffer.newSnapshot(
+                fromSeqNo,
+                requiredFullRange ? toSeqNo : Math.min(toSeqNo, localCheckpointTracker.getMaxSeqNo()),
+                requiredFullRange,
+                localCheckpointTracker::hasProcessed
+            );
+            if (recentOperations != null) {
+                return recentOperations;
+            }
+        }
         refreshIfNeeded(source, toSeqNo);
         Searcher searcher = acquireSearcher(source, SearcherScope.INTERNAL);
         try {
@@ -3143,6 +3171,13 @@ public class InternalEngine extends Engine {
         }
     }
 
+    private void addToRecentOperations(Operation.Origin origin, Translog.Operation operation) {
+        // only the primary serves history to recoveries and followers, so there is no need to buffer operations on replicas
+        if (recentOperationsBuffer != null && origin == Operation.Origin.PRIMARY) {
+            recentOperationsBuffer.add(operation);
+        }
+    }
+
     @Override
     public boolean hasCompleteOperationHistory(String reason, long startingSeqNo) {
         return getMinRetainedSeqNo() <= startingSeqNo;
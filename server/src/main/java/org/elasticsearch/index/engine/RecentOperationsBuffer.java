@@ -0,0 +1,127 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.index.engine;
+
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.index.translog.Translog;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongPredicate;
+
+/**
+ * A bounded ring buffer of the most recent operations processed as primary, keyed by sequence number, so that requests for a range
+ * of recent history (e.g. from peer recoveries or CCR followers) can be served without refreshing the index and loading the
+ * operations from Lucene's stored fields. The buffer is bounded both by the number of operations and by their total size. It only
+ * answers a request if it holds every processed operation of the requested range, otherwise the caller must fall back to reading the
+ * history from Lucene.
+ */
+final class RecentOperationsBuffer {
+
+    private final AtomicReferenceArray<Translog.Operation> operations;
+    private final long maxBytes;
+    private final AtomicLong bufferedBytes = new AtomicLong();
+
+    RecentOperationsBuffer(int capacity, long maxBytes) {
+        assert capacity > 0 : capacity;
+        assert maxBytes >= 0 : maxBytes;
+        this.operations = new AtomicReferenceArray<>(capacity);
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Adds the given operation, replacing any older operation in its slot. The source of index operations is copied since it may be
+     * backed by a buffer that is released once the operation has been processed. If the operation does not fit within the size
+     * bound then it is not buffered, but the older operation in its slot is evicted anyway so that room is made for newer operations.
+     */
+    void add(Translog.Operation operation) {
+        final Translog.Operation toAdd;
+        if (operation instanceof Translog.Index index) {
+            // Lucene does not retain the auto-generated id timestamp either, see LuceneChangesSnapshot
+            toAdd = new Translog.Index(
+                index.id(),
+                index.seqNo(),
+                index.primaryTerm(),
+                index.version(),
+                new BytesArray(index.source().toBytesRef(), true),
+                index.routing(),
+                -1
+            );
+        } else {
+            toAdd = operation;
+        }
+        final long toAddBytes = toAdd.estimateSize();
+        final int slot = slot(toAdd.seqNo());
+        while (true) {
+            final Translog.Operation existing = operations.get(slot);
+            if (existing != null
+                && (existing.seqNo() > toAdd.seqNo()
+                    || (existing.seqNo() == toAdd.seqNo() && existing.primaryTerm() >= toAdd.primaryTerm()))) {
+                return;
+            }
+            final long existingBytes = existing == null ? 0L : existing.estimateSize();
+            final boolean fits = bufferedBytes.get() - existingBytes + toAddBytes <= maxBytes;
+            if (operations.compareAndSet(slot, existing, fits ? toAdd : null)) {
+                bufferedBytes.addAndGet((fits ? toAddBytes : 0L) - existingBytes);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns a snapshot of the operations with sequence numbers from {@code fromSeqNo} to {@code toSeqNo} (inclusive), or {@code null}
+     * if the buffer does not hold all of them. If {@code requiredFullRange} is {@code false} then operations that have not been processed
+     * yet according to {@code hasProcessed} may be missing from the range and are left out of the snapshot, like they would be left out of
+     * a snapshot of the history in Lucene. Operations are buffered before they are marked as processed, so an operation that is missing
+     * but already processed was never buffered or has been evicted.
+     */
+    @Nullable
+    Translog.Snapshot newSnapshot(long fromSeqNo, long toSeqNo, boolean requiredFullRange, LongPredicate hasProcessed) {
+        if (fromSeqNo < 0 || toSeqNo < fromSeqNo || toSeqNo - fromSeqNo >= operations.length()) {
+            return null;
+        }
+        final List<Translog.Operation> snapshot = new ArrayList<>(Math.toIntExact(toSeqNo - fromSeqNo + 1));
+        for (long seqNo = fromSeqNo; seqNo <= toSeqNo; seqNo++) {
+            final Translog.Operation operation = operations.get(slot(seqNo));
+            if (operation != null && operation.seqNo() == seqNo) {
+                snapshot.add(operation);
+            } else if (requiredFullRange || hasProcessed.test(seqNo)) {
+                return null;
+            }
+        }
+        final Iterator<Translog.Operation> iterator = snapshot.iterator();
+        return new Translog.Snapshot() {
+            @Override
+            public int totalOperations() {
+                return snapshot.size();
+            }
+
+            @Override
+            public Translog.Operation next() {
+                return iterator.hasNext() ? iterator.next() : null;
+            }
+
+            @Override
+            public void close() {}
+        };
+    }
+
+    private int slot(long seqNo) {
+        return (int) (seqNo % operations.length());
+    }
+
+    // visible for testing
+    long bufferedBytes() {
+        return bufferedBytes.get();
+    }
+}
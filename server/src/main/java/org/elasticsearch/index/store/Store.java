@@ -533,12 +533,130 @@ public class Store extends AbstractIndexShardComponent implements Closeable, Ref
         return new VerifyingIndexInput(directory().openInput(filename, context));
     }
 
+    /**
+     * Opens an input that computes the checksum of the given file from the given position onwards, as it is read. The file must be read
+     * completely in consecutive parts through such inputs and then verified with {@link #verifyParts}.
+     */
+    public IndexInput openVerifyingInput(String filename, IOContext context, StoreFileMetadata metadata, long position) throws IOException {
+        assert metadata.writtenBy() != null;
+        final IndexInput input = directory().openInput(filename, context);
+        boolean success = false;
+        try {
+            input.seek(position);
+            final IndexInput verifyingInput = new VerifyingIndexInput(input, new BufferedChecksum(new CRC32()), position);
+            success = true;
+            return verifyingInput;
+        } finally {
+            if (success == false) {
+                IOUtils.closeWhileHandlingException(input);
+            }
+        }
+    }
+
     public static void verify(IndexInput input) throws IOException {
         if (input instanceof VerifyingIndexInput) {
             ((VerifyingIndexInput) input).verify();
         }
     }
 
+    /**
+     * Verifies the checksum of a file that was read completely through the given inputs, opened with
+     * {@link #openVerifyingInput(String, IOContext, StoreFileMetadata, long)} at consecutive positions. Combines the checksums of the parts
+     * rather than reading the file again, so the inputs may already be closed.
+     */
+    public static void verifyParts(StoreFileMetadata metadata, List<IndexInput> parts) throws IOException {
+        final byte[] storedChecksumBytes = new byte[8];
+        long checksum = 0L;
+        long position = 0L;
+        for (IndexInput part : parts) {
+            final VerifyingIndexInput verifyingPart = (VerifyingIndexInput) part;
+            if (verifyingPart.startPosition != position) {
+                throw new IllegalArgumentException(
+                    "part of [" + metadata.name() + "] starts at [" + verifyingPart.startPosition + "] but expected [" + position + "]"
+                );
+            }
+            checksum = crc32Combine(checksum, verifyingPart.getChecksum(), verifyingPart.checksummedLength());
+            verifyingPart.copyStoredChecksumBytes(storedChecksumBytes);
+            position = verifyingPart.verifiedPosition;
+        }
+        if (position != metadata.length()) {
+            throw new CorruptIndexException(
+                "expected length=" + metadata.length() + " != verified length: " + position + " : file truncated?",
+                metadata.name()
+            );
+        }
+        final long storedChecksum = CodecUtil.readBELong(new ByteArrayDataInput(storedChecksumBytes));
+        if (checksum != storedChecksum) {
+            throw new CorruptIndexException(
+                "verification failed : calculated=" + Store.digestToString(checksum) + " stored=" + Store.digestToString(storedChecksum),
+                metadata.name()
+            );
+        }
+        final String storedChecksumString = Store.digestToString(storedChecksum);
+        if (storedChecksumString.equals(metadata.checksum()) == false) {
+            throw new CorruptIndexException(
+                "inconsistent metadata: lucene checksum=" + storedChecksumString + ", metadata checksum=" + metadata.checksum(),
+                metadata.name()
+            );
+        }
+    }
+
+    /**
+     * Returns the CRC32 of the concatenation of two byte sequences given their CRC32s and the length of the second sequence, following
+     * zlib's {@code crc32_combine}: appending {@code length2} zero bytes to the first sequence is a linear operation on its CRC, which is
+     * applied by repeatedly squaring the matrix of the operator that appends a single zero bit.
+     */
+    static long crc32Combine(long crc1, long crc2, long length2) {
+        if (length2 <= 0) {
+            return crc1;
+        }
+        final long[] even = new long[32]; // operator for an even power of two zero bits
+        final long[] odd = new long[32]; // operator for an odd power of two zero bits
+        odd[0] = 0xedb88320L; // the CRC32 polynomial
+        long row = 1;
+        for (int n = 1; n < 32; n++) {
+            odd[n] = row;
+            row <<= 1;
+        }
+        gf2MatrixSquare(even, odd); // operator for two zero bits
+        gf2MatrixSquare(odd, even); // operator for four zero bits
+        long crc = crc1;
+        long remaining = length2;
+        do {
+            // the first squaring yields the operator for one zero byte, i.e. eight zero bits
+            gf2MatrixSquare(even, odd);
+            if ((remaining & 1) != 0) {
+                crc = gf2MatrixTimes(even, crc);
+            }
+            remaining >>>= 1;
+            if (remaining == 0) {
+                break;
+            }
+            gf2MatrixSquare(odd, even);
+            if ((remaining & 1) != 0) {
+                crc = gf2MatrixTimes(odd, crc);
+            }
+            remaining >>>= 1;
+        } while (remaining != 0);
+        return crc ^ crc2;
+    }
+
+    private static long gf2MatrixTimes(long[] matrix, long vector) {
+        long sum = 0;
+        for (int i = 0; vector != 0; i++, vector >>>= 1) {
+            if ((vector & 1) != 0) {
+                sum ^= matrix[i];
+            }
+        }
+        return sum;
+    }
+
+    private static void gf2MatrixSquare(long[] square, long[] matrix) {
+        for (int n = 0; n < 32; n++) {
+            square[n] = gf2MatrixTimes(matrix, matrix[n]);
+        }
+    }
+
     public boolean checkIntegrityNoException(StoreFileMetadata md) {
         return checkIntegrityNoException(md, directory());
     }
@@ -1203,16 +1321,28 @@ public class Store extends AbstractIndexShardComponent implements Closeable, Ref
         private final Checksum digest;
         private final long checksumPosition;
         private final byte[] checksum = new byte[8];
-        private long verifiedPosition = 0;
+        private final long startPosition;
+        private long verifiedPosition;
 
         VerifyingIndexInput(IndexInput input) {
             this(input, new BufferedChecksum(new CRC32()));
         }
 
         VerifyingIndexInput(IndexInput input, Checksum digest) {
+            this(input, digest, 0L);
+        }
+
+        /**
+         * Creates an input that only computes the checksum of the bytes from the given position onwards, the given input must already be
+         * positioned there.
+         */
+        VerifyingIndexInput(IndexInput input, Checksum digest, long startPosition) {
             super("VerifyingIndexInput(" + input + ")");
+            assert input.getFilePointer() == startPosition;
             this.input = input;
             this.digest = digest;
+            this.startPosition = startPosition;
+            this.verifiedPosition = startPosition;
             checksumPosition = input.length() - 8;
         }
 
@@ -1307,6 +1437,22 @@ public class Store extends AbstractIndexShardComponent implements Closeable, Ref
             throw new UnsupportedOperationException();
         }
 
+        /**
+         * Returns the number of bytes that the value of {@link #getChecksum()} was computed from.
+         */
+        long checksummedLength() {
+            return Math.max(0L, Math.min(verifiedPosition, checksumPosition) - startPosition);
+        }
+
+        /**
+         * Copies the bytes of the stored checksum that were read through this input to the corresponding positions of the given array.
+         */
+        void copyStoredChecksumBytes(byte[] storedChecksum) {
+            final int from = (int) (Math.max(startPosition, checksumPosition) - checksumPosition);
+            final int to = (int) (Math.max(verifiedPosition, checksumPosition) - checksumPosition);
+            System.arraycopy(checksum, from, storedChecksum, from, to - from);
+        }
+
         public long getStoredChecksum() {
             try {
                 return CodecUtil.readBELong(new ByteArrayDataInput(checksum));
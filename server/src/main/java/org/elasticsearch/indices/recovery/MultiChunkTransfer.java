@@ -14,6 +14,7 @@ import org.elasticsearch.common.util.concurrent.AsyncIOProcessor;
 import org.elasticsearch.common.util.concurrent.ThreadContext;
 import org.elasticsearch.core.Assertions;
 import org.elasticsearch.core.IOUtils;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Tuple;
 import org.elasticsearch.index.seqno.LocalCheckpointTracker;
 
@@ -21,7 +22,10 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 
 import static org.elasticsearch.core.Strings.format;
 import static org.elasticsearch.index.seqno.SequenceNumbers.NO_OPS_PERFORMED;
@@ -44,8 +48,27 @@ import static org.elasticsearch.index.seqno.SequenceNumbers.UNASSIGNED_SEQ_NO;
  * greater than {@code maxConcurrentFileChunks}), the sending/requesting thread will abort its execution. That process will be resumed by
  * one of the networking threads which receive/handle the responses of the current pending file chunk requests. This process will continue
  * until all chunk requests are sent/responded.
+ * <p>
+ * If constructed with a clock, the number of requests in flight is further limited by a congestion window which adapts to the observed
+ * round-trip time of the requests, similarly to delay-based TCP congestion control. The window starts at one request and grows by one
+ * request per response ("slow start", doubling every round trip) and later by one request per round trip, up to
+ * {@code maxConcurrentChunks}. Whenever the round-trip time of a response is more than twice the lowest one seen so far the requests are
+ * queueing somewhere between the two nodes, so the window is halved, at most once per round trip. A request only counts as sent once
+ * {@link #executeChunkRequest} returns, so any time spent throttling it before sending it is not part of its round-trip time. Only the
+ * requests selected by {@link #sampleRoundTripTime} are sampled, because smaller requests would make the round-trip time of the others
+ * look like queueing.
  */
 public abstract class MultiChunkTransfer<Source, Request extends MultiChunkTransfer.ChunkRequest> implements Closeable {
+    /**
+     * Round-trip times that exceed the lowest one seen by less than this are treated as noise rather than as a sign of queueing.
+     */
+    private static final long MIN_QUEUEING_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * Send time of requests whose round-trip time is not sampled. Relative clocks may return negative values so this is not {@code -1}.
+     */
+    private static final long NOT_SAMPLED = Long.MIN_VALUE;
+
     private Status status = Status.PROCESSING;
     private final Logger logger;
     private final ActionListener<Void> listener;
@@ -56,15 +79,41 @@ public abstract class MultiChunkTransfer<Source, Request extends MultiChunkTrans
     private final Iterator<Source> remainingSources;
     private Tuple<Source, Request> readAheadRequest = null;
 
+    @Nullable
+    private final LongSupplier relativeTimeInNanosSupplier;
+    private int congestionWindow;
+    private int slowStartThreshold;
+    private int responsesSinceIncrease = 0;
+    private long minRoundTripTimeNanos = Long.MAX_VALUE;
+    private long lastDecreaseSeqId = NO_OPS_PERFORMED;
+
     protected MultiChunkTransfer(
         Logger logger,
         ThreadContext threadContext,
         ActionListener<Void> listener,
         int maxConcurrentChunks,
         List<Source> sources
+    ) {
+        this(logger, threadContext, listener, maxConcurrentChunks, sources, null);
+    }
+
+    /**
+     * @param relativeTimeInNanosSupplier a precise clock used to measure the round-trip time of each request and adapt the number of
+     *                                    requests in flight to it, or {@code null} to always allow {@code maxConcurrentChunks} requests
+     */
+    protected MultiChunkTransfer(
+        Logger logger,
+        ThreadContext threadContext,
+        ActionListener<Void> listener,
+        int maxConcurrentChunks,
+        List<Source> sources,
+        @Nullable LongSupplier relativeTimeInNanosSupplier
     ) {
         this.logger = logger;
         this.maxConcurrentChunks = maxConcurrentChunks;
+        this.relativeTimeInNanosSupplier = relativeTimeInNanosSupplier;
+        this.congestionWindow = relativeTimeInNanosSupplier == null ? maxConcurrentChunks : 1;
+        this.slowStartThreshold = maxConcurrentChunks;
         this.listener = listener;
         this.processor = new AsyncIOProcessor<>(logger, maxConcurrentChunks, threadContext) {
             @Override
@@ -76,11 +125,12 @@ public abstract class MultiChunkTransfer<Source, Request extends MultiChunkTrans
     }
 
     public final void start() {
-        addItem(UNASSIGNED_SEQ_NO, null, null); // put a dummy item to start the processor
+        addItem(UNASSIGNED_SEQ_NO, null, NOT_SAMPLED, null); // put a dummy item to start the processor
     }
 
-    private void addItem(long requestSeqId, Source resource, Exception failure) {
-        processor.put(new FileChunkResponseItem<>(requestSeqId, resource, failure), e -> { assert e == null : e; });
+    private void addItem(long requestSeqId, Source resource, long sentTimeNanos, Exception failure) {
+        final long roundTripTimeNanos = sentTimeNanos == NOT_SAMPLED ? -1L : relativeTimeInNanosSupplier.getAsLong() - sentTimeNanos;
+        processor.put(new FileChunkResponseItem<>(requestSeqId, resource, roundTripTimeNanos, failure), e -> { assert e == null : e; });
     }
 
     private void handleItems(List<Tuple<FileChunkResponseItem<Source>, Consumer<Exception>>> items) {
@@ -103,8 +153,11 @@ public abstract class MultiChunkTransfer<Source, Request extends MultiChunkTrans
                     handleError(resp.source, resp.failure);
                     throw resp.failure;
                 }
+                if (relativeTimeInNanosSupplier != null) {
+                    onResponse(resp.requestSeqId, resp.roundTripTimeNanos);
+                }
             }
-            while (requestSeqIdTracker.getMaxSeqNo() - requestSeqIdTracker.getProcessedCheckpoint() < maxConcurrentChunks) {
+            while (requestSeqIdTracker.getMaxSeqNo() - requestSeqIdTracker.getProcessedCheckpoint() < congestionWindow) {
                 final Tuple<Source, Request> request = readAheadRequest != null ? readAheadRequest : getNextRequest();
                 readAheadRequest = null;
                 if (request == null) {
@@ -115,10 +168,18 @@ public abstract class MultiChunkTransfer<Source, Request extends MultiChunkTrans
                     return;
                 }
                 final long requestSeqId = requestSeqIdTracker.generateSeqNo();
+                // stays unset, so the round trip is not sampled, if the response arrives before executeChunkRequest returns
+                final AtomicLong sentTimeNanos = new AtomicLong(NOT_SAMPLED);
                 executeChunkRequest(
                     request.v2(),
-                    ActionListener.wrap(r -> addItem(requestSeqId, request.v1(), null), e -> addItem(requestSeqId, request.v1(), e))
+                    ActionListener.wrap(
+                        r -> addItem(requestSeqId, request.v1(), sentTimeNanos.get(), null),
+                        e -> addItem(requestSeqId, request.v1(), NOT_SAMPLED, e)
+                    )
                 );
+                if (relativeTimeInNanosSupplier != null && sampleRoundTripTime(request.v2())) {
+                    sentTimeNanos.set(relativeTimeInNanosSupplier.getAsLong());
+                }
             }
             // While we are waiting for the responses, we can prepare the next request in advance
             // so we can send it immediately when the responses arrive to reduce the transfer time.
@@ -130,16 +191,69 @@ public abstract class MultiChunkTransfer<Source, Request extends MultiChunkTrans
         }
     }
 
+    /**
+     * Adapts the congestion window to a successful response.
+     *
+     * @param roundTripTimeNanos the round-trip time of the request, or {@code -1} if it was not sampled
+     */
+    private void onResponse(long requestSeqId, long roundTripTimeNanos) {
+        if (roundTripTimeNanos >= 0) {
+            minRoundTripTimeNanos = Math.min(minRoundTripTimeNanos, roundTripTimeNanos);
+        }
+        if (roundTripTimeNanos >= 0
+            && roundTripTimeNanos > Math.max(2 * minRoundTripTimeNanos, minRoundTripTimeNanos + MIN_QUEUEING_DELAY_NANOS)) {
+            // only react to the first delayed response of each round trip, the other requests in flight were sent with the old window
+            if (requestSeqId > lastDecreaseSeqId) {
+                congestionWindow = Math.max(1, congestionWindow / 2);
+                slowStartThreshold = congestionWindow;
+                responsesSinceIncrease = 0;
+                lastDecreaseSeqId = requestSeqIdTracker.getMaxSeqNo();
+                logger.trace("round-trip time [{}ns] indicates queueing, reducing window to [{}]", roundTripTimeNanos, congestionWindow);
+            }
+        } else if (congestionWindow < maxConcurrentChunks) {
+            if (congestionWindow < slowStartThreshold || ++responsesSinceIncrease >= congestionWindow) {
+                congestionWindow += 1;
+                responsesSinceIncrease = 0;
+            }
+        }
+    }
+
+    // visible for testing
+    int congestionWindow() {
+        return congestionWindow;
+    }
+
+    // visible for testing
+    long minRoundTripTimeNanos() {
+        return minRoundTripTimeNanos;
+    }
+
     protected boolean assertOnSuccess() {
         return true;
     }
 
+    /**
+     * Returns whether to use the round-trip time of the given request to adapt the number of requests in flight. Subclasses should only
+     * sample requests of similar sizes, e.g. by skipping the last, partial, chunk of each file.
+     */
+    protected boolean sampleRoundTripTime(Request request) {
+        return true;
+    }
+
     private void onCompleted(Exception failure) {
         if (Assertions.ENABLED && status != Status.PROCESSING) {
             throw new AssertionError("invalid status: expected [" + Status.PROCESSING + "] actual [" + status + "]", failure);
         }
         status = failure == null ? Status.SUCCESS : Status.FAILED;
         assert status != Status.SUCCESS || assertOnSuccess();
+        if (relativeTimeInNanosSupplier != null && minRoundTripTimeNanos != Long.MAX_VALUE) {
+            logger.debug(
+                "sent [{}] chunk requests with a minimum round-trip time of [{}ns] and a final window of [{}]",
+                requestSeqIdTracker.getMaxSeqNo() + 1,
+                minRoundTripTimeNanos,
+                congestionWindow
+            );
+        }
         try {
             IOUtils.close(failure, this);
         } catch (Exception e) {
@@ -185,7 +299,7 @@ public abstract class MultiChunkTransfer<Source, Request extends MultiChunkTrans
 
     protected abstract void handleError(Source resource, Exception e) throws Exception;
 
-    private record FileChunkResponseItem<Source>(long requestSeqId, Source source, Exception failure) {}
+    private record FileChunkResponseItem<Source>(long requestSeqId, Source source, long roundTripTimeNanos, Exception failure) {}
 
     public interface ChunkRequest {
         /**
@@ -30,6 +30,7 @@ import org.elasticsearch.index.shard.IndexEventListener;
 import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.indices.IndicesService;
+import org.elasticsearch.indices.recovery.plan.CostBasedRecoveryPlannerService;
 import org.elasticsearch.indices.recovery.plan.RecoveryPlannerService;
 import org.elasticsearch.tasks.Task;
 import org.elasticsearch.threadpool.ThreadPool;
@@ -76,7 +77,10 @@ public class PeerRecoverySourceService extends AbstractLifecycleComponent implem
         this.indicesService = indicesService;
         this.clusterService = clusterService;
         this.recoverySettings = recoverySettings;
-        this.recoveryPlannerService = recoveryPlannerService;
+        this.recoveryPlannerService = new CostBasedRecoveryPlannerService(
+            recoveryPlannerService,
+            recoverySettings::getSourceNodeRelativeThroughput
+        );
         // When the target node wants to start a peer recovery it sends a START_RECOVERY request to the source
         // node. Upon receiving START_RECOVERY, the source node will initiate the peer recovery.
         transportService.registerRequestHandler(
@@ -376,6 +380,7 @@ public class PeerRecoverySourceService extends AbstractLifecycleComponent implem
                     request,
                     Math.toIntExact(recoverySettings.getChunkSize().getBytes()),
                     recoverySettings.getMaxConcurrentFileChunks(),
+                    recoverySettings.getAdaptiveConcurrentFileChunks(),
                     recoverySettings.getMaxConcurrentOperations(),
                     recoverySettings.getMaxConcurrentSnapshotFileDownloads(),
                     recoverySettings.getUseSnapshotsDuringRecovery(),
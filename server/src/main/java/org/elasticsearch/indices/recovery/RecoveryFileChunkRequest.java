@@ -11,13 +11,13 @@ package org.elasticsearch.indices.recovery;
 import org.elasticsearch.common.bytes.ReleasableBytesReference;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
-import org.elasticsearch.core.RefCounted;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.store.StoreFileMetadata;
+import org.elasticsearch.transport.ZeroCopyTransportRequest;
 
 import java.io.IOException;
 
-public final class RecoveryFileChunkRequest extends RecoveryTransportRequest implements RefCounted {
+public final class RecoveryFileChunkRequest extends RecoveryTransportRequest implements ZeroCopyTransportRequest {
     private final boolean lastChunk;
     private final long position;
     private final ReleasableBytesReference content;
@@ -86,12 +86,29 @@ public final class RecoveryFileChunkRequest extends RecoveryTransportRequest imp
 
     @Override
     public void writeTo(StreamOutput out) throws IOException {
+        writeToBeforeZeroCopyBytes(out);
+        content.writeTo(out);
+        writeToAfterZeroCopyBytes(out);
+    }
+
+    @Override
+    public void writeToBeforeZeroCopyBytes(StreamOutput out) throws IOException {
         super.writeTo(out);
         out.writeString(metadata.name());
         out.writeVLong(position);
         out.writeVLong(metadata.length());
         out.writeString(metadata.checksum());
-        out.writeBytesReference(content);
+        // length prefix of the content, as written by StreamOutput#writeBytesReference
+        out.writeVInt(content.length());
+    }
+
+    @Override
+    public ReleasableBytesReference zeroCopyBytes() {
+        return content;
+    }
+
+    @Override
+    public void writeToAfterZeroCopyBytes(StreamOutput out) throws IOException {
         out.writeString(metadata.writtenBy());
         out.writeBoolean(lastChunk);
         out.writeVInt(totalTranslogOps);
@@ -249,6 +249,17 @@ public class RecoverySettings {
         Property.NodeScope
     );
 
+    /**
+     * Controls whether the number of file chunk requests in flight adapts to the observed round-trip time between the source node and the
+     * target node, in the range between 1 and {@link #INDICES_RECOVERY_MAX_CONCURRENT_FILE_CHUNKS_SETTING}.
+     */
+    public static final Setting<Boolean> INDICES_RECOVERY_ADAPTIVE_CONCURRENT_FILE_CHUNKS_SETTING = Setting.boolSetting(
+        "indices.recovery.adaptive_concurrent_file_chunks",
+        false,
+        Property.Dynamic,
+        Property.NodeScope
+    );
+
     /**
      * Controls the maximum number of operation chunk requests that can be sent concurrently from the source node to the target node.
      */
@@ -380,10 +391,25 @@ public class RecoverySettings {
         Setting.Property.NodeScope
     );
 
+    /**
+     * The throughput of sending files from the source node relative to the throughput of downloading them from a snapshot repository.
+     * If positive, the files that are available both on the source node and in a snapshot are split between the two so that both
+     * transfers, which then run concurrently, are expected to complete at around the same time. Defaults to {@code 0}, which means that
+     * every file available in a snapshot is downloaded from the repository.
+     */
+    public static final Setting<Double> INDICES_RECOVERY_SOURCE_NODE_RELATIVE_THROUGHPUT_SETTING = Setting.doubleSetting(
+        "indices.recovery.source_node_relative_throughput",
+        0.0,
+        0.0,
+        Property.Dynamic,
+        Property.NodeScope
+    );
+
     public static final ByteSizeValue DEFAULT_CHUNK_SIZE = new ByteSizeValue(512, ByteSizeUnit.KB);
 
     private volatile ByteSizeValue maxBytesPerSec;
     private volatile int maxConcurrentFileChunks;
+    private volatile boolean adaptiveConcurrentFileChunks;
     private volatile int maxConcurrentOperations;
     private volatile SimpleRateLimiter rateLimiter;
     private volatile TimeValue retryDelayStateSync;
@@ -396,6 +422,7 @@ public class RecoverySettings {
     private final boolean nodeBandwidthSettingsExist;
     private volatile int maxConcurrentSnapshotFileDownloads;
     private volatile int maxConcurrentSnapshotFileDownloadsPerNode;
+    private volatile double sourceNodeRelativeThroughput;
     private volatile int maxConcurrentIncomingRecoveries;
 
     private final AdjustableSemaphore maxSnapshotFileDownloadsPerNodeSemaphore;
@@ -410,6 +437,7 @@ public class RecoverySettings {
     public RecoverySettings(Settings settings, ClusterSettings clusterSettings) {
         this.retryDelayStateSync = INDICES_RECOVERY_RETRY_DELAY_STATE_SYNC_SETTING.get(settings);
         this.maxConcurrentFileChunks = INDICES_RECOVERY_MAX_CONCURRENT_FILE_CHUNKS_SETTING.get(settings);
+        this.adaptiveConcurrentFileChunks = INDICES_RECOVERY_ADAPTIVE_CONCURRENT_FILE_CHUNKS_SETTING.get(settings);
         this.maxConcurrentOperations = INDICES_RECOVERY_MAX_CONCURRENT_OPERATIONS_SETTING.get(settings);
         // doesn't have to be fast as nodes are reconnected every 10s by default (see InternalClusterService.ReconnectToNodes)
         // and we want to give the master time to remove a faulty node
@@ -422,6 +450,7 @@ public class RecoverySettings {
         this.useSnapshotsDuringRecovery = INDICES_RECOVERY_USE_SNAPSHOTS_SETTING.get(settings);
         this.maxConcurrentSnapshotFileDownloads = INDICES_RECOVERY_MAX_CONCURRENT_SNAPSHOT_FILE_DOWNLOADS.get(settings);
         this.maxConcurrentSnapshotFileDownloadsPerNode = INDICES_RECOVERY_MAX_CONCURRENT_SNAPSHOT_FILE_DOWNLOADS_PER_NODE.get(settings);
+        this.sourceNodeRelativeThroughput = INDICES_RECOVERY_SOURCE_NODE_RELATIVE_THROUGHPUT_SETTING.get(settings);
         this.maxConcurrentIncomingRecoveries = CLUSTER_ROUTING_ALLOCATION_NODE_CONCURRENT_INCOMING_RECOVERIES_SETTING.get(settings);
         this.maxSnapshotFileDownloadsPerNodeSemaphore = new AdjustableSemaphore(this.maxConcurrentSnapshotFileDownloadsPerNode, true);
         this.availableNetworkBandwidth = NODE_BANDWIDTH_RECOVERY_NETWORK_SETTING.get(settings);
@@ -450,6 +479,10 @@ public class RecoverySettings {
             );
         }
         clusterSettings.addSettingsUpdateConsumer(INDICES_RECOVERY_MAX_CONCURRENT_FILE_CHUNKS_SETTING, this::setMaxConcurrentFileChunks);
+        clusterSettings.addSettingsUpdateConsumer(
+            INDICES_RECOVERY_ADAPTIVE_CONCURRENT_FILE_CHUNKS_SETTING,
+            this::setAdaptiveConcurrentFileChunks
+        );
         clusterSettings.addSettingsUpdateConsumer(INDICES_RECOVERY_MAX_CONCURRENT_OPERATIONS_SETTING, this::setMaxConcurrentOperations);
         clusterSettings.addSettingsUpdateConsumer(INDICES_RECOVERY_RETRY_DELAY_STATE_SYNC_SETTING, this::setRetryDelayStateSync);
         clusterSettings.addSettingsUpdateConsumer(INDICES_RECOVERY_RETRY_DELAY_NETWORK_SETTING, this::setRetryDelayNetwork);
@@ -472,6 +505,10 @@ public class RecoverySettings {
             INDICES_RECOVERY_MAX_CONCURRENT_SNAPSHOT_FILE_DOWNLOADS_PER_NODE,
             this::setMaxConcurrentSnapshotFileDownloadsPerNode
         );
+        clusterSettings.addSettingsUpdateConsumer(
+            INDICES_RECOVERY_SOURCE_NODE_RELATIVE_THROUGHPUT_SETTING,
+            this::setSourceNodeRelativeThroughput
+        );
         clusterSettings.addSettingsUpdateConsumer(
             CLUSTER_ROUTING_ALLOCATION_NODE_CONCURRENT_INCOMING_RECOVERIES_SETTING,
             this::setMaxConcurrentIncomingRecoveries
@@ -634,6 +671,14 @@ public class RecoverySettings {
         this.maxConcurrentFileChunks = maxConcurrentFileChunks;
     }
 
+    public boolean getAdaptiveConcurrentFileChunks() {
+        return adaptiveConcurrentFileChunks;
+    }
+
+    private void setAdaptiveConcurrentFileChunks(boolean adaptiveConcurrentFileChunks) {
+        this.adaptiveConcurrentFileChunks = adaptiveConcurrentFileChunks;
+    }
+
     public int getMaxConcurrentOperations() {
         return maxConcurrentOperations;
     }
@@ -671,6 +716,14 @@ public class RecoverySettings {
         this.maxSnapshotFileDownloadsPerNodeSemaphore.setMaxPermits(maxConcurrentSnapshotFileDownloadsPerNode);
     }
 
+    public double getSourceNodeRelativeThroughput() {
+        return sourceNodeRelativeThroughput;
+    }
+
+    private void setSourceNodeRelativeThroughput(double sourceNodeRelativeThroughput) {
+        this.sourceNodeRelativeThroughput = sourceNodeRelativeThroughput;
+    }
+
     @Nullable
     Releasable tryAcquireSnapshotDownloadPermits() {
         if (getUseSnapshotsDuringRecovery() == false) {
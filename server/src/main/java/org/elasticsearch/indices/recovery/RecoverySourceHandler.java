@@ -110,6 +110,7 @@ public class RecoverySourceHandler {
     private final int chunkSizeInBytes;
     private final RecoveryTargetHandler recoveryTarget;
     private final int maxConcurrentFileChunks;
+    private final boolean adaptiveConcurrentFileChunks;
     private final int maxConcurrentOperations;
     private final int maxConcurrentSnapshotFileDownloads;
     private final boolean useSnapshots;
@@ -130,6 +131,34 @@ public class RecoverySourceHandler {
         int maxConcurrentSnapshotFileDownloads,
         boolean useSnapshots,
         RecoveryPlannerService recoveryPlannerService
+    ) {
+        this(
+            shard,
+            recoveryTarget,
+            threadPool,
+            request,
+            fileChunkSizeInBytes,
+            maxConcurrentFileChunks,
+            false,
+            maxConcurrentOperations,
+            maxConcurrentSnapshotFileDownloads,
+            useSnapshots,
+            recoveryPlannerService
+        );
+    }
+
+    public RecoverySourceHandler(
+        IndexShard shard,
+        RecoveryTargetHandler recoveryTarget,
+        ThreadPool threadPool,
+        StartRecoveryRequest request,
+        int fileChunkSizeInBytes,
+        int maxConcurrentFileChunks,
+        boolean adaptiveConcurrentFileChunks,
+        int maxConcurrentOperations,
+        int maxConcurrentSnapshotFileDownloads,
+        boolean useSnapshots,
+        RecoveryPlannerService recoveryPlannerService
     ) {
         this.shard = shard;
         this.recoveryTarget = recoveryTarget;
@@ -139,6 +168,7 @@ public class RecoverySourceHandler {
         this.logger = Loggers.getLogger(getClass(), request.shardId(), "recover to " + request.targetNode().getName());
         this.chunkSizeInBytes = fileChunkSizeInBytes;
         this.maxConcurrentFileChunks = maxConcurrentFileChunks;
+        this.adaptiveConcurrentFileChunks = adaptiveConcurrentFileChunks;
         this.maxConcurrentOperations = maxConcurrentOperations;
         this.maxConcurrentSnapshotFileDownloads = maxConcurrentSnapshotFileDownloads;
         this.useSnapshots = useSnapshots;
@@ -699,8 +729,12 @@ public class RecoverySourceHandler {
                 // send the original plan
                 .newForked(this::sendShardRecoveryPlanFileInfo)
                 // instruct the target to recover files from snapshot, possibly updating the plan on failure
-                .<List<StoreFileMetadata>>andThen(
-                    (l, ignored) -> recoverSnapshotFiles(shardRecoveryPlan, l.delegateResponse((recoverSnapshotFilesListener, e) -> {
+                .<List<StoreFileMetadata>>andThen((l, ignored) -> {
+                    if (shardRecoveryPlan.recoverSourceAndSnapshotFilesConcurrently()) {
+                        recoverSourceAndSnapshotFilesConcurrently(l);
+                        return;
+                    }
+                    recoverSnapshotFiles(shardRecoveryPlan, l.delegateResponse((recoverSnapshotFilesListener, e) -> {
                         if (shardRecoveryPlan.canRecoverSnapshotFilesFromSourceNode() == false
                             && e instanceof CancellableThreads.ExecutionCancelledException == false) {
                             shardRecoveryPlan = shardRecoveryPlan.getFallbackPlan();
@@ -708,12 +742,15 @@ public class RecoverySourceHandler {
                         } else {
                             recoverSnapshotFilesListener.onFailure(e);
                         }
-                    }))
-                )
+                    }));
+                })
                 // send local files which either aren't in the snapshot, or which failed to be recovered from the snapshot for some reason
                 .<Void>andThen((sendFilesListener, filesFailedToRecoverFromSnapshot) -> {
                     final List<StoreFileMetadata> filesToRecoverFromSource;
-                    if (filesFailedToRecoverFromSnapshot.isEmpty()) {
+                    if (shardRecoveryPlan.recoverSourceAndSnapshotFilesConcurrently()) {
+                        // the other local files were already sent while the target was recovering files from the snapshot
+                        filesToRecoverFromSource = filesFailedToRecoverFromSnapshot;
+                    } else if (filesFailedToRecoverFromSnapshot.isEmpty()) {
                         filesToRecoverFromSource = shardRecoveryPlan.getSourceFilesToRecover();
                     } else {
                         filesToRecoverFromSource = concatLists(
@@ -765,6 +802,28 @@ public class RecoverySourceHandler {
                 // and finally respond
                 .addListener(listener);
         }
+
+        /**
+         * Sends the local files of the plan while the target node recovers the other files from the snapshot, and completes the listener
+         * with the files that failed to be recovered from the snapshot once both are done.
+         */
+        private void recoverSourceAndSnapshotFilesConcurrently(ActionListener<List<StoreFileMetadata>> listener) {
+            assert shardRecoveryPlan.canRecoverSnapshotFilesFromSourceNode();
+            final SubscribableListener<List<StoreFileMetadata>> snapshotFilesListener = SubscribableListener.newForked(
+                l -> recoverSnapshotFiles(shardRecoveryPlan, l)
+            );
+            SubscribableListener
+                .<Void>newForked(
+                    l -> sendFiles(
+                        store,
+                        shardRecoveryPlan.getSourceFilesToRecover().toArray(new StoreFileMetadata[0]),
+                        shardRecoveryPlan::getTranslogOps,
+                        l
+                    )
+                )
+                .<List<StoreFileMetadata>>andThen((l, ignored) -> snapshotFilesListener.addListener(l))
+                .addListener(listener);
+        }
     }
 
     /**
@@ -1360,7 +1419,8 @@ public class RecoverySourceHandler {
                 threadPool.getThreadContext(),
                 listener,
                 maxConcurrentFileChunks,
-                Arrays.asList(files)
+                Arrays.asList(files),
+                adaptiveConcurrentFileChunks ? threadPool::rawRelativeTimeInNanos : null
             ) {
 
                 final Deque<byte[]> buffers = new ConcurrentLinkedDeque<>();
@@ -1416,6 +1476,12 @@ public class RecoverySourceHandler {
                     );
                 }
 
+                @Override
+                protected boolean sampleRoundTripTime(FileChunk request) {
+                    // the last chunk of each file is usually shorter, so only full chunks have comparable round-trip times
+                    return request.content.length() == bufferSize;
+                }
+
                 @Override
                 protected void handleError(StoreFileMetadata md, Exception e) throws Exception {
                     handleErrorOnSendFiles(store, e, new StoreFileMetadata[] { md });
@@ -0,0 +1,139 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.indices.recovery.plan;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.index.IndexVersion;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshot;
+import org.elasticsearch.index.store.Store;
+import org.elasticsearch.index.store.StoreFileMetadata;
+import org.elasticsearch.indices.recovery.RecoverySettings;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Wraps another {@link RecoveryPlannerService} and splits the files that its plan recovers from a snapshot between the snapshot and
+ * the source node, according to the relative throughput of the two sources configured with
+ * {@link RecoverySettings#INDICES_RECOVERY_SOURCE_NODE_RELATIVE_THROUGHPUT_SETTING}, so that both transfers can run concurrently and
+ * are expected to complete at around the same time.
+ */
+public class CostBasedRecoveryPlannerService implements RecoveryPlannerService {
+    private static final Logger logger = LogManager.getLogger(CostBasedRecoveryPlannerService.class);
+
+    private final RecoveryPlannerService delegate;
+    private final DoubleSupplier sourceNodeRelativeThroughput;
+
+    public CostBasedRecoveryPlannerService(RecoveryPlannerService delegate, DoubleSupplier sourceNodeRelativeThroughput) {
+        this.delegate = delegate;
+        this.sourceNodeRelativeThroughput = sourceNodeRelativeThroughput;
+    }
+
+    @Override
+    public void computeRecoveryPlan(
+        ShardId shardId,
+        @Nullable String shardStateIdentifier,
+        Store.MetadataSnapshot sourceMetadata,
+        Store.MetadataSnapshot targetMetadata,
+        long startingSeqNo,
+        int translogOps,
+        IndexVersion targetVersion,
+        boolean useSnapshots,
+        boolean primaryRelocation,
+        ActionListener<ShardRecoveryPlan> listener
+    ) {
+        delegate.computeRecoveryPlan(
+            shardId,
+            shardStateIdentifier,
+            sourceMetadata,
+            targetMetadata,
+            startingSeqNo,
+            translogOps,
+            targetVersion,
+            useSnapshots,
+            primaryRelocation,
+            listener.map(plan -> {
+                final ShardRecoveryPlan balancedPlan = balanceSnapshotAndSourceFiles(plan, sourceNodeRelativeThroughput.getAsDouble());
+                if (balancedPlan != plan) {
+                    logger.debug(
+                        "{} recovering [{}] files from the source node concurrently with [{}] files from the snapshot",
+                        shardId,
+                        balancedPlan.getSourceFilesToRecover().size(),
+                        balancedPlan.getSnapshotFilesToRecover().size()
+                    );
+                }
+                return balancedPlan;
+            })
+        );
+    }
+
+    /**
+     * Assigns the files of the given plan that are available both in a snapshot and on the source node to one of the two sources,
+     * largest files first, each to the source that is expected to finish transferring it soonest. The cost of a transfer is estimated
+     * by the number of bytes to transfer divided by the throughput of its source.
+     */
+    static ShardRecoveryPlan balanceSnapshotAndSourceFiles(ShardRecoveryPlan plan, double sourceNodeRelativeThroughput) {
+        if (sourceNodeRelativeThroughput <= 0.0
+            || plan.getSnapshotFilesToRecover().isEmpty()
+            // the source node's files differ from the snapshot's files (e.g. after a failover) so it cannot send any of them
+            || plan.canRecoverSnapshotFilesFromSourceNode() == false) {
+            return plan;
+        }
+
+        final List<StoreFileMetadata> sourceFilesToRecover = new ArrayList<>(plan.getSourceFilesToRecover());
+        final List<BlobStoreIndexShardSnapshot.FileInfo> snapshotFilesToRecover = new ArrayList<>();
+        double sourceNodeCost = sourceFilesToRecover.stream().mapToLong(StoreFileMetadata::length).sum() / sourceNodeRelativeThroughput;
+        double snapshotCost = 0.0;
+
+        final List<BlobStoreIndexShardSnapshot.FileInfo> candidates = new ArrayList<>(plan.getSnapshotFilesToRecover().snapshotFiles());
+        candidates.sort(Comparator.comparingLong(BlobStoreIndexShardSnapshot.FileInfo::length).reversed());
+        for (BlobStoreIndexShardSnapshot.FileInfo snapshotFile : candidates) {
+            final StoreFileMetadata sourceFile = plan.getSourceMetadataSnapshot().get(snapshotFile.physicalName());
+            final double sourceNodeCostWithFile = sourceNodeCost + snapshotFile.length() / sourceNodeRelativeThroughput;
+            if (sourceFile != null
+                && sourceFile.isSame(snapshotFile.metadata())
+                && sourceNodeCostWithFile < snapshotCost + snapshotFile.length()) {
+                sourceFilesToRecover.add(sourceFile);
+                sourceNodeCost = sourceNodeCostWithFile;
+            } else {
+                snapshotFilesToRecover.add(snapshotFile);
+                snapshotCost += snapshotFile.length();
+            }
+        }
+
+        if (sourceFilesToRecover.isEmpty()) {
+            // there is nothing to do concurrently
+            return plan;
+        }
+
+        final ShardRecoveryPlan.SnapshotFilesToRecover snapshotFiles = snapshotFilesToRecover.isEmpty()
+            ? ShardRecoveryPlan.SnapshotFilesToRecover.EMPTY
+            : new ShardRecoveryPlan.SnapshotFilesToRecover(
+                plan.getSnapshotFilesToRecover().indexId(),
+                plan.getSnapshotFilesToRecover().repository(),
+                snapshotFilesToRecover
+            );
+        return new ShardRecoveryPlan(
+            snapshotFiles,
+            sourceFilesToRecover,
+            plan.getFilesPresentInTarget(),
+            plan.getStartingSeqNo(),
+            plan.getTranslogOps(),
+            plan.getSourceMetadataSnapshot(),
+            null,
+            true
+        );
+    }
+}
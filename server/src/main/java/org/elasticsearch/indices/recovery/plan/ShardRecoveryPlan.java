@@ -31,6 +31,7 @@ public class ShardRecoveryPlan {
 
     @Nullable
     private final ShardRecoveryPlan fallbackPlan;
+    private final boolean recoverSourceAndSnapshotFilesConcurrently;
 
     public ShardRecoveryPlan(
         SnapshotFilesToRecover snapshotFilesToRecover,
@@ -52,6 +53,30 @@ public class ShardRecoveryPlan {
         Store.MetadataSnapshot sourceMetadataSnapshot,
         @Nullable ShardRecoveryPlan fallbackPlan
     ) {
+        this(
+            snapshotFilesToRecover,
+            sourceFilesToRecover,
+            filesPresentInTarget,
+            startingSeqNo,
+            translogOps,
+            sourceMetadataSnapshot,
+            fallbackPlan,
+            false
+        );
+    }
+
+    public ShardRecoveryPlan(
+        SnapshotFilesToRecover snapshotFilesToRecover,
+        List<StoreFileMetadata> sourceFilesToRecover,
+        List<StoreFileMetadata> filesPresentInTarget,
+        long startingSeqNo,
+        int translogOps,
+        Store.MetadataSnapshot sourceMetadataSnapshot,
+        @Nullable ShardRecoveryPlan fallbackPlan,
+        boolean recoverSourceAndSnapshotFilesConcurrently
+    ) {
+        assert recoverSourceAndSnapshotFilesConcurrently == false || fallbackPlan == null
+            : "files that fail to download from the snapshot must be recoverable from the source node";
         this.snapshotFilesToRecover = snapshotFilesToRecover;
         this.sourceFilesToRecover = sourceFilesToRecover;
         this.filesPresentInTarget = filesPresentInTarget;
@@ -60,6 +85,7 @@ public class ShardRecoveryPlan {
         this.startingSeqNo = startingSeqNo;
         this.translogOps = translogOps;
         this.fallbackPlan = fallbackPlan;
+        this.recoverSourceAndSnapshotFilesConcurrently = recoverSourceAndSnapshotFilesConcurrently;
     }
 
     public List<StoreFileMetadata> getFilesPresentInTarget() {
@@ -119,6 +145,14 @@ public class ShardRecoveryPlan {
         return fallbackPlan;
     }
 
+    /**
+     * @return whether the source node should send its files while the target node downloads the snapshot files, rather than waiting
+     * for the snapshot files to be recovered first
+     */
+    public boolean recoverSourceAndSnapshotFilesConcurrently() {
+        return recoverSourceAndSnapshotFilesConcurrently;
+    }
+
     private Stream<StoreFileMetadata> getFilesToRecoverStream() {
         return Stream.concat(
             snapshotFilesToRecover.snapshotFiles.stream().map(BlobStoreIndexShardSnapshot.FileInfo::metadata),
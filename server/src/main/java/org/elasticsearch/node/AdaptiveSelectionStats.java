@@ -71,6 +71,10 @@ public class AdaptiveSelectionStats implements Writeable, ToXContentFragment {
                     builder.field("avg_response_time", new TimeValue((long) stats.responseTime, TimeUnit.NANOSECONDS).toString());
                 }
                 builder.field("avg_response_time_ns", (long) stats.responseTime);
+                if (builder.humanReadable()) {
+                    builder.field("avg_in_flight_age", new TimeValue((long) stats.inFlightAge, TimeUnit.NANOSECONDS).toString());
+                }
+                builder.field("avg_in_flight_age_ns", (long) stats.inFlightAge);
                 builder.field("rank", String.format(Locale.ROOT, "%.1f", stats.rank(outgoingSearches)));
             }
             builder.endObject();
@@ -8,6 +8,7 @@
 
 package org.elasticsearch.node;
 
+import org.elasticsearch.TransportVersions;
 import org.elasticsearch.cluster.ClusterChangedEvent;
 import org.elasticsearch.cluster.ClusterStateListener;
 import org.elasticsearch.cluster.node.DiscoveryNode;
@@ -18,6 +19,8 @@ import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
 import org.elasticsearch.common.util.Maps;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.core.Releasable;
+import org.elasticsearch.core.Releasables;
 
 import java.io.IOException;
 import java.util.Locale;
@@ -38,6 +41,7 @@ public final class ResponseCollectorService implements ClusterStateListener {
     public static final double ALPHA = 0.3;
 
     private final ConcurrentMap<String, NodeStatistics> nodeIdToStats = ConcurrentCollections.newConcurrentMap();
+    private final ConcurrentMap<String, InFlightRequests> nodeIdToInFlightRequests = ConcurrentCollections.newConcurrentMap();
 
     public ResponseCollectorService(ClusterService clusterService) {
         clusterService.addListener(this);
@@ -54,6 +58,24 @@ public final class ResponseCollectorService implements ClusterStateListener {
 
     void removeNode(String nodeId) {
         nodeIdToStats.remove(nodeId);
+        nodeIdToInFlightRequests.remove(nodeId);
+    }
+
+    /**
+     * Record that a request was sent to the given node at the given time (from {@link System#nanoTime()}). The returned {@link Releasable}
+     * must be released once the request completes, whether successfully or not. Releasing it more than once has no further effect, and
+     * if the node has been removed since the request was sent then releasing it does not affect the statistics of any later requests to a
+     * node with the same ID.
+     */
+    public Releasable onRequestSent(String nodeId, long startNanos) {
+        final InFlightRequests inFlightRequests = nodeIdToInFlightRequests.computeIfAbsent(nodeId, ignored -> new InFlightRequests());
+        inFlightRequests.add(startNanos);
+        return Releasables.releaseOnce(() -> inFlightRequests.remove(startNanos));
+    }
+
+    private double inFlightAge(String nodeId, long nowNanos) {
+        final InFlightRequests inFlightRequests = nodeIdToInFlightRequests.get(nodeId);
+        return inFlightRequests == null ? 0.0 : inFlightRequests.averageAgeNanos(nowNanos);
     }
 
     public void addNodeStatistics(String nodeId, int queueSize, long responseTimeNanos, long avgServiceTimeNanos) {
@@ -73,9 +95,10 @@ public final class ResponseCollectorService implements ClusterStateListener {
 
     public Map<String, ComputedNodeStats> getAllNodeStatistics() {
         final int clientNum = nodeIdToStats.size();
+        final long nowNanos = System.nanoTime();
         // Transform the mutable object internally used for accounting into the computed version
         Map<String, ComputedNodeStats> nodeStats = Maps.newMapWithExpectedSize(nodeIdToStats.size());
-        nodeIdToStats.forEach((k, v) -> { nodeStats.put(k, new ComputedNodeStats(clientNum, v)); });
+        nodeIdToStats.forEach((k, v) -> { nodeStats.put(k, new ComputedNodeStats(clientNum, v, inFlightAge(k, nowNanos))); });
         return nodeStats;
     }
 
@@ -90,13 +113,15 @@ public final class ResponseCollectorService implements ClusterStateListener {
      */
     public Optional<ComputedNodeStats> getNodeStatistics(final String nodeId) {
         final int clientNum = nodeIdToStats.size();
-        return Optional.ofNullable(nodeIdToStats.get(nodeId)).map(ns -> new ComputedNodeStats(clientNum, ns));
+        return Optional.ofNullable(nodeIdToStats.get(nodeId))
+            .map(ns -> new ComputedNodeStats(clientNum, ns, inFlightAge(nodeId, System.nanoTime())));
     }
 
     /**
      * Struct-like class encapsulating a point-in-time snapshot of a particular
      * node's statistics. This includes the EWMA of queue size, response time,
-     * and service time.
+     * and service time, and the average age of the requests currently in flight
+     * to the node.
      */
     public static class ComputedNodeStats implements Writeable {
         // We store timestamps with nanosecond precision, however, the
@@ -111,22 +136,29 @@ public final class ResponseCollectorService implements ClusterStateListener {
         public final int queueSize;
         public final double responseTime;
         public final double serviceTime;
+        public final double inFlightAge;
 
         public ComputedNodeStats(String nodeId, int clientNum, int queueSize, double responseTime, double serviceTime) {
+            this(nodeId, clientNum, queueSize, responseTime, serviceTime, 0.0);
+        }
+
+        public ComputedNodeStats(String nodeId, int clientNum, int queueSize, double responseTime, double serviceTime, double inFlightAge) {
             this.nodeId = nodeId;
             this.clientNum = clientNum;
             this.queueSize = queueSize;
             this.responseTime = responseTime;
             this.serviceTime = serviceTime;
+            this.inFlightAge = inFlightAge;
         }
 
-        ComputedNodeStats(int clientNum, NodeStatistics nodeStats) {
+        ComputedNodeStats(int clientNum, NodeStatistics nodeStats, double inFlightAge) {
             this(
                 nodeStats.nodeId,
                 clientNum,
                 (int) nodeStats.queueSize.getAverage(),
                 nodeStats.responseTime.getAverage(),
-                nodeStats.serviceTime
+                nodeStats.serviceTime,
+                inFlightAge
             );
         }
 
@@ -136,6 +168,11 @@ public final class ResponseCollectorService implements ClusterStateListener {
             this.queueSize = in.readInt();
             this.responseTime = in.readDouble();
             this.serviceTime = in.readDouble();
+            if (in.getTransportVersion().onOrAfter(TransportVersions.ADAPTIVE_SELECTION_IN_FLIGHT_AGE)) {
+                this.inFlightAge = in.readDouble();
+            } else {
+                this.inFlightAge = 0.0;
+            }
         }
 
         @Override
@@ -145,6 +182,9 @@ public final class ResponseCollectorService implements ClusterStateListener {
             out.writeInt(this.queueSize);
             out.writeDouble(this.responseTime);
             out.writeDouble(this.serviceTime);
+            if (out.getTransportVersion().onOrAfter(TransportVersions.ADAPTIVE_SELECTION_IN_FLIGHT_AGE)) {
+                out.writeDouble(this.inFlightAge);
+            }
         }
 
         /**
@@ -165,8 +205,10 @@ public final class ResponseCollectorService implements ClusterStateListener {
             double qBar = queueSize;
             double qHatS = 1 + concurrencyCompensation + qBar;
 
-            // EWMA of response time
-            double rS = responseTime / FACTOR;
+            // EWMA of response time. The EWMA is only updated when responses arrive, so it does not react to a node which has stopped
+            // responding (e.g. because of a long GC pause). In that case the requests still in flight to the node are older than its usual
+            // response time, so we use their average age as a lower bound.
+            double rS = Math.max(responseTime, inFlightAge) / FACTOR;
             // EWMA of service time. We match the paper's notation, which
             // defines service time as the inverse of service rate (muBarS).
             double muBarSInverse = serviceTime / FACTOR;
@@ -190,12 +232,43 @@ public final class ResponseCollectorService implements ClusterStateListener {
             sb.append(", queue: ").append(queueSize);
             sb.append(", response time: ").append(String.format(Locale.ROOT, "%.1f", responseTime));
             sb.append(", service time: ").append(String.format(Locale.ROOT, "%.1f", serviceTime));
+            sb.append(", in-flight age: ").append(String.format(Locale.ROOT, "%.1f", inFlightAge));
             sb.append(", rank: ").append(String.format(Locale.ROOT, "%.1f", rank(1)));
             sb.append(")");
             return sb.toString();
         }
     }
 
+    /**
+     * Tracks the number and total start time of the requests in flight to a node, from which we can compute their average age cheaply. A
+     * node which leaves the cluster and rejoins gets a fresh instance, and requests sent before it left are only ever removed from the
+     * instance to which they were added.
+     */
+    private static class InFlightRequests {
+        private long count;
+        private long startNanosSum;
+
+        synchronized void add(long startNanos) {
+            count += 1;
+            startNanosSum += startNanos;
+        }
+
+        synchronized void remove(long startNanos) {
+            assert count > 0;
+            count -= 1;
+            startNanosSum -= startNanos;
+        }
+
+        synchronized double averageAgeNanos(long nowNanos) {
+            if (count == 0) {
+                return 0.0;
+            }
+            // nanoTime values may be negative and their sum may overflow, but the sum of the ages does not, and subtraction in two's
+            // complement arithmetic is unaffected by the intermediate overflow
+            return Math.max(0.0, (double) (count * nowNanos - startNanosSum) / count);
+        }
+    }
+
     /**
      * Class encapsulating a node's exponentially weighted queue size, response
      * time, and service time, however, this class is private and intended only
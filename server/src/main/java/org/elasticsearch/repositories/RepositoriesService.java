@@ -44,8 +44,10 @@ import org.elasticsearch.core.SuppressForbidden;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.index.Index;
 import org.elasticsearch.index.IndexVersion;
+import org.elasticsearch.repositories.blobstore.BlobStoreRepository;
 import org.elasticsearch.repositories.blobstore.MeteredBlobStoreRepository;
 import org.elasticsearch.snapshots.Snapshot;
+import org.elasticsearch.snapshots.SnapshotsService;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.TransportService;
 
@@ -284,6 +286,7 @@ public class RepositoriesService extends AbstractLifecycleComponent implements C
         @Override
         public ClusterState execute(ClusterState currentState) {
             RepositoryMetadata newRepositoryMetadata = new RepositoryMetadata(request.name(), request.type(), request.settings());
+            ensureContentAddressedDataSupported(currentState, newRepositoryMetadata);
             Metadata.Builder mdBuilder = Metadata.builder(currentState.metadata());
             RepositoriesMetadata repositories = RepositoriesMetadata.get(currentState);
             List<RepositoryMetadata> repositoriesMetadata = new ArrayList<>(repositories.repositories().size() + 1);
@@ -841,6 +844,28 @@ public class RepositoriesService extends AbstractLifecycleComponent implements C
         }
     }
 
+    private static void ensureContentAddressedDataSupported(ClusterState clusterState, RepositoryMetadata repositoryMetadata) {
+        if (BlobStoreRepository.CONTENT_ADDRESSED_DATA_SETTING.get(repositoryMetadata.settings()) == false) {
+            return;
+        }
+        for (DiscoveryNode node : clusterState.nodes()) {
+            if (node.getMaxIndexVersion().before(SnapshotsService.CONTENT_ADDRESSED_DATA_VERSION)) {
+                throw new RepositoryException(
+                    repositoryMetadata.name(),
+                    "setting ["
+                        + BlobStoreRepository.CONTENT_ADDRESSED_DATA_SETTING.getKey()
+                        + "] requires all nodes to support index version ["
+                        + SnapshotsService.CONTENT_ADDRESSED_DATA_VERSION
+                        + "] but node "
+                        + node.descriptionWithoutAttributes()
+                        + " only supports ["
+                        + node.getMaxIndexVersion()
+                        + "]"
+                );
+            }
+        }
+    }
+
     private static void ensureRepositoryNotInUse(ClusterState clusterState, String repository) {
         if (SnapshotsInProgress.get(clusterState).forRepo(repository).isEmpty() == false) {
             throw newRepositoryConflictException(repository, "snapshot is in progress");
@@ -336,8 +336,9 @@ public final class RepositoryData {
      * @return Iterator over indices that are changed but not removed
      */
     public Iterator<IndexId> indicesToUpdateAfterRemovingSnapshot(Collection<SnapshotId> snapshotIds) {
+        final Set<SnapshotId> snapshotsToDelete = new HashSet<>(snapshotIds);
         return Iterators.flatMap(indexSnapshots.entrySet().iterator(), entry -> {
-            if (isIndexToUpdateAfterRemovingSnapshots(entry.getValue(), snapshotIds)) {
+            if (isIndexToUpdateAfterRemovingSnapshots(entry.getValue(), snapshotsToDelete)) {
                 return Iterators.single(entry.getKey());
             } else {
                 return Collections.emptyIterator();
@@ -347,18 +348,20 @@ public final class RepositoryData {
 
     private static boolean isIndexToUpdateAfterRemovingSnapshots(
         Collection<SnapshotId> snapshotsContainingIndex,
-        Collection<SnapshotId> snapshotsToDelete
+        Set<SnapshotId> snapshotsToDelete
     ) {
-        // TODO this method is pretty opaque, let's add some comments
-        if (snapshotsToDelete.containsAll(snapshotsContainingIndex)) {
-            return snapshotsContainingIndex.size() > snapshotsToDelete.size();
-        }
-        for (SnapshotId snapshotId : snapshotsToDelete) {
-            if (snapshotsContainingIndex.contains(snapshotId)) {
-                return true;
+        // the index must be updated if some but not all of the snapshots containing it are deleted: if none of them are deleted then
+        // the index is unchanged, and if all of them are deleted then the index is removed from the repository entirely
+        boolean anyDeleted = false;
+        boolean allDeleted = true;
+        for (SnapshotId snapshotId : snapshotsContainingIndex) {
+            if (snapshotsToDelete.contains(snapshotId)) {
+                anyDeleted = true;
+            } else {
+                allDeleted = false;
             }
         }
-        return false;
+        return anyDeleted && allDeleted == false;
     }
 
     /**
@@ -371,9 +374,10 @@ public final class RepositoryData {
      */
     public Map<IndexId, Collection<String>> indexMetaDataToRemoveAfterRemovingSnapshots(Collection<SnapshotId> snapshotIds) {
         Iterator<IndexId> indicesForSnapshot = indicesToUpdateAfterRemovingSnapshot(snapshotIds);
+        final Set<SnapshotId> snapshotsToDelete = new HashSet<>(snapshotIds);
         final Set<String> allRemainingIdentifiers = indexMetaDataGenerations.lookup.entrySet()
             .stream()
-            .filter(e -> snapshotIds.contains(e.getKey()) == false)
+            .filter(e -> snapshotsToDelete.contains(e.getKey()) == false)
             .flatMap(e -> e.getValue().values().stream())
             .map(indexMetaDataGenerations::getIndexMetaBlobId)
             .collect(Collectors.toSet());
@@ -521,12 +525,14 @@ public final class RepositoryData {
      *                                changed shard indexed by its shardId
      */
     public RepositoryData removeSnapshots(final Collection<SnapshotId> snapshots, final ShardGenerations updatedShardGenerations) {
+        // repositories may hold tens of thousands of snapshots, so avoid linear lookups in the collection of snapshots to remove
+        final Set<SnapshotId> snapshotsToRemove = new HashSet<>(snapshots);
         Map<String, SnapshotId> newSnapshotIds = snapshotIds.values()
             .stream()
-            .filter(Predicate.not(snapshots::contains))
+            .filter(Predicate.not(snapshotsToRemove::contains))
             .collect(Collectors.toMap(SnapshotId::getUUID, Function.identity()));
-        if (newSnapshotIds.size() != snapshotIds.size() - snapshots.size()) {
-            final Collection<SnapshotId> notFound = new HashSet<>(snapshots);
+        if (newSnapshotIds.size() != snapshotIds.size() - snapshotsToRemove.size()) {
+            final Collection<SnapshotId> notFound = new HashSet<>(snapshotsToRemove);
             notFound.removeAll(snapshotIds.values());
             throw new ResourceNotFoundException("Attempting to remove non-existent snapshots {} from repository data", notFound);
         }
@@ -539,7 +545,7 @@ public final class RepositoryData {
             List<SnapshotId> snapshotIds = this.indexSnapshots.get(indexId);
             assert snapshotIds != null;
             List<SnapshotId> remaining = new ArrayList<>(snapshotIds);
-            if (remaining.removeAll(snapshots)) {
+            if (remaining.removeAll(snapshotsToRemove)) {
                 remaining = Collections.unmodifiableList(remaining);
             } else {
                 remaining = snapshotIds;
@@ -10,6 +10,7 @@ package org.elasticsearch.repositories.blobstore;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.lucene.codecs.CodecUtil;
 import org.apache.lucene.index.CorruptIndexException;
 import org.apache.lucene.index.IndexCommit;
 import org.apache.lucene.index.IndexFormatTooNewException;
@@ -54,11 +55,13 @@ import org.elasticsearch.common.blobstore.DeleteResult;
 import org.elasticsearch.common.blobstore.OperationPurpose;
 import org.elasticsearch.common.blobstore.fs.FsBlobContainer;
 import org.elasticsearch.common.blobstore.support.BlobMetadata;
+import org.elasticsearch.common.blobstore.support.FilterBlobContainer;
 import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.collect.Iterators;
 import org.elasticsearch.common.component.AbstractLifecycleComponent;
 import org.elasticsearch.common.compress.NotXContentException;
+import org.elasticsearch.common.hash.MessageDigests;
 import org.elasticsearch.common.io.Streams;
 import org.elasticsearch.common.lucene.Lucene;
 import org.elasticsearch.common.lucene.store.InputStreamIndexInput;
@@ -81,6 +84,7 @@ import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.RefCounted;
 import org.elasticsearch.core.Releasable;
 import org.elasticsearch.core.SuppressForbidden;
+import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.core.Tuple;
 import org.elasticsearch.index.IndexVersion;
 import org.elasticsearch.index.shard.ShardId;
@@ -128,14 +132,19 @@ import org.elasticsearch.xcontent.XContentFactory;
 import org.elasticsearch.xcontent.XContentParser;
 import org.elasticsearch.xcontent.XContentType;
 
+import java.io.EOFException;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.NoSuchFileException;
+import java.security.MessageDigest;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -145,9 +154,11 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BooleanSupplier;
@@ -221,6 +232,24 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
      */
     private static final String VIRTUAL_DATA_BLOB_PREFIX = "v__";
 
+    /**
+     * Prefix used for the identifiers of data blobs that are named after the contents of the file they hold rather than after a random
+     * UUID, see {@link #CONTENT_ADDRESSED_DATA_SETTING}. These blobs are stored in the repository-level
+     * {@link #CONTENT_ADDRESSED_DATA_PATH} container rather than in the shard container, because several shards may refer to the same blob.
+     */
+    static final String CONTENT_ADDRESSED_DATA_BLOB_PREFIX = "c__";
+
+    /**
+     * Name of the repository-level container that holds the content-addressed data blobs.
+     */
+    private static final String CONTENT_ADDRESSED_DATA_PATH = "content";
+
+    /**
+     * Name of the child of the {@link #CONTENT_ADDRESSED_DATA_PATH} container that holds, for each content-addressed data blob, a
+     * container with an empty marker blob for every shard that refers to it.
+     */
+    private static final String CONTENT_REFERENCES_PATH = "refs";
+
     /**
      * When set to true metadata files are stored in compressed format. This setting doesn’t affect index
      * files that are already compressed by default. Changing the setting does not invalidate existing files since reads
@@ -270,6 +299,49 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
      */
     public static final Setting<Boolean> USE_FOR_PEER_RECOVERY_SETTING = Setting.boolSetting("use_for_peer_recovery", false);
 
+    /**
+     * Setting that makes snapshots upload each distinct index file only once to the repository, even if several shards or indices
+     * contain a copy of it, e.g. the shards of an index and of its clone or shrunk copy, or an index and its restored copy. Such files are
+     * named after their contents and their upload is skipped if another shard already uploaded them. Each shard that refers to such a
+     * file records an empty marker blob next to it, and the file is deleted once the last of these markers was deleted. Files that were
+     * uploaded before this setting was enabled are not affected. Every node and cluster that reads from the repository must support this
+     * setting, even after it was disabled again: the setting is rejected if any node in the cluster is older than
+     * {@link SnapshotsService#CONTENT_ADDRESSED_DATA_VERSION}, and has no effect while the repository still contains snapshots written by
+     * older versions.
+     */
+    public static final Setting<Boolean> CONTENT_ADDRESSED_DATA_SETTING = Setting.boolSetting("content_addressed_data", false);
+
+    /**
+     * Setting that defines how many parts of a single file this node may upload concurrently. Files are only split into parts if they are
+     * larger than the repository's chunk size, so this has no effect unless the chunk size is smaller than the largest files in the
+     * snapshot. The extra uploads run on the snapshot thread pool, and each node limits the total number of extra uploads in flight for
+     * this repository to this value minus one, across all the files it is snapshotting.
+     */
+    public static final Setting<Integer> MAX_CONCURRENT_PART_UPLOADS_SETTING = Setting.intSetting(
+        "max_concurrent_part_uploads",
+        1,
+        1,
+        Setting.Property.NodeScope
+    );
+
+    /**
+     * Setting that limits how many batches of unreferenced blobs this node may delete concurrently when cleaning up after snapshot
+     * deletions and repository cleanups. The batches of all ongoing cleanups share this limit. It is further limited by the size of the
+     * snapshot thread pool, which is also the default.
+     */
+    public static final Setting<Integer> MAX_CONCURRENT_BLOB_DELETES_SETTING = Setting.intSetting(
+        "max_concurrent_blob_deletes",
+        Integer.MAX_VALUE,
+        1,
+        Setting.Property.NodeScope
+    );
+
+    /**
+     * The number of shard-level blobs deleted by each task when cleaning up after a snapshot deletion. Blob stores that support bulk
+     * deletes typically accept up to 1000 blobs per request. Only changed by tests, see {@link #setShardBlobDeleteBatchSize}.
+     */
+    private static final int SHARD_BLOB_DELETE_BATCH_SIZE = 1000;
+
     protected final boolean supportURLRepo;
 
     private final boolean compress;
@@ -401,6 +473,18 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
 
     private final ThrottledTaskRunner staleBlobDeleteRunner;
 
+    /**
+     * Runs the extra workers uploading the parts of a file concurrently, or {@code null} if parts are uploaded one after another.
+     */
+    @Nullable
+    private final ThrottledTaskRunner partUploadRunner;
+
+    private final int maxConcurrentPartUploads;
+
+    private final boolean contentAddressedData;
+
+    private volatile int shardBlobDeleteBatchSize = SHARD_BLOB_DELETE_BATCH_SIZE;
+
     /**
      * Constructs new BlobStoreRepository
      * @param metadata   The metadata for this repository including name and settings
@@ -443,9 +527,14 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
         );
         staleBlobDeleteRunner = new ThrottledTaskRunner(
             "cleanupStaleBlobs",
-            threadPool.info(ThreadPool.Names.SNAPSHOT).getMax(),
+            Math.min(threadPool.info(ThreadPool.Names.SNAPSHOT).getMax(), MAX_CONCURRENT_BLOB_DELETES_SETTING.get(metadata.settings())),
             threadPool.executor(ThreadPool.Names.SNAPSHOT)
         );
+        maxConcurrentPartUploads = MAX_CONCURRENT_PART_UPLOADS_SETTING.get(metadata.settings());
+        partUploadRunner = maxConcurrentPartUploads > 1
+            ? new ThrottledTaskRunner("partUploads", maxConcurrentPartUploads - 1, threadPool.executor(ThreadPool.Names.SNAPSHOT))
+            : null;
+        contentAddressedData = CONTENT_ADDRESSED_DATA_SETTING.get(metadata.settings());
     }
 
     @Override
@@ -677,6 +766,12 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
         return blobStore.get();
     }
 
+    // package private, only use for testing
+    void setShardBlobDeleteBatchSize(int shardBlobDeleteBatchSize) {
+        assert shardBlobDeleteBatchSize > 0 : shardBlobDeleteBatchSize;
+        this.shardBlobDeleteBatchSize = shardBlobDeleteBatchSize;
+    }
+
     /**
      * maintains single lazy instance of {@link BlobContainer}
      */
@@ -861,6 +956,7 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
      * <ul>
      *     <li>Deleting stale indices</li>
      *     <li>Deleting unreferenced root level blobs</li>
+     *     <li>Deleting content-addressed data blobs that no shard refers to</li>
      * </ul>
      *
      * @param repositoryDataGeneration         Generation of {@link RepositoryData} at start of process
@@ -975,7 +1071,7 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
         /**
          * Accumulates the number of blobs deleted by this operation.
          */
-        // NB only counts stale root blobs today, not shard-level blobs
+        // NB counts stale root blobs and shard-level blobs, but not the blobs of the index metadata that is no longer referenced
         private final AtomicLong blobsDeleted = new AtomicLong();
 
         /**
@@ -984,6 +1080,11 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
         // NB only counts stale root blobs today, not shard-level blobs
         private final AtomicLong bytesDeleted = new AtomicLong();
 
+        /**
+         * The time at which this operation started, used to report the rate at which it deleted blobs.
+         */
+        private final long startTimeMillis = threadPool.relativeTimeInMillis();
+
         SnapshotsDeletion(
             Collection<SnapshotId> snapshotIds,
             long originalRepositoryDataGeneration,
@@ -1008,12 +1109,15 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
          * @param shardId       Shard id that the snapshot was removed from
          * @param newGeneration Id of the new index-${uuid} blob that does not include the snapshot any more
          * @param blobsToDelete Blob names in the shard directory that have become unreferenced in the new shard generation
+         * @param contentAddressedBlobsToRelease Names of the content-addressed data blobs that the shard no longer refers to in the new
+         *                                       shard generation
          */
         private record ShardSnapshotMetaDeleteResult(
             IndexId indexId,
             int shardId,
             ShardGeneration newGeneration,
-            Collection<String> blobsToDelete
+            Collection<String> blobsToDelete,
+            Collection<String> contentAddressedBlobsToRelease
         ) {}
 
         /**
@@ -1065,13 +1169,22 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                     updateRepositoryData(originalRepositoryData.removeSnapshots(snapshotIds, builder.build()), l);
                 })
 
+                // Shards may add references to content-addressed data blobs again once the next repository operation may proceed, so
+                // release the blobs that the shards no longer refer to before that
+                .<RepositoryData>andThen(
+                    (l, newRepositoryData) -> releaseUnreferencedContentAddressedBlobs(() -> l.onResponse(newRepositoryData))
+                )
+
                 .addListener(
                     ActionListener.wrap(
                         // Once we have updated the repository, run the clean-ups
                         newRepositoryData -> {
                             listener.onRepositoryDataWritten(newRepositoryData);
                             // Run unreferenced blobs cleanup in parallel to shard-level snapshot deletion
-                            try (var refs = new RefCountingRunnable(listener::onDone)) {
+                            try (var refs = new RefCountingRunnable(() -> {
+                                logBlobsDeleted();
+                                listener.onDone();
+                            })) {
                                 cleanupUnlinkedRootAndIndicesBlobs(newRepositoryData, refs.acquireListener());
                                 cleanupUnlinkedShardLevelBlobs(shardDeleteResults, refs.acquireListener());
                             }
@@ -1087,6 +1200,7 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                 originalRepositoryData.removeSnapshots(snapshotIds, ShardGenerations.EMPTY),
                 ActionListener.wrap(newRepositoryData -> {
                     try (var refs = new RefCountingRunnable(() -> {
+                        logBlobsDeleted();
                         listener.onRepositoryDataWritten(newRepositoryData);
                         listener.onDone();
                     })) {
@@ -1098,7 +1212,11 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                             ActionRunnable.wrap(
                                 refs.acquireListener(),
                                 l0 -> writeUpdatedShardMetadataAndComputeDeletes(
-                                    l0.delegateFailure((l, ignored) -> cleanupUnlinkedShardLevelBlobs(shardDeleteResults, l))
+                                    l0.delegateFailure(
+                                        (l, ignored) -> releaseUnreferencedContentAddressedBlobs(
+                                            () -> cleanupUnlinkedShardLevelBlobs(shardDeleteResults, l)
+                                        )
+                                    )
                                 )
                             )
                         );
@@ -1114,7 +1232,16 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                 .map(IndexId::getId)
                 .collect(Collectors.toSet());
             final List<String> staleRootBlobs = staleRootBlobs(originalRepositoryData, originalRootBlobs.keySet());
-            if (survivingIndexIds.equals(originalIndexContainers.keySet()) && staleRootBlobs.isEmpty()) {
+            final List<BlobMetadata> unreferencedContentAddressedBlobs;
+            try {
+                unreferencedContentAddressedBlobs = unreferencedContentAddressedBlobs();
+            } catch (IOException e) {
+                listener.onFailure(e);
+                return;
+            }
+            if (survivingIndexIds.equals(originalIndexContainers.keySet())
+                && staleRootBlobs.isEmpty()
+                && unreferencedContentAddressedBlobs.isEmpty()) {
                 // Nothing to clean up we return
                 listener.onResponse(DeleteResult.ZERO);
             } else {
@@ -1123,15 +1250,77 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                     originalRepositoryData,
                     listener.delegateFailureAndWrap(
                         // TODO should we pass newRepositoryData to cleanupStaleBlobs()?
-                        (l, newRepositoryData) -> cleanupUnlinkedRootAndIndicesBlobs(
-                            originalRepositoryData,
-                            l.map(ignored -> DeleteResult.of(blobsDeleted.get(), bytesDeleted.get()))
-                        )
+                        (l, newRepositoryData) -> {
+                            try (
+                                var listeners = new RefCountingListener(
+                                    l.map(ignored -> DeleteResult.of(blobsDeleted.get(), bytesDeleted.get()))
+                                )
+                            ) {
+                                cleanupUnlinkedRootAndIndicesBlobs(originalRepositoryData, listeners.acquire());
+                                cleanupUnreferencedContentAddressedBlobs(unreferencedContentAddressedBlobs, listeners.acquire());
+                            }
+                        }
                     )
                 );
             }
         }
 
+        /**
+         * Lists the parts of the content-addressed data blobs that no shard refers to any more, see
+         * {@link #CONTENT_ADDRESSED_DATA_SETTING}. Shard snapshots that fail leave such blobs behind, see
+         * {@link #removeContentReferences}. Only safe to use in a repository cleanup, which runs while no snapshot may add references.
+         */
+        private List<BlobMetadata> unreferencedContentAddressedBlobs() throws IOException {
+            if (blobContainer().children(OperationPurpose.SNAPSHOT_METADATA).containsKey(CONTENT_ADDRESSED_DATA_PATH) == false) {
+                return List.of();
+            }
+            final Map<String, List<BlobMetadata>> partsByBlobName = new HashMap<>();
+            for (BlobMetadata part : contentAddressedDataContainer().listBlobs(OperationPurpose.SNAPSHOT_DATA).values()) {
+                if (isContentAddressedDataBlob(part.name())) {
+                    partsByBlobName.computeIfAbsent(canonicalName(part.name()), k -> new ArrayList<>()).add(part);
+                }
+            }
+            final List<BlobMetadata> unreferencedParts = new ArrayList<>();
+            for (Map.Entry<String, List<BlobMetadata>> entry : partsByBlobName.entrySet()) {
+                if (contentReferencesContainer(entry.getKey()).listBlobs(OperationPurpose.SNAPSHOT_METADATA).isEmpty()) {
+                    unreferencedParts.addAll(entry.getValue());
+                }
+            }
+            return unreferencedParts;
+        }
+
+        private void cleanupUnreferencedContentAddressedBlobs(List<BlobMetadata> unreferencedParts, ActionListener<Void> listener) {
+            try (var listeners = new RefCountingListener(listener)) {
+                if (unreferencedParts.isEmpty()) {
+                    return;
+                }
+                staleBlobDeleteRunner.enqueueTask(listeners.acquire(ref -> {
+                    try (ref) {
+                        logger.debug(
+                            "[{}] Found [{}] unreferenced content-addressed data blobs. Cleaning them up",
+                            metadata.name(),
+                            unreferencedParts.size()
+                        );
+                        deleteFromContainer(
+                            OperationPurpose.SNAPSHOT_DATA,
+                            contentAddressedDataContainer(),
+                            Iterators.map(unreferencedParts.iterator(), BlobMetadata::name)
+                        );
+                        for (BlobMetadata part : unreferencedParts) {
+                            bytesDeleted.addAndGet(part.length());
+                        }
+                        blobsDeleted.addAndGet(unreferencedParts.size());
+                    } catch (Exception e) {
+                        logger.warn(
+                            () -> format("[%s] failed to clean up unreferenced content-addressed data blobs", metadata.name()),
+                            e
+                        );
+                    }
+                }));
+            }
+            staleBlobDeleteRunner.runSyncTasksEagerly(snapshotExecutor);
+        }
+
         // ---------------------------------------------------------------------------------------------------------------------------------
         // Updating the shard-level metadata and accumulating results
 
@@ -1264,8 +1453,15 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                         newGen = tuple.v2() + 1;
                         blobStoreIndexShardSnapshots = tuple.v1();
                     }
+                    final BlobStoreIndexShardSnapshots updatedSnapshots = blobStoreIndexShardSnapshots.withRetainedSnapshots(
+                        survivingSnapshots
+                    );
                     addShardDeleteResult(
-                        deleteFromShardSnapshotMeta(blobStoreIndexShardSnapshots.withRetainedSnapshots(survivingSnapshots), newGen)
+                        deleteFromShardSnapshotMeta(
+                            updatedSnapshots,
+                            newGen,
+                            unreferencedContentAddressedBlobs(blobStoreIndexShardSnapshots, updatedSnapshots)
+                        )
                     );
                 }
 
@@ -1274,10 +1470,13 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                  *
                  * @param indexGeneration generation to write the new shard level level metadata to. If negative a uuid id shard generation
                  *                        should be used
+                 * @param contentAddressedBlobsToRelease content-addressed data blobs that the updated shard level metadata no longer
+                 *                                       refers to
                  */
                 private ShardSnapshotMetaDeleteResult deleteFromShardSnapshotMeta(
                     BlobStoreIndexShardSnapshots updatedSnapshots,
-                    long indexGeneration
+                    long indexGeneration,
+                    Collection<String> contentAddressedBlobsToRelease
                 ) {
                     ShardGeneration writtenGeneration = null;
                     try {
@@ -1286,7 +1485,8 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                                 indexId,
                                 shardId,
                                 ShardGenerations.DELETED_SHARD_GEN,
-                                originalShardBlobs
+                                originalShardBlobs,
+                                contentAddressedBlobsToRelease
                             );
                         } else {
                             if (indexGeneration < 0L) {
@@ -1308,7 +1508,8 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                                 indexId,
                                 shardId,
                                 writtenGeneration,
-                                unusedBlobs(originalShardBlobs, survivingSnapshotUUIDs, updatedSnapshots)
+                                unusedBlobs(originalShardBlobs, survivingSnapshotUUIDs, updatedSnapshots),
+                                contentAddressedBlobsToRelease
                             );
                         }
                     } catch (IOException e) {
@@ -1346,6 +1547,24 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                         .toList();
                 }
 
+                private static Set<String> unreferencedContentAddressedBlobs(
+                    BlobStoreIndexShardSnapshots originalSnapshots,
+                    BlobStoreIndexShardSnapshots updatedSnapshots
+                ) {
+                    final Set<String> unreferencedBlobs = contentAddressedBlobs(originalSnapshots);
+                    unreferencedBlobs.removeAll(contentAddressedBlobs(updatedSnapshots));
+                    return unreferencedBlobs;
+                }
+
+                private static Set<String> contentAddressedBlobs(BlobStoreIndexShardSnapshots snapshots) {
+                    return snapshots.snapshots()
+                        .stream()
+                        .flatMap(snapshotFiles -> snapshotFiles.indexFiles().stream())
+                        .map(FileInfo::name)
+                        .filter(BlobStoreRepository::isContentAddressedDataBlob)
+                        .collect(Collectors.toCollection(HashSet::new));
+                }
+
                 @Override
                 public void onFailure(Exception ex) {
                     // TODO: Should we fail the delete here? See https://github.com/elastic/elasticsearch/issues/100569.
@@ -1381,17 +1600,102 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                 listener.onResponse(null);
                 return;
             }
-            snapshotExecutor.execute(ActionRunnable.wrap(listener, l -> {
-                try {
-                    deleteFromContainer(OperationPurpose.SNAPSHOT_DATA, blobContainer(), filesToDelete);
-                    l.onResponse(null);
+            // Delete the blobs in batches, each in its own task on the stale blob delete runner, so that the batches are deleted
+            // concurrently and share the runner with the cleanups of any other deletions that are still in progress.
+            try (var listeners = new RefCountingListener(listener)) {
+                enqueueShardLevelBlobsDeletion(filesToDelete, listeners);
+            }
+            staleBlobDeleteRunner.runSyncTasksEagerly(snapshotExecutor);
+        }
+
+        /**
+         * Deletes the references of the shards to the content-addressed data blobs that they no longer refer to, and then deletes each
+         * of these blobs that no shard refers to any more, see {@link #CONTENT_ADDRESSED_DATA_SETTING}. Failures are logged and leave
+         * unreferenced blobs behind, but never delete a blob that some shard still refers to.
+         */
+        private void releaseUnreferencedContentAddressedBlobs(Runnable onCompletion) {
+            try (var refs = new RefCountingRunnable(onCompletion)) {
+                for (ShardSnapshotMetaDeleteResult shardResult : shardDeleteResults) {
+                    if (shardResult.contentAddressedBlobsToRelease.isEmpty()) {
+                        continue;
+                    }
+                    final ActionListener<Releasable> task = ActionListener.wrap(ref -> {
+                        try (ref) {
+                            releaseUnreferencedContentAddressedBlobs(shardResult);
+                        }
+                    },
+                        e -> logger.warn(
+                            () -> format(
+                                "%s failed to release content-addressed data blobs of shard [%s][%s]",
+                                snapshotIds,
+                                shardResult.indexId.getName(),
+                                shardResult.shardId
+                            ),
+                            e
+                        )
+                    );
+                    staleBlobDeleteRunner.enqueueTask(ActionListener.releaseAfter(task, refs.acquire()));
+                }
+            }
+            staleBlobDeleteRunner.runSyncTasksEagerly(snapshotExecutor);
+        }
+
+        private void releaseUnreferencedContentAddressedBlobs(ShardSnapshotMetaDeleteResult shardResult) throws IOException {
+            final String reference = contentReferenceName(shardResult.indexId, shardResult.shardId);
+            for (String blobName : shardResult.contentAddressedBlobsToRelease) {
+                final BlobContainer referencesContainer = contentReferencesContainer(blobName);
+                referencesContainer.deleteBlobsIgnoringIfNotExists(OperationPurpose.SNAPSHOT_METADATA, Iterators.single(reference));
+                // other shards may release the same blob concurrently, but they all delete their references before listing them so at
+                // least one of them sees that none remain
+                if (referencesContainer.listBlobs(OperationPurpose.SNAPSHOT_METADATA).isEmpty()) {
+                    final BlobContainer dataContainer = contentAddressedDataContainer();
+                    final Set<String> parts = dataContainer.listBlobsByPrefix(OperationPurpose.SNAPSHOT_DATA, blobName).keySet();
+                    deleteFromContainer(OperationPurpose.SNAPSHOT_DATA, dataContainer, parts.iterator());
+                    blobsDeleted.addAndGet(parts.size());
+                }
+            }
+        }
+
+        private void enqueueShardLevelBlobsDeletion(Iterator<String> filesToDelete, RefCountingListener listeners) {
+            staleBlobDeleteRunner.enqueueTask(listeners.acquire(ref -> {
+                try (ref) {
+                    final List<String> batch = new ArrayList<>(shardBlobDeleteBatchSize);
+                    final boolean hasMoreFilesToDelete;
+                    // the iterator is shared by all the tasks of this cleanup, and only pulled by a task once it runs, so that we only
+                    // hold the names of the blobs that are about to be deleted in memory
+                    synchronized (filesToDelete) {
+                        while (batch.size() < shardBlobDeleteBatchSize && filesToDelete.hasNext()) {
+                            batch.add(filesToDelete.next());
+                        }
+                        hasMoreFilesToDelete = filesToDelete.hasNext();
+                    }
+                    if (hasMoreFilesToDelete) {
+                        // delete the next batch on another thread, if the runner has capacity, while we delete this one
+                        enqueueShardLevelBlobsDeletion(filesToDelete, listeners);
+                    }
+                    deleteFromContainer(OperationPurpose.SNAPSHOT_DATA, blobContainer(), batch.iterator());
+                    blobsDeleted.addAndGet(batch.size());
                 } catch (Exception e) {
                     logger.warn(() -> format("%s Failed to delete some blobs during snapshot delete", snapshotIds), e);
-                    throw e;
                 }
             }));
         }
 
+        private void logBlobsDeleted() {
+            if (logger.isDebugEnabled()) {
+                final long tookMillis = threadPool.relativeTimeInMillis() - startTimeMillis;
+                final long blobs = blobsDeleted.get();
+                logger.debug(
+                    "[{}] deleted [{}] blobs while deleting snapshots {} in [{}] ([{}] blobs/s)",
+                    metadata.name(),
+                    blobs,
+                    snapshotIds,
+                    TimeValue.timeValueMillis(tookMillis),
+                    blobs * 1000 / Math.max(tookMillis, 1L)
+                );
+            }
+        }
+
         private Iterator<String> resolveFilesToDelete(Collection<ShardSnapshotMetaDeleteResult> deleteResults) {
             // Somewhat surprisingly we can construct the String representations of the blobs to delete with BlobPath#buildAsString even
             // on Windows, because the JDK translates / to \ automatically (and all other blob stores use / as the path separator anyway)
@@ -1914,7 +2218,84 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
     }
 
     public BlobContainer shardContainer(IndexId indexId, int shardId) {
-        return blobStore().blobContainer(shardPath(indexId, shardId));
+        return new ShardBlobContainer(blobStore().blobContainer(shardPath(indexId, shardId)));
+    }
+
+    private BlobPath contentAddressedDataPath() {
+        return basePath().add(CONTENT_ADDRESSED_DATA_PATH);
+    }
+
+    private BlobContainer contentAddressedDataContainer() {
+        return blobStore().blobContainer(contentAddressedDataPath());
+    }
+
+    private BlobContainer contentReferencesContainer(String contentAddressedBlobName) {
+        return blobStore().blobContainer(contentAddressedDataPath().add(CONTENT_REFERENCES_PATH).add(contentAddressedBlobName));
+    }
+
+    private static String contentReferenceName(IndexId indexId, int shardId) {
+        return "shard-" + indexId.getId() + "-" + shardId;
+    }
+
+    private static boolean isContentAddressedDataBlob(String blobName) {
+        return blobName.startsWith(CONTENT_ADDRESSED_DATA_BLOB_PREFIX);
+    }
+
+    /**
+     * A shard container that reads and writes content-addressed data blobs in the repository-level content container instead, see
+     * {@link #CONTENT_ADDRESSED_DATA_SETTING}. These blobs may be shared with other shards, so deletes are not routed and never remove
+     * them. Reads are routed even if the setting is disabled so that the snapshots that were taken while it was enabled remain
+     * readable.
+     */
+    private final class ShardBlobContainer extends FilterBlobContainer {
+
+        ShardBlobContainer(BlobContainer delegate) {
+            super(delegate);
+        }
+
+        @Override
+        protected BlobContainer wrapChild(BlobContainer child) {
+            return new ShardBlobContainer(child);
+        }
+
+        @Override
+        public boolean blobExists(OperationPurpose purpose, String blobName) throws IOException {
+            if (isContentAddressedDataBlob(blobName)) {
+                return contentAddressedDataContainer().blobExists(purpose, blobName);
+            }
+            return super.blobExists(purpose, blobName);
+        }
+
+        @Override
+        public InputStream readBlob(OperationPurpose purpose, String blobName) throws IOException {
+            if (isContentAddressedDataBlob(blobName)) {
+                return contentAddressedDataContainer().readBlob(purpose, blobName);
+            }
+            return super.readBlob(purpose, blobName);
+        }
+
+        @Override
+        public InputStream readBlob(OperationPurpose purpose, String blobName, long position, long length) throws IOException {
+            if (isContentAddressedDataBlob(blobName)) {
+                return contentAddressedDataContainer().readBlob(purpose, blobName, position, length);
+            }
+            return super.readBlob(purpose, blobName, position, length);
+        }
+
+        @Override
+        public void writeBlob(
+            OperationPurpose purpose,
+            String blobName,
+            InputStream inputStream,
+            long blobSize,
+            boolean failIfAlreadyExists
+        ) throws IOException {
+            if (isContentAddressedDataBlob(blobName)) {
+                contentAddressedDataContainer().writeBlob(purpose, blobName, inputStream, blobSize, failIfAlreadyExists);
+            } else {
+                super.writeBlob(purpose, blobName, inputStream, blobSize, failIfAlreadyExists);
+            }
+        }
     }
 
     /**
@@ -2996,6 +3377,9 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
         final SnapshotId snapshotId = context.snapshotId();
         final IndexShardSnapshotStatus snapshotStatus = context.status();
         final long startTime = threadPool.absoluteTimeInMillis();
+        // The content-addressed data blobs that this shard did not refer to before this snapshot. Their references are removed again if
+        // the snapshot fails before it writes the shard level metadata.
+        final AtomicReference<List<String>> contentReferencesToCleanUp = new AtomicReference<>(List.of());
         try {
             final ShardGeneration generation = snapshotStatus.generation();
             final BlobContainer shardContainer = shardContainer(context.indexId(), shardId);
@@ -3054,6 +3438,11 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                 // If we did not find a set of files that is equal to the current commit we determine the files to upload by comparing files
                 // in the commit with files already in the repository
                 indexCommitPointFiles = new ArrayList<>();
+                // every node and every snapshot in the repository must support content-addressed data before we start writing it
+                final boolean writeContentAddressedData = contentAddressedData
+                    && SnapshotsService.useContentAddressedData(context.getRepositoryMetaVersion());
+                final List<String> newContentReferences = new ArrayList<>();
+                contentReferencesToCleanUp.set(newContentReferences);
                 final Collection<String> fileNames;
                 final Store.MetadataSnapshot metadataFromStore;
                 try (Releasable ignored = context.withCommitRef()) {
@@ -3081,15 +3470,28 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                     indexTotalNumberOfFiles++;
 
                     if (existingFileInfo == null) {
-                        indexIncrementalFileCount++;
-                        indexIncrementalSize += md.length();
+                        final String contentAddressedBlobName = needsWrite && writeContentAddressedData
+                            ? contentAddressedDataBlobName(context, md)
+                            : null;
                         // create a new FileInfo
                         BlobStoreIndexShardSnapshot.FileInfo snapshotFileInfo = new BlobStoreIndexShardSnapshot.FileInfo(
-                            (needsWrite ? UPLOADED_DATA_BLOB_PREFIX : VIRTUAL_DATA_BLOB_PREFIX) + UUIDs.randomBase64UUID(),
+                            contentAddressedBlobName != null
+                                ? contentAddressedBlobName
+                                : (needsWrite ? UPLOADED_DATA_BLOB_PREFIX : VIRTUAL_DATA_BLOB_PREFIX) + UUIDs.randomBase64UUID(),
                             md,
                             chunkSize()
                         );
                         indexCommitPointFiles.add(snapshotFileInfo);
+                        if (contentAddressedBlobName != null && snapshots.findNameFile(contentAddressedBlobName) == null) {
+                            // added before writing the reference, since writing it may fail after the reference was created
+                            newContentReferences.add(contentAddressedBlobName);
+                        }
+                        if (contentAddressedBlobName != null && addContentReference(context, snapshotFileInfo)) {
+                            // another shard already uploaded a copy of this file, so this snapshot only refers to it
+                            continue;
+                        }
+                        indexIncrementalFileCount++;
+                        indexIncrementalSize += md.length();
                         if (needsWrite) {
                             filesToSnapshot.add(snapshotFileInfo);
                         } else {
@@ -3207,7 +3609,10 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
             }
 
             // filesToSnapshot will be emptied while snapshotting the file. We make a copy here for cleanup purpose in case of failure.
-            final AtomicReference<List<FileInfo>> fileToCleanUp = new AtomicReference<>(List.copyOf(filesToSnapshot));
+            // Content-addressed data blobs are left in place because other shards may refer to them.
+            final AtomicReference<List<FileInfo>> fileToCleanUp = new AtomicReference<>(
+                filesToSnapshot.stream().filter(fileInfo -> isContentAddressedDataBlob(fileInfo.name()) == false).toList()
+            );
             final ActionListener<Collection<Void>> allFilesUploadedListener = ActionListener.assertOnce(ActionListener.wrap(ignore -> {
                 final IndexShardSnapshotStatus.Copy lastSnapshotStatus = snapshotStatus.moveToFinalize();
 
@@ -3224,6 +3629,7 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                 // Once we start writing the shard level snapshot file, no cleanup will be performed because it is possible that
                 // written files are referenced by another concurrent process.
                 fileToCleanUp.set(List.of());
+                contentReferencesToCleanUp.set(List.of());
                 try {
                     final String snapshotUUID = snapshotId.getUUID();
                     final Map<String, String> serializationParams = Collections.singletonMap(
@@ -3257,6 +3663,7 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
                 } catch (Exception innerException) {
                     e.addSuppressed(innerException);
                 }
+                removeContentReferences(context, contentReferencesToCleanUp.getAndSet(List.of()), e);
                 context.onFailure(e);
             }));
 
@@ -3266,10 +3673,94 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
             }
             snapshotFiles(context, filesToSnapshot, allFilesUploadedListener);
         } catch (Exception e) {
+            removeContentReferences(context, contentReferencesToCleanUp.getAndSet(List.of()), e);
             context.onFailure(e);
         }
     }
 
+    /**
+     * Returns the name of the content-addressed data blob for the given file of the commit that is being snapshotted, or {@code null} if
+     * the file has no Lucene index header, see {@link #CONTENT_ADDRESSED_DATA_SETTING}. The name is derived from the index header of the
+     * file, which contains the random id of the segment or commit that the file belongs to, together with the name, length and checksum
+     * of the file and the size of the parts in which it is uploaded. Lucene never modifies a file once it was written, so files with the
+     * same name, index header, length and checksum have the same contents, and only the header needs to be read to name them.
+     */
+    @Nullable
+    private String contentAddressedDataBlobName(SnapshotShardContext context, StoreFileMetadata md) {
+        final byte[] header;
+        try (
+            Releasable ignored = context.withCommitRef();
+            IndexInput indexInput = context.store().directory().openInput(md.name(), IOContext.READONCE)
+        ) {
+            header = CodecUtil.readIndexHeader(indexInput);
+        } catch (CorruptIndexException | EOFException e) {
+            logger.trace(() -> format("[%s] cannot read index header of [%s], uploading it under a random name", metadata.name(), md), e);
+            return null;
+        } catch (IOException e) {
+            throw new IndexShardSnapshotFailedException(context.store().shardId(), "failed to read index header of [" + md + "]", e);
+        }
+        final ByteSizeValue partSize = chunkSize();
+        final long partBytes = partSize == null ? Long.MAX_VALUE : partSize.getBytes();
+        final MessageDigest digest = MessageDigests.sha256();
+        digest.update(header);
+        digest.update(format("%s/%d/%s/%d", md.name(), md.length(), md.checksum(), partBytes).getBytes(StandardCharsets.UTF_8));
+        return CONTENT_ADDRESSED_DATA_BLOB_PREFIX + MessageDigests.toHexString(digest.digest());
+    }
+
+    /**
+     * Records that the shard that is being snapshotted refers to the given content-addressed data blob and returns whether all its parts
+     * were already uploaded, in which case the snapshot need not upload it again. The reference is recorded first, and snapshot deletions
+     * only delete unreferenced content-addressed data blobs before they let any other operation proceed, so a blob that exists here
+     * cannot be deleted until this shard no longer refers to it.
+     */
+    private boolean addContentReference(SnapshotShardContext context, FileInfo fileInfo) {
+        final String blobName = fileInfo.name();
+        try {
+            contentReferencesContainer(blobName).writeBlob(
+                OperationPurpose.SNAPSHOT_METADATA,
+                contentReferenceName(context.indexId(), context.store().shardId().id()),
+                BytesArray.EMPTY,
+                false
+            );
+            final Map<String, BlobMetadata> blobs = contentAddressedDataContainer().listBlobsByPrefix(
+                OperationPurpose.SNAPSHOT_DATA,
+                blobName
+            );
+            for (int i = 0; i < fileInfo.numberOfParts(); i++) {
+                final BlobMetadata blob = blobs.get(fileInfo.partName(i));
+                if (blob == null || blob.length() != fileInfo.partBytes(i)) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            throw new IndexShardSnapshotFailedException(
+                context.store().shardId(),
+                "failed to record reference to [" + blobName + "] for [" + fileInfo.physicalName() + "]",
+                e
+            );
+        }
+    }
+
+    /**
+     * Removes the references of the shard that is being snapshotted to the given content-addressed data blobs after its snapshot failed.
+     * The blobs themselves are left in place even if no shard refers to them any more, because another shard may have just recorded a
+     * reference to one of them and found it complete, see {@link #addContentReference}. Repository cleanups delete such blobs.
+     */
+    private void removeContentReferences(SnapshotShardContext context, List<String> contentAddressedBlobNames, Exception e) {
+        final String reference = contentReferenceName(context.indexId(), context.store().shardId().id());
+        for (String blobName : contentAddressedBlobNames) {
+            try {
+                contentReferencesContainer(blobName).deleteBlobsIgnoringIfNotExists(
+                    OperationPurpose.SNAPSHOT_METADATA,
+                    Iterators.single(reference)
+                );
+            } catch (Exception innerException) {
+                e.addSuppressed(innerException);
+            }
+        }
+    }
+
     private static void ensureNotAborted(ShardId shardId, SnapshotId snapshotId, IndexShardSnapshotStatus snapshotStatus, String fileName) {
         try {
             snapshotStatus.ensureNotAborted();
@@ -3716,62 +4207,136 @@ public abstract class BlobStoreRepository extends AbstractLifecycleComponent imp
      * @param fileInfo file to snapshot
      */
     protected void snapshotFile(SnapshotShardContext context, FileInfo fileInfo) throws IOException {
-        final IndexId indexId = context.indexId();
         final Store store = context.store();
-        final ShardId shardId = store.shardId();
-        final IndexShardSnapshotStatus snapshotStatus = context.status();
-        final SnapshotId snapshotId = context.snapshotId();
-        final BlobContainer shardContainer = shardContainer(indexId, shardId);
+        final BlobContainer shardContainer = shardContainer(context.indexId(), store.shardId());
         final String file = fileInfo.physicalName();
-        try (
-            Releasable ignored = context.withCommitRef();
-            IndexInput indexInput = store.openVerifyingInput(file, IOContext.READONCE, fileInfo.metadata())
-        ) {
-            for (int i = 0; i < fileInfo.numberOfParts(); i++) {
-                final long partBytes = fileInfo.partBytes(i);
-
-                // Make reads abortable by mutating the snapshotStatus object
-                final InputStream inputStream = new FilterInputStream(
-                    maybeRateLimitSnapshots(new InputStreamIndexInput(indexInput, partBytes))
-                ) {
-                    @Override
-                    public int read() throws IOException {
-                        checkAborted();
-                        return super.read();
-                    }
-
-                    @Override
-                    public int read(byte[] b, int off, int len) throws IOException {
-                        checkAborted();
-                        return super.read(b, off, len);
-                    }
-
-                    private void checkAborted() {
-                        ensureNotAborted(shardId, snapshotId, snapshotStatus, fileInfo.physicalName());
+        try (Releasable ignored = context.withCommitRef()) {
+            if (partUploadRunner != null && fileInfo.numberOfParts() > 1) {
+                snapshotFilePartsConcurrently(context, fileInfo, shardContainer);
+            } else {
+                try (IndexInput indexInput = store.openVerifyingInput(file, IOContext.READONCE, fileInfo.metadata())) {
+                    for (int i = 0; i < fileInfo.numberOfParts(); i++) {
+                        snapshotFilePart(context, fileInfo, shardContainer, indexInput, i);
                     }
-                };
-                final String partName = fileInfo.partName(i);
-                logger.trace("[{}] Writing [{}] to [{}]", metadata.name(), partName, shardContainer.path());
-                final long startMS = threadPool.relativeTimeInMillis();
-                shardContainer.writeBlob(OperationPurpose.SNAPSHOT_DATA, partName, inputStream, partBytes, false);
-                logger.trace(
-                    "[{}] Writing [{}] of size [{}b] to [{}] took [{}ms]",
-                    metadata.name(),
-                    partName,
-                    partBytes,
-                    shardContainer.path(),
-                    threadPool.relativeTimeInMillis() - startMS
-                );
+                    Store.verify(indexInput);
+                }
             }
-            Store.verify(indexInput);
-            snapshotStatus.addProcessedFile(fileInfo.length());
+            context.status().addProcessedFile(fileInfo.length());
         } catch (Exception t) {
             failStoreIfCorrupted(store, t);
-            snapshotStatus.addProcessedFile(0);
+            context.status().addProcessedFile(0);
             throw t;
         }
     }
 
+    /**
+     * Uploads the parts of the given file using the calling thread and up to {@link #MAX_CONCURRENT_PART_UPLOADS_SETTING} - 1 extra
+     * workers on the snapshot pool, each of which claims the next part that nobody is uploading yet until all parts are claimed. Workers
+     * that only start once all parts are claimed do nothing, so the calling thread only ever waits for parts that another running worker
+     * is uploading and never for a task that is still queued on the snapshot pool. Each part computes the checksum of its own bytes as it
+     * is uploaded, and these checksums are combined to verify the whole file once all parts are uploaded.
+     */
+    private void snapshotFilePartsConcurrently(SnapshotShardContext context, FileInfo fileInfo, BlobContainer shardContainer)
+        throws IOException {
+        final String file = fileInfo.physicalName();
+        final int numberOfParts = fileInfo.numberOfParts();
+        final AtomicInteger nextPart = new AtomicInteger();
+        final AtomicReference<Exception> failure = new AtomicReference<>();
+        final CountDownLatch partsDone = new CountDownLatch(numberOfParts);
+        final IndexInput[] partInputs = new IndexInput[numberOfParts];
+        final Runnable uploadParts = () -> {
+            int part;
+            while ((part = nextPart.getAndIncrement()) < numberOfParts) {
+                try {
+                    // no point in uploading the remaining parts once one of them failed, but they must still be counted down
+                    if (failure.get() == null) {
+                        try (
+                            IndexInput indexInput = context.store()
+                                .openVerifyingInput(file, IOContext.READONCE, fileInfo.metadata(), part * fileInfo.partBytes(0))
+                        ) {
+                            snapshotFilePart(context, fileInfo, shardContainer, indexInput, part);
+                            // published to the calling thread by counting down partsDone
+                            partInputs[part] = indexInput;
+                        }
+                    }
+                } catch (Exception e) {
+                    if (failure.compareAndSet(null, e) == false) {
+                        failure.get().addSuppressed(e);
+                    }
+                } finally {
+                    partsDone.countDown();
+                }
+            }
+        };
+        for (int i = 1; i < Math.min(numberOfParts, maxConcurrentPartUploads); i++) {
+            partUploadRunner.enqueueTask(ActionListener.wrap(ref -> {
+                try (ref) {
+                    uploadParts.run();
+                }
+            }, e -> logger.debug(() -> format("[%s] failed to start uploading parts of [%s]", metadata.name(), file), e)));
+        }
+        uploadParts.run();
+        try {
+            partsDone.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while waiting for the parts of [" + file + "] to be uploaded", e);
+        }
+        final Exception e = failure.get();
+        if (e instanceof IOException ioException) {
+            throw ioException;
+        } else if (e instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        } else if (e != null) {
+            throw new IOException(e);
+        }
+        Store.verifyParts(fileInfo.metadata(), Arrays.asList(partInputs));
+    }
+
+    private void snapshotFilePart(
+        SnapshotShardContext context,
+        FileInfo fileInfo,
+        BlobContainer shardContainer,
+        IndexInput indexInput,
+        int part
+    ) throws IOException {
+        final ShardId shardId = context.store().shardId();
+        final SnapshotId snapshotId = context.snapshotId();
+        final IndexShardSnapshotStatus snapshotStatus = context.status();
+        final long partBytes = fileInfo.partBytes(part);
+
+        // Make reads abortable by mutating the snapshotStatus object
+        final InputStream inputStream = new FilterInputStream(maybeRateLimitSnapshots(new InputStreamIndexInput(indexInput, partBytes))) {
+            @Override
+            public int read() throws IOException {
+                checkAborted();
+                return super.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                checkAborted();
+                return super.read(b, off, len);
+            }
+
+            private void checkAborted() {
+                ensureNotAborted(shardId, snapshotId, snapshotStatus, fileInfo.physicalName());
+            }
+        };
+        final String partName = fileInfo.partName(part);
+        logger.trace("[{}] Writing [{}] to [{}]", metadata.name(), partName, shardContainer.path());
+        final long startMS = threadPool.relativeTimeInMillis();
+        shardContainer.writeBlob(OperationPurpose.SNAPSHOT_DATA, partName, inputStream, partBytes, false);
+        logger.trace(
+            "[{}] Writing [{}] of size [{}b] to [{}] took [{}ms]",
+            metadata.name(),
+            partName,
+            partBytes,
+            shardContainer.path(),
+            threadPool.relativeTimeInMillis() - startMS
+        );
+    }
+
     private static void failStoreIfCorrupted(Store store, Exception e) {
         if (Lucene.isCorruptionException(e)) {
             try {
@@ -40,12 +40,16 @@ public class RestChunkedToXContentListener<Response extends ChunkedToXContent> e
         channel.sendResponse(
             RestResponse.chunked(
                 getRestStatus(response),
-                ChunkedRestResponseBody.fromXContent(response, params, channel),
+                ChunkedRestResponseBody.fromXContent(contentFromResponse(response), params, channel),
                 releasableFromResponse(response)
             )
         );
     }
 
+    protected ChunkedToXContent contentFromResponse(Response response) {
+        return response;
+    }
+
     protected Releasable releasableFromResponse(Response response) {
         return null;
     }
@@ -30,6 +30,7 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 public final class SearchHits implements Writeable, ChunkedToXContent, RefCounted, Iterable<SearchHit> {
 
@@ -49,6 +50,14 @@ public final class SearchHits implements Writeable, ChunkedToXContent, RefCounte
 
     private final RefCounted refCounted;
 
+    /**
+     * Marks the hits that were already released by {@link #toXContentChunkedReleasingHits}, so that each hit is released exactly once even
+     * if {@link #deallocate()} runs on another thread while the hits are still being rendered. {@code null} unless these hits are rendered
+     * with {@link #toXContentChunkedReleasingHits}.
+     */
+    @Nullable
+    private volatile AtomicIntegerArray releasedHits;
+
     public static SearchHits empty(@Nullable TotalHits totalHits, float maxScore) {
         return new SearchHits(EMPTY, totalHits, maxScore);
     }
@@ -251,6 +260,14 @@ public final class SearchHits implements Writeable, ChunkedToXContent, RefCounte
     }
 
     private void deallocate() {
+        final AtomicIntegerArray released = releasedHits;
+        if (released != null) {
+            // the hits may still be rendered concurrently so leave them in place and only release those that rendering did not release
+            for (int i = 0; i < hits.length; i++) {
+                releaseHit(released, i);
+            }
+            return;
+        }
         for (int i = 0; i < hits.length; i++) {
             assert hits[i] != null;
             hits[i].decRef();
@@ -258,6 +275,12 @@ public final class SearchHits implements Writeable, ChunkedToXContent, RefCounte
         }
     }
 
+    private void releaseHit(AtomicIntegerArray released, int index) {
+        if (released.compareAndSet(index, 0, 1)) {
+            hits[index].decRef();
+        }
+    }
+
     @Override
     public boolean hasReferences() {
         return refCounted.hasReferences();
@@ -283,6 +306,31 @@ public final class SearchHits implements Writeable, ChunkedToXContent, RefCounte
 
     @Override
     public Iterator<? extends ToXContent> toXContentChunked(ToXContent.Params params) {
+        return toXContentChunked(params, Iterators.forArray(hits));
+    }
+
+    /**
+     * Like {@link #toXContentChunked(ToXContent.Params)} but releases each pooled hit as soon as it has been rendered rather than when
+     * these hits are released, so that a response with many hits does not hold on to all of them until it has been written out
+     * completely. A hit cannot be used once it has been rendered, so this must only be called by the last holder of these hits, and
+     * only once. Each hit is released exactly once, whether by rendering it or by releasing these hits.
+     */
+    public Iterator<? extends ToXContent> toXContentChunkedReleasingHits(ToXContent.Params params) {
+        if (isPooled() == false) {
+            return toXContentChunked(params, Iterators.forArray(hits));
+        }
+        assert hasReferences();
+        assert releasedHits == null : "hits must only be rendered once while releasing them";
+        final AtomicIntegerArray released = new AtomicIntegerArray(hits.length);
+        releasedHits = released;
+        return toXContentChunked(params, Iterators.forRange(0, hits.length, i -> (b, p) -> {
+            hits[i].toXContent(b, p);
+            releaseHit(released, i);
+            return b;
+        }));
+    }
+
+    private Iterator<? extends ToXContent> toXContentChunked(ToXContent.Params params, Iterator<? extends ToXContent> hitsIterator) {
         assert hasReferences();
         return Iterators.concat(Iterators.single((b, p) -> b.startObject(Fields.HITS)), Iterators.single((b, p) -> {
             boolean totalHitAsInt = params.paramAsBoolean(RestSearchAction.TOTAL_HITS_AS_INT_PARAM, false);
@@ -303,7 +351,7 @@ public final class SearchHits implements Writeable, ChunkedToXContent, RefCounte
                 b.field(Fields.MAX_SCORE, maxScore);
             }
             return b;
-        }), ChunkedToXContentHelper.array(Fields.HITS, Iterators.forArray(hits)), ChunkedToXContentHelper.endObject());
+        }), ChunkedToXContentHelper.array(Fields.HITS, hitsIterator), ChunkedToXContentHelper.endObject());
     }
 
     @Override
@@ -0,0 +1,65 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.search.internal;
+
+import org.elasticsearch.TransportVersion;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/**
+ * Holds the serialized form of a {@link SearchSourceBuilder} that is shared by all the {@link ShardSearchRequest}s of a single search,
+ * so that the coordinating node serializes it once per transport version rather than once per shard-level request. The source must not
+ * be modified after the first shard-level request is sent.
+ */
+public final class SearchSourceBytesCache {
+
+    private final SearchSourceBuilder source;
+    private final Map<TransportVersion, BytesReference> serializedSources = ConcurrentCollections.newConcurrentMap();
+
+    public SearchSourceBytesCache(SearchSourceBuilder source) {
+        this.source = source;
+    }
+
+    /**
+     * The source whose serialized form this cache holds.
+     */
+    public SearchSourceBuilder source() {
+        return source;
+    }
+
+    /**
+     * Writes the serialized source to the given stream, exactly as {@link SearchSourceBuilder#writeTo} would.
+     */
+    public void writeTo(StreamOutput out) throws IOException {
+        final BytesReference bytes;
+        try {
+            bytes = serializedSources.computeIfAbsent(out.getTransportVersion(), this::serialize);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        bytes.writeTo(out);
+    }
+
+    private BytesReference serialize(TransportVersion transportVersion) {
+        try (BytesStreamOutput out = new BytesStreamOutput()) {
+            out.setTransportVersion(transportVersion);
+            source.writeTo(out);
+            return out.bytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -89,6 +89,9 @@ public class ShardSearchRequest extends TransportRequest implements IndicesReque
     // these are the only mutable fields, as they are subject to rewriting
     private AliasFilter aliasFilter;
     private SearchSourceBuilder source;
+    // not serialized, only used on the coordinating node to avoid serializing the same source for every shard
+    @Nullable
+    private SearchSourceBytesCache sourceBytesCache;
     private final ShardSearchContextId readerId;
     private final TimeValue keepAlive;
 
@@ -358,7 +361,12 @@ public class ShardSearchRequest extends TransportRequest implements IndicesReque
             out.writeVInt(numberOfShards);
         }
         out.writeOptionalWriteable(scroll);
-        out.writeOptionalWriteable(source);
+        if (asKey == false && source != null && sourceBytesCache != null && sourceBytesCache.source() == source) {
+            out.writeBoolean(true);
+            sourceBytesCache.writeTo(out);
+        } else {
+            out.writeOptionalWriteable(source);
+        }
         if (out.getTransportVersion().onOrAfter(TransportVersions.V_8_8_0) && out.getTransportVersion().before(TransportVersions.V_8_9_X)) {
             // to serialize between the 8.8 and 8.500.020 version we need to translate
             // the sub searches into rank queries if we are ranking, otherwise, we
@@ -445,6 +453,14 @@ public class ShardSearchRequest extends TransportRequest implements IndicesReque
         this.source = source;
     }
 
+    /**
+     * Sets a cache of the serialized form of the search source which is shared with the other shard-level requests of the same
+     * search. It is only used if the source of this request is still the cached one when the request is serialized.
+     */
+    public void sourceBytesCache(@Nullable SearchSourceBytesCache sourceBytesCache) {
+        this.sourceBytesCache = sourceBytesCache;
+    }
+
     /**
      * Returns the shard request ordinal that is used by the main search request
      * to reference this shard.
@@ -146,6 +146,8 @@ public final class SnapshotsService extends AbstractLifecycleComponent implement
 
     public static final IndexVersion FILE_INFO_WRITER_UUIDS_IN_SHARD_DATA_VERSION = IndexVersions.V_7_16_0;
 
+    public static final IndexVersion CONTENT_ADDRESSED_DATA_VERSION = IndexVersions.CONTENT_ADDRESSED_SNAPSHOT_DATA;
+
     public static final IndexVersion OLD_SNAPSHOT_FORMAT = IndexVersions.V_7_5_0;
 
     public static final String POLICY_ID_METADATA_FIELD = "policy";
@@ -2320,6 +2322,17 @@ public final class SnapshotsService extends AbstractLifecycleComponent implement
         return repositoryMetaVersion.onOrAfter(FILE_INFO_WRITER_UUIDS_IN_SHARD_DATA_VERSION);
     }
 
+    /**
+     * Checks whether the metadata version supports writing shard data to the content-addressed data container of the repository, see
+     * {@link org.elasticsearch.repositories.blobstore.BlobStoreRepository#CONTENT_ADDRESSED_DATA_SETTING}.
+     *
+     * @param repositoryMetaVersion version to check
+     * @return true if version supports content-addressed shard data
+     */
+    public static boolean useContentAddressedData(IndexVersion repositoryMetaVersion) {
+        return repositoryMetaVersion.onOrAfter(CONTENT_ADDRESSED_DATA_VERSION);
+    }
+
     /** Deletes snapshot from repository
      *
      * @param deleteEntry       delete entry in cluster state
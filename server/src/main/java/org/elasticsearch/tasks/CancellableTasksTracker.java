@@ -8,13 +8,16 @@
 
 package org.elasticsearch.tasks;
 
+import org.elasticsearch.common.collect.Iterators;
 import org.elasticsearch.common.util.ArrayUtils;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 
 import java.lang.reflect.Array;
+import java.util.AbstractCollection;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -27,7 +30,7 @@ public class CancellableTasksTracker<T> {
 
     public CancellableTasksTracker() {}
 
-    private final Map<Long, T> byTaskId = ConcurrentCollections.newConcurrentMapWithAggressiveConcurrency();
+    private final Map<Long, TrackedItem<T>> byTaskId = ConcurrentCollections.newConcurrentMapWithAggressiveConcurrency();
     private final Map<TaskId, Map<Long, T[]>> byParentTaskId = ConcurrentCollections.newConcurrentMapWithAggressiveConcurrency();
 
     /**
@@ -71,15 +74,22 @@ public class CancellableTasksTracker<T> {
                 return oldRequestIdMap;
             });
         }
-        final T oldItem = byTaskId.put(taskId, item);
+        final TrackedItem<T> oldItem = byTaskId.put(taskId, new TrackedItem<>(item, requestId));
         assert oldItem == null : "duplicate entry for task [" + taskId + "]";
     }
 
+    /**
+     * An item together with the request ID it was added with, so that removing it does not need to look through every request ID of its
+     * parent.
+     */
+    private record TrackedItem<T>(T item, long requestId) {}
+
     /**
      * Get the item that corresponds with the given task, or {@code null} if there is no such item.
      */
     public T get(long id) {
-        return byTaskId.get(id);
+        final TrackedItem<T> trackedItem = byTaskId.get(id);
+        return trackedItem == null ? null : trackedItem.item();
     }
 
     /**
@@ -89,38 +99,40 @@ public class CancellableTasksTracker<T> {
      */
     public T remove(Task task) {
         final long taskId = task.getId();
-        final T oldItem = byTaskId.remove(taskId);
-        if (oldItem != null && task.getParentTaskId().isSet()) {
+        final TrackedItem<T> trackedItem = byTaskId.remove(taskId);
+        if (trackedItem == null) {
+            return null;
+        }
+        final T oldItem = trackedItem.item();
+        if (task.getParentTaskId().isSet()) {
             byParentTaskId.compute(task.getParentTaskId(), (taskKey, oldRequestIdMap) -> {
                 if (oldRequestIdMap == null) {
                     return null;
                 }
 
-                for (Long requestId : oldRequestIdMap.keySet()) {
-                    oldRequestIdMap.compute(requestId, (requestIdKey, oldValue) -> {
-                        if (oldValue == null) {
-                            return null;
-                        }
-                        if (oldValue.length == 1) {
-                            if (oldValue[0] == oldItem) {
-                                return null;
-                            } else {
-                                return oldValue;
-                            }
-                        }
+                oldRequestIdMap.compute(trackedItem.requestId(), (requestIdKey, oldValue) -> {
+                    if (oldValue == null) {
+                        return null;
+                    }
+                    if (oldValue.length == 1) {
                         if (oldValue[0] == oldItem) {
-                            return Arrays.copyOfRange(oldValue, 1, oldValue.length);
+                            return null;
+                        } else {
+                            return oldValue;
                         }
-                        for (int i = 1; i < oldValue.length; i++) {
-                            if (oldValue[i] == oldItem) {
-                                final T[] newValue = Arrays.copyOf(oldValue, oldValue.length - 1);
-                                System.arraycopy(oldValue, i + 1, newValue, i, oldValue.length - i - 1);
-                                return newValue;
-                            }
+                    }
+                    if (oldValue[0] == oldItem) {
+                        return Arrays.copyOfRange(oldValue, 1, oldValue.length);
+                    }
+                    for (int i = 1; i < oldValue.length; i++) {
+                        if (oldValue[i] == oldItem) {
+                            final T[] newValue = Arrays.copyOf(oldValue, oldValue.length - 1);
+                            System.arraycopy(oldValue, i + 1, newValue, i, oldValue.length - i - 1);
+                            return newValue;
                         }
-                        return oldValue;
-                    });
-                }
+                    }
+                    return oldValue;
+                });
 
                 if (oldRequestIdMap.keySet().isEmpty()) {
                     return null;
@@ -137,7 +149,18 @@ public class CancellableTasksTracker<T> {
      * it behaves similarly to {@link ConcurrentHashMap#values()}.
      */
     public Collection<T> values() {
-        return byTaskId.values();
+        final Collection<TrackedItem<T>> trackedItems = byTaskId.values();
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<T> iterator() {
+                return Iterators.map(trackedItems.iterator(), TrackedItem::item);
+            }
+
+            @Override
+            public int size() {
+                return trackedItems.size();
+            }
+        };
     }
 
     /**
@@ -159,7 +182,7 @@ public class CancellableTasksTracker<T> {
         assert byTaskId.isEmpty() == false || byParentTaskId.isEmpty();
 
         // every by-parent value must be tracked by task too; the converse isn't true since we don't track values without a parent
-        final Set<T> byTaskValues = new HashSet<>(byTaskId.values());
+        final Set<T> byTaskValues = new HashSet<>(values());
         byParentTaskId.values().forEach(byParentMap -> {
             byParentMap.forEach((requestId, byParentArray) -> {
                 assert byParentArray.length > 0;
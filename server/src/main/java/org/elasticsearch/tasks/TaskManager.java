@@ -123,7 +123,8 @@ public class TaskManager implements ClusterStateApplier {
      * tracing a task.
      */
     public Task register(String type, String action, TaskAwareRequest request, boolean traceRequest) {
-        Map<String, String> headers = new HashMap<>();
+        // most requests carry none of the task headers so only allocate a map for them if needed
+        Map<String, String> headers = Map.of();
         long headerSize = 0;
         long maxSize = maxHeaderSize.getBytes();
         ThreadContext threadContext = threadPool.getThreadContext();
@@ -137,6 +138,9 @@ public class TaskManager implements ClusterStateApplier {
                 if (headerSize > maxSize) {
                     throw new IllegalArgumentException("Request exceeded the maximum size of task headers " + maxHeaderSize);
                 }
+                if (headers.isEmpty()) {
+                    headers = new HashMap<>();
+                }
                 headers.put(key, httpHeader);
             }
         }
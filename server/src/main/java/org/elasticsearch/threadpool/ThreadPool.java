@@ -24,6 +24,7 @@ import org.elasticsearch.common.util.concurrent.EsExecutors.TaskTrackingConfig;
 import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
 import org.elasticsearch.common.util.concurrent.EsRejectedExecutionHandler;
 import org.elasticsearch.common.util.concurrent.EsThreadPoolExecutor;
+import org.elasticsearch.common.util.concurrent.TaskExecutionTimeTrackingEsThreadPoolExecutor;
 import org.elasticsearch.common.util.concurrent.ThreadContext;
 import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.TimeValue;
@@ -117,6 +118,8 @@ public class ThreadPool implements ReportingService<ThreadPoolInfo>, Scheduler {
     public static final String THREAD_POOL_METRIC_NAME_ACTIVE = ".threads.active.current";
     public static final String THREAD_POOL_METRIC_NAME_LARGEST = ".threads.largest.current";
     public static final String THREAD_POOL_METRIC_NAME_REJECTED = ".threads.rejected.total";
+    public static final String THREAD_POOL_METRIC_NAME_QUEUE_LATENCY = ".threads.queue.latency.histogram";
+    public static final String THREAD_POOL_METRIC_NAME_EXECUTION_TIME = ".threads.execution.time.histogram";
 
     public enum ThreadPoolType {
         @Deprecated(forRemoval = true)
@@ -429,6 +432,14 @@ public class ThreadPool implements ReportingService<ThreadPoolInfo>, Scheduler {
             if (rejectedExecutionHandler instanceof EsRejectedExecutionHandler handler) {
                 handler.registerCounter(meterRegistry, prefix + THREAD_POOL_METRIC_NAME_REJECTED, name);
             }
+            if (threadPoolExecutor instanceof TaskExecutionTimeTrackingEsThreadPoolExecutor timeTrackingExecutor) {
+                timeTrackingExecutor.registerHistograms(
+                    meterRegistry,
+                    prefix + THREAD_POOL_METRIC_NAME_QUEUE_LATENCY,
+                    prefix + THREAD_POOL_METRIC_NAME_EXECUTION_TIME,
+                    name
+                );
+            }
         }
         return instruments;
     }
@@ -478,6 +489,15 @@ public class ThreadPool implements ReportingService<ThreadPoolInfo>, Scheduler {
         return TimeValue.nsecToMSec(System.nanoTime());
     }
 
+    /**
+     * Returns a value of nanoseconds that may be used for relative time calculations. Similar to {@link #relativeTimeInNanos()} except
+     * that this method is more expensive: the return value is computed directly from {@link System#nanoTime} and is not cached. You should
+     * use {@link #relativeTimeInNanos()} unless the extra accuracy offered by this method is worth the costs.
+     */
+    public long rawRelativeTimeInNanos() {
+        return System.nanoTime();
+    }
+
     /**
      * Returns the value of milliseconds since UNIX epoch.
      *
@@ -18,6 +18,7 @@ import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.core.Booleans;
 import org.elasticsearch.lz4.ESLZ4Compressor;
 import org.elasticsearch.lz4.ESLZ4Decompressor;
+import org.elasticsearch.nativeaccess.NativeAccess;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -26,14 +27,21 @@ public class Compression {
 
     public enum Scheme {
         LZ4,
-        DEFLATE;
+        DEFLATE,
+        ZSTD;
 
         static final TransportVersion LZ4_VERSION = TransportVersions.V_7_14_0;
+        static final TransportVersion ZSTD_VERSION = TransportVersions.TRANSPORT_COMPRESSION_ZSTD;
         static final int HEADER_LENGTH = 4;
         private static final byte[] DEFLATE_HEADER = new byte[] { 'D', 'F', 'L', '\0' };
         private static final byte[] LZ4_HEADER = new byte[] { 'L', 'Z', '4', '\0' };
+        private static final byte[] ZSTD_HEADER = new byte[] { 'Z', 'S', 'T', '\0' };
         private static final int LZ4_BLOCK_SIZE;
         private static final boolean USE_FORKED_LZ4;
+        static final int ZSTD_BLOCK_SIZE = 256 * 1024;
+        // the maximum size of a compressed block, per ZSTD_COMPRESSBOUND in zstd.h which adds no extra margin for inputs of 128kB or more
+        static final int ZSTD_MAX_COMPRESSED_BLOCK_SIZE = ZSTD_BLOCK_SIZE + (ZSTD_BLOCK_SIZE >>> 8);
+        private static final int ZSTD_LEVEL;
 
         static {
             String blockSizeString = System.getProperty("es.transport.compression.lz4_block_size");
@@ -48,6 +56,17 @@ public class Compression {
             }
 
             USE_FORKED_LZ4 = Booleans.parseBoolean(System.getProperty("es.compression.use_forked_lz4", "true"));
+
+            String zstdLevelString = System.getProperty("es.transport.compression.zstd_level");
+            if (zstdLevelString != null) {
+                int zstdLevel = Integer.parseInt(zstdLevelString);
+                if (zstdLevel < 1 || zstdLevel > 19) {
+                    throw new IllegalArgumentException("zstd_level must be >= 1 and <= 19");
+                }
+                ZSTD_LEVEL = zstdLevel;
+            } else {
+                ZSTD_LEVEL = 3;
+            }
         }
 
         public static boolean isDeflate(BytesReference bytes) {
@@ -68,6 +87,15 @@ public class Compression {
             }
         }
 
+        public static boolean isZstd(BytesReference bytes) {
+            byte firstByte = bytes.get(0);
+            if (firstByte != Scheme.ZSTD_HEADER[0]) {
+                return false;
+            } else {
+                return validateHeader(bytes, ZSTD_HEADER);
+            }
+        }
+
         private static boolean validateHeader(BytesReference bytes, byte[] header) {
             for (int i = 1; i < Compression.Scheme.HEADER_LENGTH; ++i) {
                 if (bytes.get(i) != header[i]) {
@@ -95,6 +123,24 @@ public class Compression {
             }
             return new ReuseBuffersLZ4BlockOutputStream(outputStream, LZ4_BLOCK_SIZE, lz4Compressor);
         }
+
+        public static OutputStream zstdOutputStream(OutputStream outputStream) throws IOException {
+            outputStream.write(ZSTD_HEADER);
+            return new ZstdBlockOutputStream(outputStream, ZSTD_BLOCK_SIZE, ZSTD_LEVEL);
+        }
+
+        /**
+         * Returns whether the native zstd library is available on this node, which is required to send messages compressed with
+         * {@link #ZSTD}.
+         */
+        public static boolean isZstdAvailable() {
+            return ZstdHolder.ZSTD_AVAILABLE;
+        }
+
+        private static final class ZstdHolder {
+            // resolved lazily so that nodes without native access only warn about it if zstd compression is configured
+            static final boolean ZSTD_AVAILABLE = NativeAccess.instance().getZstd() != null;
+        }
     }
 
     public enum Enabled {
@@ -54,6 +54,12 @@ public abstract class NetworkMessage {
     }
 
     private static Compression.Scheme adjustedScheme(TransportVersion version, Compression.Scheme compressionScheme) {
+        if (compressionScheme == Compression.Scheme.ZSTD
+            && (version.before(Compression.Scheme.ZSTD_VERSION) || Compression.Scheme.isZstdAvailable() == false)) {
+            // fall back to the default scheme if the remote node's version cannot decompress zstd or we cannot compress it; the transport
+            // also falls back on connections to nodes which said in the handshake that they cannot decompress it
+            compressionScheme = Compression.Scheme.LZ4;
+        }
         return compressionScheme == Compression.Scheme.LZ4 && version.before(Compression.Scheme.LZ4_VERSION) ? null : compressionScheme;
     }
 }
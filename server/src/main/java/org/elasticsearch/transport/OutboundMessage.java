@@ -56,6 +56,8 @@ abstract class OutboundMessage extends NetworkMessage {
         final boolean compress = TransportStatus.isCompress(status);
         final StreamOutput stream = compress ? wrapCompressed(bytesStream) : bytesStream;
         final BytesReference zeroCopyBuffer;
+        // position in the serialized message at which the zero-copy buffer goes, or -1 if it goes at the end
+        long zeroCopyBufferPosition = -1;
         try {
             stream.setTransportVersion(version);
             if (variableHeaderLength == -1) {
@@ -64,6 +66,11 @@ abstract class OutboundMessage extends NetworkMessage {
             if (message instanceof BytesTransportRequest bRequest) {
                 bRequest.writeThin(stream);
                 zeroCopyBuffer = bRequest.bytes;
+            } else if (compress == false && message instanceof ZeroCopyTransportRequest zeroCopyRequest) {
+                zeroCopyRequest.writeToBeforeZeroCopyBytes(stream);
+                zeroCopyBufferPosition = bytesStream.position();
+                zeroCopyBuffer = zeroCopyRequest.zeroCopyBytes();
+                zeroCopyRequest.writeToAfterZeroCopyBytes(stream);
             } else if (message instanceof RemoteTransportException) {
                 stream.writeException((RemoteTransportException) message);
                 zeroCopyBuffer = BytesArray.EMPTY;
@@ -81,8 +88,15 @@ abstract class OutboundMessage extends NetworkMessage {
         final BytesReference message = bytesStream.bytes();
         if (zeroCopyBuffer.length() == 0) {
             reference = message;
-        } else {
+        } else if (zeroCopyBufferPosition == -1) {
             reference = CompositeBytesReference.of(message, zeroCopyBuffer);
+        } else {
+            final int position = Math.toIntExact(zeroCopyBufferPosition);
+            reference = CompositeBytesReference.of(
+                message.slice(0, position),
+                zeroCopyBuffer,
+                message.slice(position, message.length() - position)
+            );
         }
 
         bytesStream.seek(0);
@@ -100,6 +114,8 @@ abstract class OutboundMessage extends NetworkMessage {
             );
         } else if (compressionScheme == Compression.Scheme.LZ4) {
             return new OutputStreamStreamOutput(Compression.Scheme.lz4OutputStream(Streams.noCloseStream(bytesStream)));
+        } else if (compressionScheme == Compression.Scheme.ZSTD) {
+            return new OutputStreamStreamOutput(Compression.Scheme.zstdOutputStream(Streams.noCloseStream(bytesStream)));
         } else {
             throw new IllegalArgumentException("Invalid compression scheme: " + compressionScheme);
         }
@@ -243,12 +243,7 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
         private final Compression.Scheme compressionScheme;
         private final AtomicBoolean isClosing = new AtomicBoolean(false);
 
-        NodeChannels(
-            DiscoveryNode node,
-            List<TcpChannel> channels,
-            ConnectionProfile connectionProfile,
-            TransportVersion handshakeVersion
-        ) {
+        NodeChannels(DiscoveryNode node, List<TcpChannel> channels, ConnectionProfile connectionProfile, HandshakeResult handshakeResult) {
             this.node = node;
             this.channels = Collections.unmodifiableList(channels);
             assert channels.size() == connectionProfile.getNumConnections()
@@ -259,9 +254,14 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
                     typeMapping.put(type, handle);
                 }
             }
-            version = handshakeVersion;
+            version = handshakeResult.transportVersion();
             compress = connectionProfile.getCompressionEnabled();
-            compressionScheme = connectionProfile.getCompressionScheme();
+            if (connectionProfile.getCompressionScheme() == Compression.Scheme.ZSTD && handshakeResult.zstdAvailable() == false) {
+                // the remote node cannot decompress zstd, so fall back to the default scheme
+                compressionScheme = Compression.Scheme.LZ4;
+            } else {
+                compressionScheme = connectionProfile.getCompressionScheme();
+            }
         }
 
         @Override
@@ -946,11 +946,19 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
         }
     }
 
+    /**
+     * The outcome of a successful transport handshake with a remote node.
+     *
+     * @param transportVersion the transport version to use for all messages on the connection
+     * @param zstdAvailable    whether the remote node can decompress messages compressed with {@link Compression.Scheme#ZSTD}
+     */
+    public record HandshakeResult(TransportVersion transportVersion, boolean zstdAvailable) {}
+
     public void executeHandshake(
         DiscoveryNode node,
         TcpChannel channel,
         ConnectionProfile profile,
-        ActionListener<TransportVersion> listener
+        ActionListener<HandshakeResult> listener
     ) {
         long requestId = responseHandlers.newRequestId();
         handshaker.sendHandshake(requestId, node, channel, profile.getHandshakeTimeout(), listener);
@@ -1112,10 +1120,10 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
             if (countDown.countDown()) {
                 final TcpChannel handshakeChannel = channels.get(0);
                 try {
-                    executeHandshake(node, handshakeChannel, connectionProfile, ActionListener.wrap(responseVersion -> {
+                    executeHandshake(node, handshakeChannel, connectionProfile, ActionListener.wrap(handshakeResult -> {
                         final long connectionId = outboundConnectionCount.incrementAndGet();
                         logger.debug("opened transport connection [{}] to [{}] using channels [{}]", connectionId, node, channels);
-                        NodeChannels nodeChannels = new NodeChannels(node, channels, connectionProfile, responseVersion);
+                        NodeChannels nodeChannels = new NodeChannels(node, channels, connectionProfile, handshakeResult);
                         long relativeMillisTime = threadPool.relativeTimeInMillis();
                         nodeChannels.channels.forEach(ch -> {
                             // Mark the channel init time
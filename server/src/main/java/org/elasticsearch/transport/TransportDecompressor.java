@@ -73,6 +73,8 @@ public abstract class TransportDecompressor implements Releasable {
             return new DeflateTransportDecompressor(recycler);
         } else if (Compression.Scheme.isLZ4(bytes)) {
             return new Lz4TransportDecompressor(recycler);
+        } else if (Compression.Scheme.isZstd(bytes)) {
+            return new ZstdTransportDecompressor(recycler);
         } else {
             throw createIllegalState(bytes);
         }
@@ -17,6 +17,7 @@ import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.metrics.CounterMetric;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.threadpool.ThreadPool;
 
@@ -37,8 +38,8 @@ final class TransportHandshaker {
     /*
      * The transport-level handshake allows the node that opened the connection to determine the newest protocol version with which it can
      * communicate with the remote node. Each node sends its maximum acceptable protocol version to the other, but the responding node
-     * ignores the body of the request. After the handshake, the OutboundHandler uses the min(local,remote) protocol version for all later
-     * messages.
+     * only uses the body of the request to decide which optional fields to include in its response. After the handshake, the
+     * OutboundHandler uses the min(local,remote) protocol version for all later messages.
      *
      * This version supports two handshake protocols, v6080099 and v7170099, which respectively have the same message structure as the
      * transport protocols of v6.8.0 and v7.17.0. This node only sends v7170099 requests, but it can send a valid response to any v6080099
@@ -109,6 +110,9 @@ final class TransportHandshaker {
      *       00                         -- no response headers [1]
      *    c3 f9 eb 03                   -- max acceptable protocol version (vInt: 00000011 11101011 11111001 11000011 == 8060099)
      *
+     * Since {@link Compression.Scheme#ZSTD_VERSION}, if the version in the request body is also at least that version, the response body
+     * ends with a boolean which indicates whether the responding node can decompress messages compressed with zstd.
+     *
      * [1] Thread context headers should be empty; see org.elasticsearch.common.util.concurrent.ThreadContext.ThreadContextStruct.writeTo
      *     for their structure.
      * [2] A list of strings, which can safely be ignored
@@ -145,7 +149,7 @@ final class TransportHandshaker {
         DiscoveryNode node,
         TcpChannel channel,
         TimeValue timeout,
-        ActionListener<TransportVersion> listener
+        ActionListener<TcpTransport.HandshakeResult> listener
     ) {
         numHandshakes.inc();
         final HandshakeResponseHandler handler = new HandshakeResponseHandler(requestId, listener);
@@ -174,9 +178,10 @@ final class TransportHandshaker {
     }
 
     void handleHandshake(TransportChannel channel, long requestId, StreamInput stream) throws IOException {
+        final HandshakeRequest handshakeRequest;
         try {
             // Must read the handshake request to exhaust the stream
-            new HandshakeRequest(stream);
+            handshakeRequest = new HandshakeRequest(stream);
         } catch (Exception e) {
             assert ignoreDeserializationErrors : e;
             throw e;
@@ -195,7 +200,7 @@ final class TransportHandshaker {
             assert ignoreDeserializationErrors : exception;
             throw exception;
         }
-        channel.sendResponse(new HandshakeResponse(this.version));
+        channel.sendResponse(new HandshakeResponse(this.version, handshakeRequest.version, Compression.Scheme.isZstdAvailable()));
     }
 
     TransportResponseHandler<HandshakeResponse> removeHandlerForHandshake(long requestId) {
@@ -213,10 +218,10 @@ final class TransportHandshaker {
     private class HandshakeResponseHandler implements TransportResponseHandler<HandshakeResponse> {
 
         private final long requestId;
-        private final ActionListener<TransportVersion> listener;
+        private final ActionListener<TcpTransport.HandshakeResult> listener;
         private final AtomicBoolean isDone = new AtomicBoolean(false);
 
-        private HandshakeResponseHandler(long requestId, ActionListener<TransportVersion> listener) {
+        private HandshakeResponseHandler(long requestId, ActionListener<TcpTransport.HandshakeResult> listener) {
             this.requestId = requestId;
             this.listener = listener;
         }
@@ -246,7 +251,7 @@ final class TransportHandshaker {
                         )
                     );
                 } else {
-                    listener.onResponse(responseVersion);
+                    listener.onResponse(new TcpTransport.HandshakeResult(responseVersion, response.isZstdAvailable()));
                 }
             }
         }
@@ -305,25 +310,40 @@ final class TransportHandshaker {
     static final class HandshakeResponse extends TransportResponse {
 
         private final TransportVersion responseVersion;
+        @Nullable // only known on the responding node, and null if the request did not include a version
+        private final TransportVersion requestVersion;
+        private final boolean zstdAvailable;
 
-        HandshakeResponse(TransportVersion responseVersion) {
+        HandshakeResponse(TransportVersion responseVersion, @Nullable TransportVersion requestVersion, boolean zstdAvailable) {
             this.responseVersion = responseVersion;
+            this.requestVersion = requestVersion;
+            this.zstdAvailable = zstdAvailable;
         }
 
         private HandshakeResponse(StreamInput in) throws IOException {
             super(in);
             responseVersion = TransportVersion.readVersion(in);
+            requestVersion = null;
+            // the responding node only sends this flag if our version, which we sent in the request, supports it too
+            zstdAvailable = responseVersion.onOrAfter(Compression.Scheme.ZSTD_VERSION) && in.readBoolean();
         }
 
         @Override
         public void writeTo(StreamOutput out) throws IOException {
             assert responseVersion != null;
             TransportVersion.writeVersion(responseVersion, out);
+            if (requestVersion != null && requestVersion.onOrAfter(Compression.Scheme.ZSTD_VERSION)) {
+                out.writeBoolean(zstdAvailable);
+            }
         }
 
         TransportVersion getResponseVersion() {
             return responseVersion;
         }
+
+        boolean isZstdAvailable() {
+            return zstdAvailable;
+        }
     }
 
     @FunctionalInterface
@@ -0,0 +1,41 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.transport;
+
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.core.RefCounted;
+
+import java.io.IOException;
+
+/**
+ * A request that carries a large block of bytes, such as a chunk of a file, which the transport layer sends as-is rather than copying it
+ * into the buffer holding the rest of the serialized request. This only applies to uncompressed messages, compressed ones are serialized
+ * as usual. The request retains the bytes until it is released, so they stay valid until the message has been sent.
+ * <p>
+ * The usual serialization of the request must be equivalent to calling {@link #writeToBeforeZeroCopyBytes}, then writing the bytes of
+ * {@link #zeroCopyBytes}, and then calling {@link #writeToAfterZeroCopyBytes}.
+ */
+public interface ZeroCopyTransportRequest extends RefCounted {
+
+    /**
+     * Write the part of the request that precedes the zero-copy bytes, including any length prefix for them.
+     */
+    void writeToBeforeZeroCopyBytes(StreamOutput out) throws IOException;
+
+    /**
+     * The bytes to send without copying.
+     */
+    ReleasableBytesReference zeroCopyBytes();
+
+    /**
+     * Write the part of the request that follows the zero-copy bytes.
+     */
+    void writeToAfterZeroCopyBytes(StreamOutput out) throws IOException;
+}
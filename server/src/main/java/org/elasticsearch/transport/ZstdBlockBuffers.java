@@ -0,0 +1,88 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.transport;
+
+import org.elasticsearch.core.Releasable;
+import org.elasticsearch.nativeaccess.CloseableByteBuffer;
+import org.elasticsearch.nativeaccess.NativeAccess;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Native buffers for the uncompressed and compressed bytes of a single {@link Compression.Scheme#ZSTD} block. Each block is compressed or
+ * decompressed within a single call, which acquires a pair of buffers from a bounded pool and releases it once it is done, so that
+ * {@link ZstdBlockOutputStream} and {@link ZstdTransportDecompressor} do not allocate new native memory for every block. Native buffers
+ * are only freed when they are closed, not when they are garbage collected, so a pair that does not fit back into the pool is closed
+ * straight away. This bounds the native memory held by idle buffers, however many threads compress or decompress messages.
+ */
+final class ZstdBlockBuffers implements Releasable {
+
+    private static final BlockingQueue<ZstdBlockBuffers> POOL = new ArrayBlockingQueue<>(
+        Math.max(1, Runtime.getRuntime().availableProcessors())
+    );
+
+    private final CloseableByteBuffer uncompressed;
+    private final CloseableByteBuffer compressed;
+
+    private ZstdBlockBuffers() {
+        final NativeAccess nativeAccess = NativeAccess.instance();
+        uncompressed = nativeAccess.newBuffer(Compression.Scheme.ZSTD_BLOCK_SIZE);
+        try {
+            compressed = nativeAccess.newBuffer(Compression.Scheme.ZSTD_MAX_COMPRESSED_BLOCK_SIZE);
+        } catch (RuntimeException e) {
+            uncompressed.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return a pair of cleared buffers, which must be released by closing it once the current block is compressed or decompressed
+     */
+    static ZstdBlockBuffers acquire() {
+        ZstdBlockBuffers buffers = POOL.poll();
+        if (buffers == null) {
+            buffers = new ZstdBlockBuffers();
+        } else {
+            buffers.uncompressed.buffer().clear();
+            buffers.compressed.buffer().clear();
+        }
+        return buffers;
+    }
+
+    /**
+     * @return the buffer for up to {@link Compression.Scheme#ZSTD_BLOCK_SIZE} uncompressed bytes
+     */
+    CloseableByteBuffer uncompressed() {
+        return uncompressed;
+    }
+
+    /**
+     * @return the buffer for up to {@link Compression.Scheme#ZSTD_MAX_COMPRESSED_BLOCK_SIZE} compressed bytes
+     */
+    CloseableByteBuffer compressed() {
+        return compressed;
+    }
+
+    @Override
+    public void close() {
+        if (POOL.offer(this) == false) {
+            try {
+                uncompressed.close();
+            } finally {
+                compressed.close();
+            }
+        }
+    }
+
+    // visible for testing
+    static int pooledCount() {
+        return POOL.size();
+    }
+}
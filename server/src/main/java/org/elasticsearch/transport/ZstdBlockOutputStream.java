@@ -0,0 +1,125 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.transport;
+
+import org.elasticsearch.nativeaccess.CloseableByteBuffer;
+import org.elasticsearch.nativeaccess.NativeAccess;
+import org.elasticsearch.nativeaccess.Zstd;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Compresses the bytes written to it into blocks of at most {@code blockSize} uncompressed bytes using the native zstd library. Each block
+ * is written as its compressed length and its uncompressed length, both as big-endian ints, followed by the compressed bytes. See
+ * {@link ZstdTransportDecompressor} for the reading side.
+ */
+final class ZstdBlockOutputStream extends OutputStream {
+
+    static final int BLOCK_HEADER_LENGTH = 8;
+
+    private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[Compression.Scheme.ZSTD_BLOCK_SIZE]);
+
+    private final OutputStream out;
+    private final int level;
+    private final byte[] buffer;
+    private int count;
+    private boolean closed;
+
+    ZstdBlockOutputStream(OutputStream out, int blockSize, int level) {
+        assert blockSize <= Compression.Scheme.ZSTD_BLOCK_SIZE : blockSize;
+        this.out = out;
+        this.level = level;
+        byte[] buffer = BUFFER.get();
+        if (buffer.length != blockSize) {
+            buffer = new byte[blockSize];
+        }
+        this.buffer = buffer;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        buffer[count++] = (byte) b;
+        if (count == buffer.length) {
+            flushBlock();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            final int toCopy = Math.min(len, buffer.length - count);
+            System.arraycopy(b, off, buffer, count, toCopy);
+            count += toCopy;
+            off += toCopy;
+            len -= toCopy;
+            if (count == buffer.length) {
+                flushBlock();
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        flushBlock();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed == false) {
+            closed = true;
+            try {
+                flushBlock();
+            } finally {
+                out.close();
+            }
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("This output stream is closed");
+        }
+    }
+
+    private void flushBlock() throws IOException {
+        if (count == 0) {
+            return;
+        }
+        final Zstd zstd = NativeAccess.instance().getZstd();
+        try (ZstdBlockBuffers buffers = ZstdBlockBuffers.acquire()) {
+            final CloseableByteBuffer src = buffers.uncompressed();
+            final CloseableByteBuffer dest = buffers.compressed();
+            src.buffer().put(buffer, 0, count);
+            src.buffer().flip();
+            final int compressedLength = zstd.compress(dest, src, level);
+            writeInt(compressedLength);
+            writeInt(count);
+            // the uncompressed bytes are not needed anymore so we can reuse the buffer to copy the compressed bytes out of native memory
+            for (int written = 0; written < compressedLength;) {
+                final int toCopy = Math.min(buffer.length, compressedLength - written);
+                dest.buffer().get(written, buffer, 0, toCopy);
+                out.write(buffer, 0, toCopy);
+                written += toCopy;
+            }
+        }
+        count = 0;
+    }
+
+    private void writeInt(int i) throws IOException {
+        out.write(i >>> 24);
+        out.write(i >>> 16);
+        out.write(i >>> 8);
+        out.write(i);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.transport;
+
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.BytesRefIterator;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.recycler.Recycler;
+import org.elasticsearch.nativeaccess.CloseableByteBuffer;
+import org.elasticsearch.nativeaccess.NativeAccess;
+import org.elasticsearch.nativeaccess.Zstd;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Decompresses the blocks written by {@link ZstdBlockOutputStream} as they arrive, using the native zstd library.
+ */
+public class ZstdTransportDecompressor extends TransportDecompressor {
+
+    private enum State {
+        INIT_BLOCK,
+        DECOMPRESS_DATA,
+        CORRUPTED
+    }
+
+    private State currentState = State.INIT_BLOCK;
+
+    /**
+     * Compressed length of current incoming block.
+     */
+    private int compressedLength;
+
+    /**
+     * Decompressed length of current incoming block.
+     */
+    private int decompressedLength;
+
+    public ZstdTransportDecompressor(Recycler<BytesRef> recycler) {
+        super(recycler);
+    }
+
+    @Override
+    public Compression.Scheme getScheme() {
+        return Compression.Scheme.ZSTD;
+    }
+
+    @Override
+    public int decompress(BytesReference bytesReference) throws IOException {
+        int bytesConsumed = 0;
+        if (hasSkippedHeader == false) {
+            hasSkippedHeader = true;
+            int esHeaderLength = Compression.Scheme.HEADER_LENGTH;
+            bytesReference = bytesReference.slice(esHeaderLength, bytesReference.length() - esHeaderLength);
+            bytesConsumed += esHeaderLength;
+        }
+
+        while (true) {
+            int consumed = decodeBlock(bytesReference);
+            bytesConsumed += consumed;
+            int newLength = bytesReference.length() - consumed;
+            if (consumed > 0 && newLength > 0) {
+                bytesReference = bytesReference.slice(consumed, newLength);
+            } else {
+                break;
+            }
+        }
+
+        return bytesConsumed;
+    }
+
+    private int decodeBlock(BytesReference reference) throws IOException {
+        try {
+            switch (currentState) {
+                case INIT_BLOCK -> {
+                    if (reference.length() < ZstdBlockOutputStream.BLOCK_HEADER_LENGTH) {
+                        return 0;
+                    }
+                    final int compressedLength = reference.getInt(0);
+                    final int decompressedLength = reference.getInt(4);
+                    if (decompressedLength <= 0 || decompressedLength > Compression.Scheme.ZSTD_BLOCK_SIZE) {
+                        throw new IllegalStateException(
+                            String.format(
+                                Locale.ROOT,
+                                "invalid decompressedLength: %d (expected: 1-%d)",
+                                decompressedLength,
+                                Compression.Scheme.ZSTD_BLOCK_SIZE
+                            )
+                        );
+                    }
+                    if (compressedLength <= 0 || compressedLength > Compression.Scheme.ZSTD_MAX_COMPRESSED_BLOCK_SIZE) {
+                        throw new IllegalStateException(
+                            String.format(
+                                Locale.ROOT,
+                                "invalid compressedLength: %d (expected: 1-%d)",
+                                compressedLength,
+                                Compression.Scheme.ZSTD_MAX_COMPRESSED_BLOCK_SIZE
+                            )
+                        );
+                    }
+                    this.compressedLength = compressedLength;
+                    this.decompressedLength = decompressedLength;
+                    currentState = State.DECOMPRESS_DATA;
+                    return ZstdBlockOutputStream.BLOCK_HEADER_LENGTH;
+                }
+                case DECOMPRESS_DATA -> {
+                    if (reference.length() < compressedLength) {
+                        return 0;
+                    }
+                    decompressBlock(reference.slice(0, compressedLength));
+                    currentState = State.INIT_BLOCK;
+                    return compressedLength;
+                }
+                case CORRUPTED -> throw new IllegalStateException("zstd stream corrupted.");
+                default -> throw new IllegalStateException();
+            }
+        } catch (IOException | RuntimeException e) {
+            currentState = State.CORRUPTED;
+            throw e;
+        }
+    }
+
+    private void decompressBlock(BytesReference compressed) throws IOException {
+        final Zstd zstd = NativeAccess.instance().getZstd();
+        if (zstd == null) {
+            throw new IllegalStateException("received a zstd compressed message but native zstd is not available on this node");
+        }
+        try (ZstdBlockBuffers buffers = ZstdBlockBuffers.acquire()) {
+            final CloseableByteBuffer src = buffers.compressed();
+            final CloseableByteBuffer dest = buffers.uncompressed();
+            final BytesRefIterator iterator = compressed.iterator();
+            BytesRef ref;
+            while ((ref = iterator.next()) != null) {
+                src.buffer().put(ref.bytes, ref.offset, ref.length);
+            }
+            src.buffer().flip();
+
+            final int decompressed = zstd.decompress(dest, src);
+            if (decompressed != decompressedLength) {
+                throw new IllegalStateException(
+                    String.format(
+                        Locale.ROOT,
+                        "stream corrupted: expected %d decompressed bytes but got %d",
+                        decompressedLength,
+                        decompressed
+                    )
+                );
+            }
+
+            int bytesToCopy = decompressedLength;
+            int uncompressedOffset = 0;
+            while (bytesToCopy > 0) {
+                maybeAddNewPage();
+                final Recycler.V<BytesRef> page = pages.getLast();
+                int toCopy = Math.min(bytesToCopy, pageLength - pageOffset);
+                dest.buffer().get(uncompressedOffset, page.v().bytes, page.v().offset + pageOffset, toCopy);
+                pageOffset += toCopy;
+                bytesToCopy -= toCopy;
+                uncompressedOffset += toCopy;
+            }
+        }
+    }
+}
@@ -453,6 +453,7 @@ public class NodeStatsTests extends ESTestCase {
                         assertEquals(aStats.queueSize, bStats.queueSize, 0.01);
                         assertEquals(aStats.serviceTime, bStats.serviceTime, 0.01);
                         assertEquals(aStats.responseTime, bStats.responseTime, 0.01);
+                        assertEquals(aStats.inFlightAge, bStats.inFlightAge, 0.01);
                     });
                 }
                 var scriptCacheStats = nodeStats.getScriptCacheStats();
@@ -1009,7 +1010,8 @@ public class NodeStatsTests extends ESTestCase {
                         randomIntBetween(1, 10),
                         randomIntBetween(0, 2000),
                         randomDoubleBetween(1.0, 10000000.0, true),
-                        randomDoubleBetween(1.0, 10000000.0, true)
+                        randomDoubleBetween(1.0, 10000000.0, true),
+                        randomBoolean() ? 0.0 : randomDoubleBetween(1.0, 10000000.0, true)
                     );
                     nodeStats.put(nodeId, stats);
                 }
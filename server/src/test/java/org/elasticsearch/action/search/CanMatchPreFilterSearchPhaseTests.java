@@ -71,6 +71,7 @@ import java.util.stream.IntStream;
 
 import static org.elasticsearch.action.search.SearchAsyncActionTests.getShardsIter;
 import static org.elasticsearch.core.Types.forciblyCast;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.mockito.Mockito.mock;
@@ -535,6 +536,53 @@ public class CanMatchPreFilterSearchPhaseTests extends ESTestCase {
         );
     }
 
+    public void testCanMatchFilteringOnCoordinatorOnly() throws Exception {
+        Index dataStreamIndex1 = new Index(".ds-mydata0001", UUIDs.base64UUID());
+        Index dataStreamIndex2 = new Index(".ds-mydata0002", UUIDs.base64UUID());
+        DataStream dataStream = DataStreamTestHelper.newInstance("mydata", List.of(dataStreamIndex1, dataStreamIndex2));
+
+        List<Index> regularIndices = randomList(0, 2, () -> new Index(randomAlphaOfLength(10), UUIDs.base64UUID()));
+
+        long indexMinTimestamp = randomLongBetween(0, 5000);
+        long indexMaxTimestamp = randomLongBetween(indexMinTimestamp, 5000 * 2);
+        StaticCoordinatorRewriteContextProviderBuilder contextProviderBuilder = new StaticCoordinatorRewriteContextProviderBuilder();
+        contextProviderBuilder.addIndexMinMaxTimestamps(
+            dataStreamIndex1,
+            DataStream.TIMESTAMP_FIELD_NAME,
+            indexMinTimestamp,
+            indexMaxTimestamp
+        );
+        contextProviderBuilder.addIndexMinMaxTimestamps(
+            dataStreamIndex2,
+            DataStream.TIMESTAMP_FIELD_NAME,
+            indexMaxTimestamp + 1,
+            indexMaxTimestamp + 10
+        );
+
+        // We query a range covered by the second backing index only
+        RangeQueryBuilder rangeQueryBuilder = new RangeQueryBuilder(DataStream.TIMESTAMP_FIELD_NAME);
+        rangeQueryBuilder.from(indexMaxTimestamp + 2).to(indexMaxTimestamp + 3);
+
+        assignShardsAndExecuteCanMatchPhase(
+            List.of(dataStream),
+            regularIndices,
+            contextProviderBuilder.build(),
+            new BoolQueryBuilder().filter(rangeQueryBuilder),
+            List.of(),
+            null,
+            true,
+            (updatedSearchShardIterators, requests) -> {
+                // no can_match requests are sent to the shards
+                assertThat(requests, empty());
+
+                for (SearchShardIterator searchShardIterator : updatedSearchShardIterators) {
+                    final Index index = searchShardIterator.shardId().getIndex();
+                    assertThat(index.toString(), searchShardIterator.skip(), equalTo(index.equals(dataStreamIndex1)));
+                }
+            }
+        );
+    }
+
     public void testCanMatchFilteringOnCoordinatorParsingFails() throws Exception {
         Index dataStreamIndex1 = new Index(".ds-mydata0001", UUIDs.base64UUID());
         Index dataStreamIndex2 = new Index(".ds-mydata0002", UUIDs.base64UUID());
@@ -821,6 +869,28 @@ public class CanMatchPreFilterSearchPhaseTests extends ESTestCase {
         List<AggregationBuilder> aggregations,
         SuggestBuilder suggest,
         BiConsumer<List<SearchShardIterator>, List<ShardSearchRequest>> canMatchResultsConsumer
+    ) throws Exception {
+        assignShardsAndExecuteCanMatchPhase(
+            dataStreams,
+            regularIndices,
+            contextProvider,
+            query,
+            aggregations,
+            suggest,
+            false,
+            canMatchResultsConsumer
+        );
+    }
+
+    private void assignShardsAndExecuteCanMatchPhase(
+        List<DataStream> dataStreams,
+        List<Index> regularIndices,
+        CoordinatorRewriteContextProvider contextProvider,
+        QueryBuilder query,
+        List<AggregationBuilder> aggregations,
+        SuggestBuilder suggest,
+        boolean coordinatorRewriteOnly,
+        BiConsumer<List<SearchShardIterator>, List<ShardSearchRequest>> canMatchResultsConsumer
     ) throws Exception {
         Map<String, Transport.Connection> lookup = new ConcurrentHashMap<>();
         DiscoveryNode primaryNode = DiscoveryNodeUtils.create("node_1");
@@ -936,6 +1006,7 @@ public class CanMatchPreFilterSearchPhaseTests extends ESTestCase {
             timeProvider,
             null,
             true,
+            coordinatorRewriteOnly,
             contextProvider,
             ActionTestUtils.assertNoFailureListener(iter -> {
                 result.set(iter);
@@ -33,6 +33,7 @@ import org.elasticsearch.cluster.ClusterState;
 import org.elasticsearch.cluster.block.ClusterBlocks;
 import org.elasticsearch.cluster.metadata.IndexMetadata;
 import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
+import org.elasticsearch.cluster.metadata.Metadata;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.cluster.node.DiscoveryNodeUtils;
 import org.elasticsearch.cluster.node.VersionInformation;
@@ -54,12 +55,15 @@ import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.core.Tuple;
 import org.elasticsearch.index.Index;
 import org.elasticsearch.index.IndexNotFoundException;
+import org.elasticsearch.index.IndexVersion;
 import org.elasticsearch.index.query.InnerHitBuilder;
 import org.elasticsearch.index.query.MatchAllQueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.index.query.QueryRewriteContext;
 import org.elasticsearch.index.query.TermsQueryBuilder;
+import org.elasticsearch.index.shard.IndexLongFieldRange;
 import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.index.shard.ShardLongFieldRange;
 import org.elasticsearch.indices.EmptySystemIndices;
 import org.elasticsearch.indices.breaker.NoneCircuitBreakerService;
 import org.elasticsearch.rest.RestStatus;
@@ -1501,6 +1505,47 @@ public class TransportSearchActionTests extends ESTestCase {
         }
     }
 
+    public void testShouldPruneShardsOnCoordinator() {
+        final IndexMetadata withoutRange = IndexMetadata.builder("without-range")
+            .settings(indexSettings(IndexVersion.current(), 1, 0))
+            .build();
+        final IndexMetadata withRange = IndexMetadata.builder("with-range")
+            .settings(indexSettings(IndexVersion.current(), 1, 0))
+            .timestampRange(IndexLongFieldRange.NO_SHARDS.extendWithShardRange(0, 1, ShardLongFieldRange.of(0L, 1000L)))
+            .build();
+        final ClusterState clusterState = ClusterState.builder(ClusterName.DEFAULT)
+            .metadata(Metadata.builder().put(withoutRange, false).put(withRange, false))
+            .build();
+        final GroupShardsIterator<SearchShardIterator> withoutRangeShards = new GroupShardsIterator<>(
+            List.of(
+                new SearchShardIterator(null, new ShardId(withoutRange.getIndex(), 0), List.of(), OriginalIndices.NONE),
+                new SearchShardIterator(null, new ShardId(withoutRange.getIndex(), 1), List.of(), OriginalIndices.NONE)
+            )
+        );
+        final GroupShardsIterator<SearchShardIterator> mixedShards = new GroupShardsIterator<>(
+            List.of(
+                new SearchShardIterator(null, new ShardId(withoutRange.getIndex(), 0), List.of(), OriginalIndices.NONE),
+                new SearchShardIterator(null, new ShardId(withRange.getIndex(), 0), List.of(), OriginalIndices.NONE)
+            )
+        );
+        final GroupShardsIterator<SearchShardIterator> singleShard = new GroupShardsIterator<>(
+            List.of(new SearchShardIterator(null, new ShardId(withRange.getIndex(), 0), List.of(), OriginalIndices.NONE))
+        );
+
+        final SearchRequest rangeQueryRequest = new SearchRequest().source(
+            new SearchSourceBuilder().query(QueryBuilders.rangeQuery("@timestamp").from(2000L))
+        );
+        assertTrue(TransportSearchAction.shouldPruneShardsOnCoordinator(clusterState, rangeQueryRequest, mixedShards));
+        assertFalse(TransportSearchAction.shouldPruneShardsOnCoordinator(clusterState, rangeQueryRequest, withoutRangeShards));
+        assertFalse(TransportSearchAction.shouldPruneShardsOnCoordinator(clusterState, rangeQueryRequest, singleShard));
+        assertFalse(TransportSearchAction.shouldPruneShardsOnCoordinator(clusterState, new SearchRequest(), mixedShards));
+
+        final SearchRequest dfsRequest = new SearchRequest().source(
+            new SearchSourceBuilder().query(QueryBuilders.rangeQuery("@timestamp").from(2000L))
+        ).searchType(SearchType.DFS_QUERY_THEN_FETCH);
+        assertFalse(TransportSearchAction.shouldPruneShardsOnCoordinator(clusterState, dfsRequest, mixedShards));
+    }
+
     public void testShouldPreFilterSearchShardsWithReadOnly() {
         int numIndices = randomIntBetween(2, 10);
         int numReadOnly = randomIntBetween(1, numIndices);
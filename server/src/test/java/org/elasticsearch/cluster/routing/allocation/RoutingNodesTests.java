@@ -46,6 +46,7 @@ import static org.elasticsearch.cluster.routing.ShardRoutingState.STARTED;
 import static org.elasticsearch.cluster.routing.TestShardRouting.shardRoutingBuilder;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.oneOf;
 
 public class RoutingNodesTests extends ESAllocationTestCase {
@@ -457,6 +458,11 @@ public class RoutingNodesTests extends ESAllocationTestCase {
         assertThat(routingNodes.node("node-2").getByShardId(shardId).state(), equalTo(STARTED));
         assertThat(routingNodes.node("node-3").getByShardId(shardId).state(), equalTo(INITIALIZING));
         assertThat(routingNodes.unassigned().ignored(), empty());
+
+        // the mutable copy shares its lists of assigned shards with the original until they change, which must not affect the original
+        assertThat(routingNodes.assignedShards(shardId), hasSize(3));
+        assertThat(clusterState.getRoutingNodes().assignedShards(shardId), hasSize(2));
+        assertTrue(clusterState.getRoutingNodes().assignedShards(shardId).stream().allMatch(ShardRouting::started));
     }
 
     private boolean assertShardStats(RoutingNodes routingNodes) {
@@ -50,6 +50,9 @@ import org.elasticsearch.core.Tuple;
 import org.elasticsearch.node.Node;
 import org.elasticsearch.tasks.Task;
 import org.elasticsearch.tasks.TaskManager;
+import org.elasticsearch.telemetry.InstrumentType;
+import org.elasticsearch.telemetry.RecordingMeterRegistry;
+import org.elasticsearch.telemetry.metric.MeterRegistry;
 import org.elasticsearch.test.ClusterServiceUtils;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.test.MockLogAppender;
@@ -139,11 +142,23 @@ public class MasterServiceTests extends ESTestCase {
         TaskManager taskManager,
         ThreadPool threadPool,
         ExecutorService threadPoolExecutor
+    ) {
+        return createMasterService(makeMaster, taskManager, threadPool, threadPoolExecutor, Settings.EMPTY, MeterRegistry.NOOP);
+    }
+
+    private MasterService createMasterService(
+        boolean makeMaster,
+        TaskManager taskManager,
+        ThreadPool threadPool,
+        ExecutorService threadPoolExecutor,
+        Settings extraSettings,
+        MeterRegistry meterRegistry
     ) {
         final DiscoveryNode localNode = DiscoveryNodeUtils.builder("node1").roles(emptySet()).build();
         final Settings settings = Settings.builder()
             .put(ClusterName.CLUSTER_NAME_SETTING.getKey(), MasterServiceTests.class.getSimpleName())
             .put(Node.NODE_NAME_SETTING.getKey(), "test_node")
+            .put(extraSettings)
             .build();
 
         if (taskManager == null) {
@@ -154,7 +169,8 @@ public class MasterServiceTests extends ESTestCase {
             settings,
             new ClusterSettings(Settings.EMPTY, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS),
             threadPool,
-            taskManager
+            taskManager,
+            meterRegistry
         ) {
             @Override
             protected ExecutorService createThreadPoolExecutor() {
@@ -2605,6 +2621,86 @@ public class MasterServiceTests extends ESTestCase {
         }
     }
 
+    public void testMaxTasksPerBatch() {
+        final var deterministicTaskQueue = new DeterministicTaskQueue();
+        final var threadPool = deterministicTaskQueue.getThreadPool();
+        final var maxTasksPerBatch = between(1, 5);
+        final var meterRegistry = new RecordingMeterRegistry();
+        try (
+            var masterService = createMasterService(
+                true,
+                null,
+                threadPool,
+                new StoppableExecutorServiceWrapper(threadPool.generic()),
+                Settings.builder().put(MasterService.MASTER_SERVICE_MAX_TASKS_PER_BATCH_SETTING.getKey(), maxTasksPerBatch).build(),
+                meterRegistry
+            )
+        ) {
+            final var executedBatches = new ArrayList<Tuple<String, Integer>>();
+            final var unexecutedTaskCount = new AtomicInteger();
+
+            class TestTask extends ExpectSuccessTask {}
+
+            class Executor implements ClusterStateTaskExecutor<TestTask> {
+                private final String queueName;
+
+                Executor(String queueName) {
+                    this.queueName = queueName;
+                }
+
+                @Override
+                public ClusterState execute(BatchExecutionContext<TestTask> batchExecutionContext) {
+                    executedBatches.add(Tuple.tuple(queueName, batchExecutionContext.taskContexts().size()));
+                    // the tasks left over from a capped batch remain visible, and are counted only once, while this batch executes
+                    assertEquals(unexecutedTaskCount.get(), masterService.numberOfPendingTasks());
+                    assertEquals(unexecutedTaskCount.get(), masterService.pendingTasks().size());
+                    unexecutedTaskCount.addAndGet(-batchExecutionContext.taskContexts().size());
+                    for (final var taskContext : batchExecutionContext.taskContexts()) {
+                        taskContext.success(() -> {});
+                    }
+                    return batchExecutionContext.initialState();
+                }
+            }
+
+            final var busyQueue = masterService.createTaskQueue("busy", Priority.NORMAL, new Executor("busy"));
+            final var otherQueue = masterService.createTaskQueue("other", Priority.NORMAL, new Executor("other"));
+
+            final var busyTaskCount = between(maxTasksPerBatch + 1, 3 * maxTasksPerBatch);
+            for (int i = 0; i < busyTaskCount; i++) {
+                busyQueue.submitTask("busy-" + i, new TestTask(), null);
+            }
+            otherQueue.submitTask("other", new TestTask(), null);
+            unexecutedTaskCount.set(busyTaskCount + 1);
+            assertEquals(busyTaskCount + 1, masterService.numberOfPendingTasks());
+
+            threadPool.getThreadContext().markAsSystemContext();
+            deterministicTaskQueue.runAllTasks();
+
+            // the busy queue is split into capped batches, and the other queue runs after the first of them rather than waiting for all
+            assertThat(executedBatches.size(), greaterThanOrEqualTo(3));
+            assertEquals(Tuple.tuple("busy", maxTasksPerBatch), executedBatches.get(0));
+            assertEquals(Tuple.tuple("other", 1), executedBatches.get(1));
+            assertEquals(
+                busyTaskCount,
+                executedBatches.stream().filter(t -> t.v1().equals("busy")).mapToInt(t -> {
+                    assertThat(t.v2(), lessThanOrEqualTo(maxTasksPerBatch));
+                    return t.v2();
+                }).sum()
+            );
+
+            assertThat(
+                meterRegistry.getRecorder()
+                    .getMeasurements(InstrumentType.LONG_HISTOGRAM, MasterService.TASK_QUEUE_WAIT_TIME_HISTOGRAM_NAME),
+                hasSize(busyTaskCount + 1)
+            );
+            assertThat(
+                meterRegistry.getRecorder()
+                    .getMeasurements(InstrumentType.LONG_HISTOGRAM, MasterService.TASK_QUEUE_EXECUTION_TIME_HISTOGRAM_NAME),
+                hasSize(executedBatches.size())
+            );
+        }
+    }
+
     /**
      * Returns the cluster state that the master service uses (and that is provided by the discovery layer)
      */
@@ -10,8 +10,12 @@ package org.elasticsearch.common.util.concurrent;
 
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.util.concurrent.EsExecutors.TaskTrackingConfig;
+import org.elasticsearch.telemetry.InstrumentType;
+import org.elasticsearch.telemetry.Measurement;
+import org.elasticsearch.telemetry.RecordingMeterRegistry;
 import org.elasticsearch.test.ESTestCase;
 
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
@@ -20,6 +24,7 @@ import static org.elasticsearch.common.util.concurrent.EsExecutors.TaskTrackingC
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasSize;
 
 /**
  * Tests for the automatic queue resizing of the {@code QueueResizingEsThreadPoolExecutorTests}
@@ -146,6 +151,47 @@ public class TaskExecutionTimeTrackingEsThreadPoolExecutorTests extends ESTestCa
         executor.awaitTermination(10, TimeUnit.SECONDS);
     }
 
+    public void testQueueLatencyAndExecutionTimeHistograms() throws Exception {
+        ThreadContext context = new ThreadContext(Settings.EMPTY);
+        TaskExecutionTimeTrackingEsThreadPoolExecutor executor = new TaskExecutionTimeTrackingEsThreadPoolExecutor(
+            "test-threadpool",
+            1,
+            1,
+            1000,
+            TimeUnit.MILLISECONDS,
+            ConcurrentCollections.newBlockingQueue(),
+            settableWrapper(TimeUnit.MILLISECONDS.toNanos(5)),
+            EsExecutors.daemonThreadFactory("queuetest"),
+            new EsAbortPolicy(),
+            context,
+            new TaskTrackingConfig(randomBoolean(), DEFAULT_EWMA_ALPHA)
+        );
+        RecordingMeterRegistry meterRegistry = new RecordingMeterRegistry();
+        String queueLatencyMetricName = "es.thread_pool.test.threads.queue.latency.histogram";
+        String executionTimeMetricName = "es.thread_pool.test.threads.execution.time.histogram";
+        executor.registerHistograms(meterRegistry, queueLatencyMetricName, executionTimeMetricName, "test");
+        executor.prestartAllCoreThreads();
+
+        int taskCount = randomIntBetween(1, 100);
+        executeTask(executor, taskCount);
+        assertBusy(() -> assertThat(executor.getCompletedTaskCount(), equalTo((long) taskCount)));
+
+        List<Measurement> queueLatencies = meterRegistry.getRecorder()
+            .getMeasurements(InstrumentType.LONG_HISTOGRAM, queueLatencyMetricName);
+        assertThat(queueLatencies, hasSize(taskCount));
+        for (Measurement measurement : queueLatencies) {
+            assertThat(measurement.getLong(), greaterThanOrEqualTo(0L));
+        }
+        List<Measurement> executionTimes = meterRegistry.getRecorder()
+            .getMeasurements(InstrumentType.LONG_HISTOGRAM, executionTimeMetricName);
+        assertThat(executionTimes, hasSize(taskCount));
+        for (Measurement measurement : executionTimes) {
+            assertThat(measurement.getLong(), equalTo(5L));
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
     /**
      * The returned function outputs a WrappedRunnabled that simulates the case
      * where {@link TimedRunnable#getTotalExecutionNanos()} always returns {@code timeTakenNanos}.
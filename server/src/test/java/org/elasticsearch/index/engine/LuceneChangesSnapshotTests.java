@@ -32,6 +32,8 @@ import java.util.function.LongSupplier;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
 
 public class LuceneChangesSnapshotTests extends EngineTestCase {
 
@@ -441,6 +443,50 @@ public class LuceneChangesSnapshotTests extends EngineTestCase {
         }
     }
 
+    public void testServeRecentOperationsFromBuffer() throws Exception {
+        final int bufferSize = between(1, 50);
+        final IndexSettings indexSettings = IndexSettingsModule.newIndexSettings(
+            "test",
+            Settings.builder()
+                .put(indexSettings())
+                .put(IndexSettings.INDEX_RECENT_OPERATIONS_BUFFER_SIZE_SETTING.getKey(), bufferSize)
+                .build()
+        );
+        try (Store store = createStore(); InternalEngine engine = createEngine(indexSettings, store, createTempDir(), newMergePolicy())) {
+            final int numOps = between(bufferSize, 2 * bufferSize);
+            for (int i = 0; i < numOps; i++) {
+                final ParsedDocument doc = createParsedDoc(Integer.toString(between(0, numOps)), null);
+                if (randomBoolean()) {
+                    engine.index(indexForDoc(doc));
+                } else {
+                    engine.delete(new Engine.Delete(doc.id(), newUid(doc.id()), primaryTerm.get()));
+                }
+            }
+            final List<Translog.Operation> luceneOps = readAllOperationsInLucene(engine);
+            assertThat(luceneOps, hasSize(numOps));
+
+            final int fromSeqNo = between(numOps - bufferSize, numOps - 1);
+            final boolean requiredFullRange = randomBoolean();
+            // peer recoveries and resyncs ask for all operations from a given seq_no onwards without requiring the full range
+            final long toSeqNo = requiredFullRange ? between(fromSeqNo, numOps - 1) : randomFrom(numOps - 1L, Long.MAX_VALUE);
+            final int expectedOps = Math.toIntExact(Math.min(toSeqNo, numOps - 1) - fromSeqNo + 1);
+            try (
+                Translog.Snapshot snapshot = engine.newChangesSnapshot("test", fromSeqNo, toSeqNo, requiredFullRange, randomBoolean(), true)
+            ) {
+                assertThat(snapshot, not(instanceOf(LuceneChangesSnapshot.class)));
+                assertThat(snapshot.totalOperations(), equalTo(expectedOps));
+                final List<Translog.Operation> bufferedOps = drainAll(snapshot);
+                assertThat(bufferedOps, hasSize(expectedOps));
+                for (int i = 0; i < bufferedOps.size(); i++) {
+                    final Translog.Operation luceneOp = luceneOps.get(fromSeqNo + i);
+                    assertThat(bufferedOps.get(i).seqNo(), equalTo(luceneOp.seqNo()));
+                    assertThat(bufferedOps.get(i).primaryTerm(), equalTo(luceneOp.primaryTerm()));
+                    assertThat(bufferedOps.get(i).opType(), equalTo(luceneOp.opType()));
+                }
+            }
+        }
+    }
+
     private List<Translog.Operation> drainAll(Translog.Snapshot snapshot) throws IOException {
         List<Translog.Operation> operations = new ArrayList<>();
         Translog.Operation op;
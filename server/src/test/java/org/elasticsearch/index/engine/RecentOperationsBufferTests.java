@@ -0,0 +1,158 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.index.engine;
+
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.index.translog.Translog;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class RecentOperationsBufferTests extends ESTestCase {
+
+    public void testServesFullyBufferedRanges() throws IOException {
+        final int capacity = between(1, 100);
+        final RecentOperationsBuffer buffer = new RecentOperationsBuffer(capacity, Long.MAX_VALUE);
+        final int numOps = between(capacity, 3 * capacity);
+        final List<Translog.Operation> operations = new ArrayList<>();
+        for (int seqNo = 0; seqNo < numOps; seqNo++) {
+            operations.add(randomOperation(seqNo, 1));
+        }
+        // operations are processed concurrently, so they may be added out of order
+        for (Translog.Operation operation : shuffledList(operations)) {
+            buffer.add(operation);
+        }
+        final int fromSeqNo = between(numOps - capacity, numOps - 1);
+        final int toSeqNo = between(fromSeqNo, numOps - 1);
+        try (Translog.Snapshot snapshot = buffer.newSnapshot(fromSeqNo, toSeqNo, randomBoolean(), seqNo -> true)) {
+            assertThat(snapshot, notNullValue());
+            assertThat(snapshot.totalOperations(), equalTo(toSeqNo - fromSeqNo + 1));
+            assertThat(drain(snapshot), equalTo(operations.subList(fromSeqNo, toSeqNo + 1)));
+        }
+    }
+
+    public void testDoesNotServeIncompleteRanges() {
+        final int capacity = between(2, 100);
+        final RecentOperationsBuffer buffer = new RecentOperationsBuffer(capacity, Long.MAX_VALUE);
+        final int numOps = between(capacity + 1, 3 * capacity);
+        final int missingSeqNo = between(numOps - capacity, numOps - 1);
+        for (int seqNo = 0; seqNo < numOps; seqNo++) {
+            if (seqNo != missingSeqNo) {
+                buffer.add(randomOperation(seqNo, 1));
+            }
+        }
+        // the range contains an operation that was not buffered although it was processed
+        final int fromSeqNo = between(numOps - capacity, missingSeqNo);
+        final int toSeqNo = between(missingSeqNo, numOps - 1);
+        assertThat(buffer.newSnapshot(fromSeqNo, toSeqNo, randomBoolean(), seqNo -> true), nullValue());
+        // the range contains an operation that is still in flight but the full range is required
+        assertThat(buffer.newSnapshot(fromSeqNo, toSeqNo, true, seqNo -> seqNo != missingSeqNo), nullValue());
+        // the range contains operations that were already evicted
+        final int evictedSeqNo = between(0, numOps - capacity - 1);
+        assertThat(buffer.newSnapshot(evictedSeqNo, evictedSeqNo, randomBoolean(), seqNo -> true), nullValue());
+        // the range is larger than the buffer
+        assertThat(buffer.newSnapshot(0, Long.MAX_VALUE, randomBoolean(), seqNo -> true), nullValue());
+    }
+
+    public void testSkipsOperationsInFlightIfFullRangeIsNotRequired() throws IOException {
+        final int capacity = between(2, 100);
+        final RecentOperationsBuffer buffer = new RecentOperationsBuffer(capacity, Long.MAX_VALUE);
+        final int numOps = between(2, capacity);
+        final int inFlightSeqNo = between(0, numOps - 1);
+        final List<Translog.Operation> operations = new ArrayList<>();
+        for (int seqNo = 0; seqNo < numOps; seqNo++) {
+            final Translog.Operation operation = randomOperation(seqNo, 1);
+            if (seqNo != inFlightSeqNo) {
+                buffer.add(operation);
+                operations.add(operation);
+            }
+        }
+        try (Translog.Snapshot snapshot = buffer.newSnapshot(0, numOps - 1, false, seqNo -> seqNo != inFlightSeqNo)) {
+            assertThat(snapshot, notNullValue());
+            assertThat(snapshot.totalOperations(), equalTo(numOps - 1));
+            assertThat(drain(snapshot), equalTo(operations));
+        }
+    }
+
+    public void testBoundsBufferedBytes() {
+        final Translog.Operation first = randomOperation(0, 1);
+        final Translog.Operation second = randomOperation(1, 1);
+        final RecentOperationsBuffer buffer = new RecentOperationsBuffer(between(2, 10), first.estimateSize());
+        buffer.add(first);
+        assertThat(buffer.bufferedBytes(), equalTo(first.estimateSize()));
+        buffer.add(second);
+        assertThat(buffer.bufferedBytes(), equalTo(first.estimateSize()));
+        assertThat(buffer.newSnapshot(1, 1, randomBoolean(), seqNo -> true), nullValue());
+
+        // an operation that does not fit still evicts the older operation in its slot
+        final RecentOperationsBuffer singleSlotBuffer = new RecentOperationsBuffer(1, first.estimateSize());
+        singleSlotBuffer.add(first);
+        singleSlotBuffer.add(new Translog.Index("id", 1, 1, 1, new BytesArray(new byte[Math.toIntExact(first.estimateSize())]), null, -1));
+        assertThat(singleSlotBuffer.bufferedBytes(), equalTo(0L));
+        assertThat(singleSlotBuffer.newSnapshot(0, 0, randomBoolean(), seqNo -> true), nullValue());
+    }
+
+    public void testKeepsOperationWithHighestPrimaryTerm() throws IOException {
+        final RecentOperationsBuffer buffer = new RecentOperationsBuffer(between(1, 10), Long.MAX_VALUE);
+        final Translog.Operation stale = randomOperation(0, 1);
+        final Translog.Operation current = randomOperation(0, 2);
+        buffer.add(current);
+        buffer.add(stale);
+        try (Translog.Snapshot snapshot = buffer.newSnapshot(0, 0, true, seqNo -> true)) {
+            assertThat(drain(snapshot), equalTo(List.of(current)));
+        }
+    }
+
+    public void testCopiesSource() throws IOException {
+        final byte[] source = randomByteArrayOfLength(between(1, 100));
+        final Translog.Index index = new Translog.Index("id", 0, 1, 1, new BytesArray(source), null, randomNonNegativeLong());
+        final RecentOperationsBuffer buffer = new RecentOperationsBuffer(1, Long.MAX_VALUE);
+        buffer.add(index);
+        try (Translog.Snapshot snapshot = buffer.newSnapshot(0, 0, true, seqNo -> true)) {
+            final Translog.Index buffered = (Translog.Index) snapshot.next();
+            assertThat(buffered.source(), equalTo(index.source()));
+            assertThat(buffered.source().toBytesRef().bytes, not(sameInstance(source)));
+            // Lucene does not retain the auto-generated id timestamp, so the buffer must not either
+            assertThat(buffered.getAutoGeneratedIdTimestamp(), equalTo(-1L));
+        }
+    }
+
+    private static Translog.Operation randomOperation(long seqNo, long primaryTerm) {
+        return switch (between(0, 2)) {
+            case 0 -> new Translog.Index(
+                randomAlphaOfLength(10),
+                seqNo,
+                primaryTerm,
+                randomNonNegativeLong(),
+                new BytesArray(randomByteArrayOfLength(between(1, 100))),
+                randomBoolean() ? null : randomAlphaOfLength(5),
+                -1
+            );
+            case 1 -> new Translog.Delete(randomAlphaOfLength(10), seqNo, primaryTerm, randomNonNegativeLong());
+            default -> new Translog.NoOp(seqNo, primaryTerm, randomAlphaOfLength(10));
+        };
+    }
+
+    private static List<Translog.Operation> drain(Translog.Snapshot snapshot) throws IOException {
+        final List<Translog.Operation> operations = new ArrayList<>();
+        Translog.Operation operation;
+        while ((operation = snapshot.next()) != null) {
+            operations.add(operation);
+        }
+        return operations;
+    }
+}
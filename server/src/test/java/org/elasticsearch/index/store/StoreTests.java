@@ -86,6 +86,7 @@ import java.util.Random;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.LongUnaryOperator;
+import java.util.zip.CRC32;
 
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
@@ -359,6 +360,65 @@ public class StoreTests extends ESTestCase {
         IOUtils.close(dir);
     }
 
+    public void testCrc32Combine() {
+        final byte[] bytes = randomByteArrayOfLength(between(0, 1024));
+        final int split = between(0, bytes.length);
+        final CRC32 crc1 = new CRC32();
+        crc1.update(bytes, 0, split);
+        final CRC32 crc2 = new CRC32();
+        crc2.update(bytes, split, bytes.length - split);
+        final CRC32 crc = new CRC32();
+        crc.update(bytes);
+        assertThat(Store.crc32Combine(crc1.getValue(), crc2.getValue(), bytes.length - split), equalTo(crc.getValue()));
+    }
+
+    public void testVerifyParts() throws IOException {
+        Directory dir = newDirectory();
+        IndexOutput output = dir.createOutput("foo.bar", IOContext.DEFAULT);
+        int iters = scaledRandomIntBetween(10, 100);
+        for (int i = 0; i < iters; i++) {
+            BytesRef bytesRef = new BytesRef(TestUtil.randomRealisticUnicodeString(random(), 10, 1024));
+            output.writeBytes(bytesRef.bytes, bytesRef.offset, bytesRef.length);
+        }
+        CodecUtil.writeFooter(output);
+        output.close();
+        final StoreFileMetadata metadata;
+        try (IndexInput indexInput = dir.openInput("foo.bar", IOContext.DEFAULT)) {
+            metadata = new StoreFileMetadata(
+                "foo.bar",
+                indexInput.length(),
+                Store.digestToString(CodecUtil.retrieveChecksum(indexInput)),
+                MIN_SUPPORTED_LUCENE_VERSION.toString()
+            );
+        }
+
+        final boolean corrupt = randomBoolean();
+        if (corrupt) {
+            corruptFile(dir, "foo.bar", "foo1.bar");
+        }
+        final String fileName = corrupt ? "foo1.bar" : "foo.bar";
+        final ShardId shardId = new ShardId("index", "_na_", 1);
+        final Store store = new Store(shardId, INDEX_SETTINGS, dir, new DummyShardLock(shardId));
+        // split the file at random positions, which may be within the stored checksum at the end of the file
+        final long partBytes = between(1, Math.toIntExact(metadata.length()));
+        final List<IndexInput> parts = new ArrayList<>();
+        for (long position = 0; position < metadata.length(); position += partBytes) {
+            try (IndexInput part = store.openVerifyingInput(fileName, IOContext.DEFAULT, metadata, position)) {
+                final byte[] buffer = new byte[Math.toIntExact(Math.min(partBytes, metadata.length() - position))];
+                part.readBytes(buffer, 0, buffer.length);
+                parts.add(part);
+            }
+        }
+        if (corrupt) {
+            expectThrows(CorruptIndexException.class, () -> Store.verifyParts(metadata, parts));
+        } else {
+            Store.verifyParts(metadata, parts);
+        }
+        // a missing part is detected as well
+        expectThrows(CorruptIndexException.class, () -> Store.verifyParts(metadata, parts.subList(0, parts.size() - 1)));
+        store.close();
+    }
+
     private void readIndexInputFullyWithRandomSeeks(IndexInput indexInput) throws IOException {
         BytesRef ref = new BytesRef(scaledRandomIntBetween(1, 1024));
         long pos = 0;
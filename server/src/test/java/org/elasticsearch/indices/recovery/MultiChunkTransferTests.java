@@ -0,0 +1,185 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.indices.recovery;
+
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.support.PlainActionFuture;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.ThreadContext;
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.test.ESTestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class MultiChunkTransferTests extends ESTestCase {
+
+    private static final long ROUND_TRIP_TIME_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    public void testFixedNumberOfRequestsInFlight() {
+        final int maxConcurrentChunks = between(1, 8);
+        final TestTransfer transfer = new TestTransfer(maxConcurrentChunks, between(50, 100), null);
+        transfer.start();
+        while (transfer.inFlight.isEmpty() == false) {
+            assertThat(transfer.inFlight.size(), equalTo(Math.min(maxConcurrentChunks, transfer.remaining + transfer.inFlight.size())));
+            transfer.completeRoundTrip();
+        }
+        assertTrue(transfer.future.isDone());
+        assertThat(transfer.congestionWindow(), equalTo(maxConcurrentChunks));
+    }
+
+    public void testAdaptiveWindowGrowsWithoutQueueing() {
+        final AtomicLong clock = new AtomicLong();
+        final int maxConcurrentChunks = between(2, 8);
+        final TestTransfer transfer = new TestTransfer(maxConcurrentChunks, 100, clock::get);
+        transfer.start();
+        // slow start: the first round trip has a single request in flight
+        assertThat(transfer.inFlight.size(), equalTo(1));
+        while (transfer.inFlight.isEmpty() == false) {
+            assertThat(transfer.inFlight.size(), lessThanOrEqualTo(transfer.congestionWindow()));
+            clock.addAndGet(ROUND_TRIP_TIME_NANOS);
+            transfer.completeRoundTrip();
+        }
+        assertTrue(transfer.future.isDone());
+        assertThat(transfer.congestionWindow(), equalTo(maxConcurrentChunks));
+    }
+
+    public void testAdaptiveWindowShrinksWhenRequestsQueue() {
+        final AtomicLong clock = new AtomicLong();
+        final TestTransfer transfer = new TestTransfer(8, 1000, clock::get);
+        transfer.start();
+        while (transfer.congestionWindow() < 8) {
+            clock.addAndGet(ROUND_TRIP_TIME_NANOS);
+            transfer.completeRoundTrip();
+        }
+        // fill the window
+        clock.addAndGet(ROUND_TRIP_TIME_NANOS);
+        transfer.completeRoundTrip();
+        assertThat(transfer.inFlight.size(), equalTo(8));
+
+        // all responses of this round trip are delayed, but the window is only halved once
+        clock.addAndGet(10 * ROUND_TRIP_TIME_NANOS);
+        transfer.completeRoundTrip();
+        assertThat(transfer.congestionWindow(), equalTo(4));
+
+        // without slow start the window now grows by at most one request per round trip
+        clock.addAndGet(ROUND_TRIP_TIME_NANOS);
+        transfer.completeRoundTrip();
+        assertThat(transfer.congestionWindow(), lessThanOrEqualTo(5));
+
+        while (transfer.inFlight.isEmpty() == false) {
+            clock.addAndGet(ROUND_TRIP_TIME_NANOS);
+            transfer.completeRoundTrip();
+        }
+        assertTrue(transfer.future.isDone());
+    }
+
+    public void testRoundTripTimeExcludesThrottling() {
+        final AtomicLong clock = new AtomicLong();
+        final TestTransfer transfer = new TestTransfer(1, between(10, 100), clock::get);
+        // the request is throttled for longer than its round trip before it is sent
+        transfer.beforeSend = () -> clock.addAndGet(between(1, 10) * ROUND_TRIP_TIME_NANOS);
+        transfer.start();
+        while (transfer.inFlight.isEmpty() == false) {
+            clock.addAndGet(ROUND_TRIP_TIME_NANOS);
+            transfer.completeRoundTrip();
+        }
+        assertTrue(transfer.future.isDone());
+        assertThat(transfer.minRoundTripTimeNanos(), equalTo(ROUND_TRIP_TIME_NANOS));
+    }
+
+    public void testUnsampledRequestsDoNotShrinkWindow() {
+        final AtomicLong clock = new AtomicLong();
+        final int maxConcurrentChunks = between(2, 8);
+        final TestTransfer transfer = new TestTransfer(maxConcurrentChunks, 100, clock::get);
+        transfer.sampleRoundTripTimes = false;
+        transfer.start();
+        while (transfer.inFlight.isEmpty() == false) {
+            clock.addAndGet(between(1, 10) * ROUND_TRIP_TIME_NANOS);
+            transfer.completeRoundTrip();
+        }
+        assertTrue(transfer.future.isDone());
+        assertThat(transfer.congestionWindow(), equalTo(maxConcurrentChunks));
+        assertThat(transfer.minRoundTripTimeNanos(), equalTo(Long.MAX_VALUE));
+    }
+
+    private record TestChunk() implements MultiChunkTransfer.ChunkRequest {
+        @Override
+        public boolean lastChunk() {
+            return true;
+        }
+    }
+
+    private class TestTransfer extends MultiChunkTransfer<Integer, TestChunk> {
+
+        final PlainActionFuture<Void> future;
+        final List<ActionListener<Void>> inFlight = new ArrayList<>();
+        int remaining;
+        boolean sampleRoundTripTimes = true;
+        Runnable beforeSend = () -> {};
+
+        TestTransfer(int maxConcurrentChunks, int numberOfChunks, @Nullable LongSupplier relativeTimeInNanosSupplier) {
+            this(new PlainActionFuture<>(), maxConcurrentChunks, numberOfChunks, relativeTimeInNanosSupplier);
+        }
+
+        private TestTransfer(
+            PlainActionFuture<Void> future,
+            int maxConcurrentChunks,
+            int numberOfChunks,
+            @Nullable LongSupplier relativeTimeInNanosSupplier
+        ) {
+            super(
+                logger,
+                new ThreadContext(Settings.EMPTY),
+                future,
+                maxConcurrentChunks,
+                IntStream.range(0, numberOfChunks).boxed().toList(),
+                relativeTimeInNanosSupplier
+            );
+            this.future = future;
+            this.remaining = numberOfChunks;
+        }
+
+        void completeRoundTrip() {
+            final List<ActionListener<Void>> responses = List.copyOf(inFlight);
+            inFlight.clear();
+            responses.forEach(l -> l.onResponse(null));
+        }
+
+        @Override
+        protected TestChunk nextChunkRequest(Integer resource) {
+            return new TestChunk();
+        }
+
+        @Override
+        protected boolean sampleRoundTripTime(TestChunk request) {
+            return sampleRoundTripTimes;
+        }
+
+        @Override
+        protected void executeChunkRequest(TestChunk request, ActionListener<Void> listener) {
+            beforeSend.run();
+            remaining -= 1;
+            inFlight.add(listener);
+        }
+
+        @Override
+        protected void handleError(Integer resource, Exception e) {}
+
+        @Override
+        public void close() {}
+    }
+}
@@ -1196,7 +1196,20 @@ public class RecoverySourceHandlerTests extends MapperServiceTestCase {
             when(shard.store()).thenReturn(store);
             when(shard.state()).thenReturn(IndexShardState.STARTED);
 
-            final ShardRecoveryPlan shardRecoveryPlan = createShardRecoveryPlan(store, randomIntBetween(10, 20), randomIntBetween(10, 20));
+            final ShardRecoveryPlan plan = createShardRecoveryPlan(store, randomIntBetween(10, 20), randomIntBetween(10, 20));
+            // the local files are sent either after or while the target recovers the snapshot files
+            final ShardRecoveryPlan shardRecoveryPlan = randomBoolean()
+                ? plan
+                : new ShardRecoveryPlan(
+                    plan.getSnapshotFilesToRecover(),
+                    plan.getSourceFilesToRecover(),
+                    plan.getFilesPresentInTarget(),
+                    plan.getStartingSeqNo(),
+                    plan.getTranslogOps(),
+                    plan.getSourceMetadataSnapshot(),
+                    null,
+                    true
+                );
 
             final ShardRecoveryPlan.SnapshotFilesToRecover snapshotFilesToRecover = shardRecoveryPlan.getSnapshotFilesToRecover();
             final List<String> fileNamesToBeRecoveredFromSnapshot = snapshotFilesToRecover.snapshotFiles()
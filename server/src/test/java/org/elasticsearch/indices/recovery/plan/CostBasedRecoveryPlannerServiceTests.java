@@ -0,0 +1,146 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.indices.recovery.plan;
+
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.index.IndexVersion;
+import org.elasticsearch.index.snapshots.blobstore.BlobStoreIndexShardSnapshot;
+import org.elasticsearch.index.store.Store;
+import org.elasticsearch.index.store.StoreFileMetadata;
+import org.elasticsearch.repositories.IndexId;
+import org.elasticsearch.test.ESTestCase;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static org.elasticsearch.indices.recovery.plan.CostBasedRecoveryPlannerService.balanceSnapshotAndSourceFiles;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class CostBasedRecoveryPlannerServiceTests extends ESTestCase {
+
+    public void testKeepsPlanIfSourceNodeShouldNotBeUsed() {
+        final ShardRecoveryPlan plan = createPlan(between(0, 10), between(1, 10), null);
+        assertThat(balanceSnapshotAndSourceFiles(plan, 0.0), sameInstance(plan));
+    }
+
+    public void testKeepsPlanWithFallback() {
+        final ShardRecoveryPlan fallbackPlan = createPlan(between(1, 10), 0, null);
+        final ShardRecoveryPlan plan = createPlan(0, between(1, 10), fallbackPlan);
+        assertThat(balanceSnapshotAndSourceFiles(plan, randomDoubleBetween(0.1, 10.0, true)), sameInstance(plan));
+    }
+
+    public void testRecoversEveryFileOnce() {
+        final ShardRecoveryPlan plan = createPlan(between(0, 10), between(1, 20), null);
+        final ShardRecoveryPlan balancedPlan = balanceSnapshotAndSourceFiles(plan, randomDoubleBetween(0.1, 10.0, true));
+        assertThat(new HashSet<>(balancedPlan.getFilesToRecoverNames()), equalTo(new HashSet<>(plan.getFilesToRecoverNames())));
+        assertThat(balancedPlan.getFilesToRecoverNames().size(), equalTo(plan.getFilesToRecoverNames().size()));
+        assertThat(balancedPlan.getTotalSize(), equalTo(plan.getTotalSize()));
+        assertTrue(balancedPlan.canRecoverSnapshotFilesFromSourceNode());
+        assertTrue(balancedPlan.recoverSourceAndSnapshotFilesConcurrently() || balancedPlan == plan);
+    }
+
+    public void testSplitsFilesAccordingToRelativeThroughput() {
+        // four files of the same size, the source node is three times slower than the repository
+        final List<StoreFileMetadata> files = List.of(file("a", 100), file("b", 100), file("c", 100), file("d", 100));
+        final ShardRecoveryPlan plan = new ShardRecoveryPlan(
+            new ShardRecoveryPlan.SnapshotFilesToRecover(new IndexId("index", "id"), "repo", files.stream().map(this::fileInfo).toList()),
+            emptyList(),
+            emptyList(),
+            0,
+            0,
+            metadataSnapshot(files)
+        );
+        final ShardRecoveryPlan balancedPlan = balanceSnapshotAndSourceFiles(plan, 1.0 / 3.0);
+        assertTrue(balancedPlan.recoverSourceAndSnapshotFilesConcurrently());
+        assertThat(balancedPlan.getSourceFilesToRecover().size(), equalTo(1));
+        assertThat(balancedPlan.getSnapshotFilesToRecover().size(), equalTo(3));
+    }
+
+    public void testPrefersSnapshotIfSourceNodeIsAlreadyBusy() {
+        final List<StoreFileMetadata> sourceFiles = List.of(file("a", 1000));
+        final List<StoreFileMetadata> snapshotFiles = List.of(file("b", 100), file("c", 100));
+        final ShardRecoveryPlan plan = new ShardRecoveryPlan(
+            new ShardRecoveryPlan.SnapshotFilesToRecover(
+                new IndexId("index", "id"),
+                "repo",
+                snapshotFiles.stream().map(this::fileInfo).toList()
+            ),
+            sourceFiles,
+            emptyList(),
+            0,
+            0,
+            metadataSnapshot(Stream.concat(sourceFiles.stream(), snapshotFiles.stream()).toList())
+        );
+        final ShardRecoveryPlan balancedPlan = balanceSnapshotAndSourceFiles(plan, 1.0);
+        assertTrue(balancedPlan.recoverSourceAndSnapshotFilesConcurrently());
+        assertThat(balancedPlan.getSourceFilesToRecover(), equalTo(sourceFiles));
+        assertThat(balancedPlan.getSnapshotFilesToRecover().size(), equalTo(2));
+    }
+
+    public void testDoesNotSendFilesThatDifferOnSourceNode() {
+        final StoreFileMetadata snapshotFile = file("a", 100);
+        final StoreFileMetadata sourceFile = new StoreFileMetadata("a", 100, "other", IndexVersion.current().luceneVersion().toString());
+        final ShardRecoveryPlan plan = new ShardRecoveryPlan(
+            new ShardRecoveryPlan.SnapshotFilesToRecover(new IndexId("index", "id"), "repo", List.of(fileInfo(snapshotFile))),
+            emptyList(),
+            emptyList(),
+            0,
+            0,
+            metadataSnapshot(List.of(sourceFile))
+        );
+        assertThat(balanceSnapshotAndSourceFiles(plan, randomDoubleBetween(1.0, 100.0, true)), sameInstance(plan));
+    }
+
+    private ShardRecoveryPlan createPlan(int sourceFileCount, int snapshotFileCount, ShardRecoveryPlan fallbackPlan) {
+        final List<StoreFileMetadata> sourceFiles = new ArrayList<>();
+        for (int i = 0; i < sourceFileCount; i++) {
+            sourceFiles.add(file("source_" + i, between(1, 1000)));
+        }
+        final List<StoreFileMetadata> snapshotFiles = new ArrayList<>();
+        for (int i = 0; i < snapshotFileCount; i++) {
+            snapshotFiles.add(file("snapshot_" + i, between(1, 1000)));
+        }
+        return new ShardRecoveryPlan(
+            new ShardRecoveryPlan.SnapshotFilesToRecover(
+                new IndexId("index", "id"),
+                "repo",
+                snapshotFiles.stream().map(this::fileInfo).toList()
+            ),
+            sourceFiles,
+            emptyList(),
+            0,
+            0,
+            metadataSnapshot(Stream.concat(sourceFiles.stream(), snapshotFiles.stream()).toList()),
+            fallbackPlan
+        );
+    }
+
+    private static StoreFileMetadata file(String name, long length) {
+        return new StoreFileMetadata(name, length, name + "_checksum", IndexVersion.current().luceneVersion().toString());
+    }
+
+    private BlobStoreIndexShardSnapshot.FileInfo fileInfo(StoreFileMetadata metadata) {
+        return new BlobStoreIndexShardSnapshot.FileInfo("_" + metadata.name(), metadata, ByteSizeValue.ofBytes(Long.MAX_VALUE));
+    }
+
+    private static Store.MetadataSnapshot metadataSnapshot(List<StoreFileMetadata> files) {
+        return new Store.MetadataSnapshot(
+            files.stream().collect(Collectors.toMap(StoreFileMetadata::name, Function.identity())),
+            emptyMap(),
+            0
+        );
+    }
+}
@@ -17,6 +17,8 @@ import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.settings.ClusterSettings;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.transport.TransportAddress;
+import org.elasticsearch.core.Releasable;
+import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.threadpool.TestThreadPool;
 import org.elasticsearch.threadpool.ThreadPool;
@@ -28,6 +30,7 @@ import java.util.concurrent.CountDownLatch;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 
 public class ResponseCollectorServiceTests extends ESTestCase {
 
@@ -63,6 +66,52 @@ public class ResponseCollectorServiceTests extends ESTestCase {
         assertThat(nodeStats.get("node1").serviceTime, equalTo(10.0));
     }
 
+    public void testInFlightRequests() {
+        final long responseTimeNanos = randomLongBetween(1, 1_000_000);
+        collector.addNodeStatistics("node1", 1, responseTimeNanos, 10);
+        collector.addNodeStatistics("node2", 1, responseTimeNanos, 10);
+        assertThat(collector.getNodeStatistics("node1").orElseThrow().inFlightAge, equalTo(0.0));
+
+        // a request which has been in flight for much longer than the usual response time makes the node rank worse
+        final long startNanos = System.nanoTime() - TimeValue.timeValueSeconds(10).nanos();
+        final Releasable inFlightRequest = collector.onRequestSent("node1", startNanos);
+        final ResponseCollectorService.ComputedNodeStats stalledStats = collector.getNodeStatistics("node1").orElseThrow();
+        assertThat(stalledStats.inFlightAge, greaterThanOrEqualTo((double) TimeValue.timeValueSeconds(10).nanos()));
+        assertThat(stalledStats.responseTime, equalTo((double) responseTimeNanos));
+        assertThat(stalledStats.rank(1), greaterThan(collector.getNodeStatistics("node2").orElseThrow().rank(1)));
+
+        inFlightRequest.close();
+        assertThat(collector.getNodeStatistics("node1").orElseThrow().inFlightAge, equalTo(0.0));
+    }
+
+    public void testInFlightRequestsAfterNodeRemoval() {
+        final long responseTimeNanos = randomLongBetween(1, 1_000_000);
+        final long startNanos = System.nanoTime() - TimeValue.timeValueSeconds(10).nanos();
+        final Releasable staleRequest = collector.onRequestSent("node1", startNanos);
+        collector.removeNode("node1");
+
+        // the node rejoins and has a request in flight, which must not be affected by the completion of the request sent before it left
+        collector.addNodeStatistics("node1", 1, responseTimeNanos, 10);
+        final Releasable inFlightRequest = collector.onRequestSent("node1", startNanos);
+        staleRequest.close();
+        assertThat(
+            collector.getNodeStatistics("node1").orElseThrow().inFlightAge,
+            greaterThanOrEqualTo((double) TimeValue.timeValueSeconds(10).nanos())
+        );
+
+        // releasing a request more than once has no further effect
+        final Releasable otherRequest = collector.onRequestSent("node1", System.nanoTime());
+        otherRequest.close();
+        otherRequest.close();
+        assertThat(
+            collector.getNodeStatistics("node1").orElseThrow().inFlightAge,
+            greaterThanOrEqualTo((double) TimeValue.timeValueSeconds(10).nanos())
+        );
+
+        inFlightRequest.close();
+        assertThat(collector.getNodeStatistics("node1").orElseThrow().inFlightAge, equalTo(0.0));
+    }
+
     /*
      * Test that concurrently adding values and removing nodes does not cause exceptions
      */
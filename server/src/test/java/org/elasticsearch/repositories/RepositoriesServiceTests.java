@@ -8,6 +8,7 @@
 
 package org.elasticsearch.repositories;
 
+import org.elasticsearch.Version;
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.admin.cluster.repositories.put.PutRepositoryRequest;
 import org.elasticsearch.action.support.master.AcknowledgedResponse;
@@ -20,6 +21,7 @@ import org.elasticsearch.cluster.metadata.RepositoriesMetadata;
 import org.elasticsearch.cluster.metadata.RepositoryMetadata;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.cluster.node.DiscoveryNodeUtils;
+import org.elasticsearch.cluster.node.DiscoveryNodes;
 import org.elasticsearch.cluster.service.ClusterApplierService;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.UUIDs;
@@ -32,16 +34,20 @@ import org.elasticsearch.common.util.MockBigArrays;
 import org.elasticsearch.common.util.concurrent.ThreadContext;
 import org.elasticsearch.core.CheckedConsumer;
 import org.elasticsearch.index.IndexVersion;
+import org.elasticsearch.index.IndexVersions;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.snapshots.IndexShardSnapshotStatus;
 import org.elasticsearch.index.store.Store;
 import org.elasticsearch.indices.recovery.RecoverySettings;
 import org.elasticsearch.indices.recovery.RecoveryState;
+import org.elasticsearch.repositories.blobstore.BlobStoreRepository;
 import org.elasticsearch.repositories.blobstore.MeteredBlobStoreRepository;
 import org.elasticsearch.snapshots.SnapshotDeleteListener;
 import org.elasticsearch.snapshots.SnapshotId;
 import org.elasticsearch.snapshots.SnapshotInfo;
+import org.elasticsearch.snapshots.SnapshotsService;
 import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.test.index.IndexVersionUtils;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.Transport;
 import org.elasticsearch.transport.TransportService;
@@ -55,8 +61,10 @@ import java.util.Map;
 import java.util.concurrent.Executor;
 import java.util.function.BooleanSupplier;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.isA;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -218,6 +226,31 @@ public class RepositoriesServiceTests extends ESTestCase {
         });
     }
 
+    public void testRegisterRejectsContentAddressedDataIfNodesAreTooOld() {
+        var repoName = randomAlphaOfLengthBetween(10, 25);
+        var request = new PutRepositoryRequest().name(repoName)
+            .type(TestRepository.TYPE)
+            .settings(Settings.builder().put(BlobStoreRepository.CONTENT_ADDRESSED_DATA_SETTING.getKey(), true));
+        var currentNode = DiscoveryNodeUtils.create("current");
+        var oldNode = DiscoveryNodeUtils.builder("old")
+            .version(
+                Version.CURRENT,
+                IndexVersions.MINIMUM_COMPATIBLE,
+                IndexVersionUtils.getPreviousVersion(SnapshotsService.CONTENT_ADDRESSED_DATA_VERSION)
+            )
+            .build();
+        var task = new RepositoriesService.RegisterRepositoryTask(repositoriesService, request);
+
+        var currentState = ClusterState.builder(new ClusterName("test"))
+            .nodes(DiscoveryNodes.builder().add(currentNode).localNodeId(currentNode.getId()).masterNodeId(currentNode.getId()))
+            .build();
+        assertThat(RepositoriesMetadata.get(task.execute(currentState)).repository(repoName), notNullValue());
+
+        var mixedState = ClusterState.builder(currentState).nodes(DiscoveryNodes.builder(currentState.nodes()).add(oldNode)).build();
+        var e = expectThrows(RepositoryException.class, () -> task.execute(mixedState));
+        assertThat(e.getMessage(), containsString("requires all nodes to support index version"));
+    }
+
     // test InvalidRepository is returned if repository failed to create
     public void testHandlesCreationFailureWhenApplyingClusterState() {
         var repoName = randomAlphaOfLengthBetween(10, 25);
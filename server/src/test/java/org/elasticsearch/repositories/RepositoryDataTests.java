@@ -42,6 +42,7 @@ import static org.elasticsearch.repositories.RepositoryData.MISSING_UUID;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
 
 /**
  * Tests for the {@link RepositoryData} class.
@@ -66,6 +67,26 @@ public class RepositoryDataTests extends ESTestCase {
         assertThat(getIndicesToUpdateAfterRemovingSnapshot(repositoryData, randomSnapshot), containsInAnyOrder(indicesToUpdate));
     }
 
+    public void testIndicesToUpdateAfterRemovingSeveralSnapshots() {
+        final RepositoryData repositoryData = generateRandomRepoData();
+        final List<IndexId> indicesBefore = List.copyOf(repositoryData.getIndices().values());
+        final Collection<SnapshotId> allSnapshots = repositoryData.getSnapshotIds();
+        final List<SnapshotId> snapshotsToDelete = randomSubsetOf(between(1, allSnapshots.size()), allSnapshots);
+        final IndexId[] indicesToUpdate = indicesBefore.stream().filter(index -> {
+            final List<SnapshotId> snapshotIds = repositoryData.getSnapshots(index);
+            return snapshotIds.stream().anyMatch(snapshotsToDelete::contains) && snapshotsToDelete.containsAll(snapshotIds) == false;
+        }).toArray(IndexId[]::new);
+        final var result = new ArrayList<IndexId>();
+        repositoryData.indicesToUpdateAfterRemovingSnapshot(snapshotsToDelete).forEachRemaining(result::add);
+        assertThat(result, containsInAnyOrder(indicesToUpdate));
+
+        final RepositoryData newRepositoryData = repositoryData.removeSnapshots(snapshotsToDelete, ShardGenerations.EMPTY);
+        assertThat(newRepositoryData.getSnapshotIds(), hasSize(allSnapshots.size() - snapshotsToDelete.size()));
+        for (final IndexId indexId : newRepositoryData.getIndices().values()) {
+            assertFalse(newRepositoryData.getSnapshots(indexId).stream().anyMatch(snapshotsToDelete::contains));
+        }
+    }
+
     public void testXContent() throws IOException {
         RepositoryData repositoryData = generateRandomRepoData().withClusterUuid(UUIDs.randomBase64UUID(random()));
         XContentBuilder builder = JsonXContent.contentBuilder();
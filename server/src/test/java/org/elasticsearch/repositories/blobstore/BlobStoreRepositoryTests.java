@@ -10,6 +10,7 @@ package org.elasticsearch.repositories.blobstore;
 
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.ActionRunnable;
+import org.elasticsearch.action.admin.cluster.repositories.cleanup.CleanupRepositoryResponse;
 import org.elasticsearch.action.admin.cluster.snapshots.create.CreateSnapshotResponse;
 import org.elasticsearch.action.support.PlainActionFuture;
 import org.elasticsearch.action.support.RefCountingListener;
@@ -51,13 +52,17 @@ import org.elasticsearch.threadpool.ThreadPool;
 import org.junit.After;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.CyclicBarrier;
@@ -66,14 +71,19 @@ import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.elasticsearch.repositories.RepositoryDataTests.generateRandomRepoData;
 import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertAcked;
+import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertHitCount;
 import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
 
 /**
@@ -253,6 +263,180 @@ public class BlobStoreRepositoryTests extends ESSingleNodeTestCase {
         );
     }
 
+    public void testConcurrentPartUploads() {
+        final Client client = client();
+        createChunkedRepository(
+            Settings.builder().put(BlobStoreRepository.MAX_CONCURRENT_PART_UPLOADS_SETTING.getKey(), between(2, 8)).build()
+        );
+
+        final String indexName = "test-idx";
+        final int numDocs = createIndexWithRandomDocs(indexName);
+        createSnapshot(client, "test-snap", indexName);
+
+        // the restore reads back every part, so this also checks that the parts were uploaded to the right blobs
+        assertAcked(indicesAdmin().prepareDelete(indexName));
+        client.admin().cluster().prepareRestoreSnapshot(TEST_REPO_NAME, "test-snap").setWaitForCompletion(true).get();
+        ensureGreen(indexName);
+        assertHitCount(client.prepareSearch(indexName).setSize(0), numDocs);
+    }
+
+    public void testConcurrentBlobDeletes() throws Exception {
+        final Client client = client();
+        // use small batches so that the unreferenced blobs are deleted by several tasks that each enqueue the next one
+        final int batchSize = between(1, 3);
+        final Path location = createChunkedRepository(
+            Settings.builder().put(BlobStoreRepository.MAX_CONCURRENT_BLOB_DELETES_SETTING.getKey(), between(1, 4)).build()
+        );
+        ((BlobStoreRepository) getInstanceFromNode(RepositoriesService.class).repository(TEST_REPO_NAME)).setShardBlobDeleteBatchSize(
+            batchSize
+        );
+
+        final String indexName = "test-idx";
+        final List<Set<String>> dataBlobsAfterSnapshot = new ArrayList<>();
+        for (int snapshot = 0; snapshot < 2; snapshot++) {
+            // recreate the index so that the two snapshots do not share any data blobs
+            if (snapshot > 0) {
+                assertAcked(indicesAdmin().prepareDelete(indexName));
+            }
+            createIndexWithRandomDocs(indexName);
+            createSnapshot(client, "test-snap-" + snapshot, indexName);
+            dataBlobsAfterSnapshot.add(listDataBlobs(location));
+        }
+
+        final Set<String> expectedDataBlobs = new HashSet<>(dataBlobsAfterSnapshot.get(1));
+        expectedDataBlobs.removeAll(dataBlobsAfterSnapshot.get(0));
+        assertThat(expectedDataBlobs, not(empty()));
+        assertThat(dataBlobsAfterSnapshot.get(0).size(), greaterThan(batchSize));
+
+        assertAcked(client.admin().cluster().prepareDeleteSnapshot(TEST_REPO_NAME, "test-snap-0").get());
+        assertBusy(() -> assertThat(listDataBlobs(location), equalTo(expectedDataBlobs)));
+    }
+
+    public void testContentAddressedData() throws Exception {
+        final Client client = client();
+        final Path location = createChunkedRepository(
+            Settings.builder().put(BlobStoreRepository.CONTENT_ADDRESSED_DATA_SETTING.getKey(), true).build()
+        );
+
+        final String indexName = "test-idx";
+        final int numDocs = createIndexWithRandomDocs(indexName);
+        createSnapshot(client, "test-snap-0", indexName);
+        final Set<String> contentAddressedBlobs = listContentAddressedDataBlobs(location);
+        assertThat(contentAddressedBlobs, not(empty()));
+        assertThat(listDataBlobs(location), empty());
+
+        // a restored copy of the index has the same files, so snapshotting it does not upload anything again
+        final String restoredIndexName = "restored-idx";
+        client.admin()
+            .cluster()
+            .prepareRestoreSnapshot(TEST_REPO_NAME, "test-snap-0")
+            .setRenamePattern(indexName)
+            .setRenameReplacement(restoredIndexName)
+            .setWaitForCompletion(true)
+            .get();
+        ensureGreen(restoredIndexName);
+        createSnapshot(client, "test-snap-1", restoredIndexName);
+        assertThat(listContentAddressedDataBlobs(location), equalTo(contentAddressedBlobs));
+
+        // the blobs are kept as long as a snapshot of one of the copies refers to them
+        assertAcked(client.admin().cluster().prepareDeleteSnapshot(TEST_REPO_NAME, "test-snap-0").get());
+        assertThat(listContentAddressedDataBlobs(location), equalTo(contentAddressedBlobs));
+        assertAcked(indicesAdmin().prepareDelete(restoredIndexName));
+        client.admin().cluster().prepareRestoreSnapshot(TEST_REPO_NAME, "test-snap-1").setWaitForCompletion(true).get();
+        ensureGreen(restoredIndexName);
+        assertHitCount(client.prepareSearch(restoredIndexName).setSize(0), numDocs);
+
+        assertAcked(client.admin().cluster().prepareDeleteSnapshot(TEST_REPO_NAME, "test-snap-1").get());
+        assertBusy(() -> assertThat(listContentAddressedDataBlobs(location), empty()));
+    }
+
+    public void testCleanupRemovesUnreferencedContentAddressedData() throws Exception {
+        final Client client = client();
+        final Path location = createChunkedRepository(
+            Settings.builder().put(BlobStoreRepository.CONTENT_ADDRESSED_DATA_SETTING.getKey(), true).build()
+        );
+
+        final String indexName = "test-idx";
+        final int numDocs = createIndexWithRandomDocs(indexName);
+        createSnapshot(client, "test-snap", indexName);
+        final Set<String> contentAddressedBlobs = listContentAddressedDataBlobs(location);
+        assertThat(contentAddressedBlobs, not(empty()));
+
+        // a blob that was uploaded by a shard snapshot which failed and removed its reference again
+        final String unreferencedBlob = BlobStoreRepository.CONTENT_ADDRESSED_DATA_BLOB_PREFIX + randomAlphaOfLength(64).toLowerCase(
+            Locale.ROOT
+        );
+        Files.write(location.resolve("content").resolve(unreferencedBlob), randomByteArrayOfLength(between(1, 100)));
+
+        final CleanupRepositoryResponse cleanupResponse = client.admin().cluster().prepareCleanupRepository(TEST_REPO_NAME).get();
+        assertThat(cleanupResponse.result().blobs(), greaterThanOrEqualTo(1L));
+        assertThat(listContentAddressedDataBlobs(location), equalTo(contentAddressedBlobs));
+
+        assertAcked(indicesAdmin().prepareDelete(indexName));
+        client.admin().cluster().prepareRestoreSnapshot(TEST_REPO_NAME, "test-snap").setWaitForCompletion(true).get();
+        ensureGreen(indexName);
+        assertHitCount(client.prepareSearch(indexName).setSize(0), numDocs);
+    }
+
+    /**
+     * Creates the test repository with a small chunk size, so that the snapshotted files are split into several parts.
+     */
+    private Path createChunkedRepository(Settings settings) {
+        final Path location = ESIntegTestCase.randomRepoPath(node().settings());
+        assertAcked(
+            client().admin()
+                .cluster()
+                .preparePutRepository(TEST_REPO_NAME)
+                .setType(REPO_TYPE)
+                .setSettings(
+                    Settings.builder()
+                        .put(node().settings())
+                        .put("location", location)
+                        .put("chunk_size", randomIntBetween(100, 1000), ByteSizeUnit.BYTES)
+                        .put(settings)
+                )
+        );
+        return location;
+    }
+
+    private int createIndexWithRandomDocs(String indexName) {
+        createIndex(indexName);
+        ensureGreen();
+        final int numDocs = randomIntBetween(10, 100);
+        for (int i = 0; i < numDocs; i++) {
+            prepareIndex(indexName).setId(Integer.toString(i)).setSource("text", randomAlphaOfLength(between(10, 100))).get();
+        }
+        indicesAdmin().prepareFlush(indexName).get();
+        return numDocs;
+    }
+
+    private static void createSnapshot(Client client, String snapshotName, String indexName) {
+        final CreateSnapshotResponse createSnapshotResponse = client.admin()
+            .cluster()
+            .prepareCreateSnapshot(TEST_REPO_NAME, snapshotName)
+            .setWaitForCompletion(true)
+            .setIndices(indexName)
+            .get();
+        assertThat(createSnapshotResponse.getSnapshotInfo().state(), equalTo(SnapshotState.SUCCESS));
+    }
+
+    private static Set<String> listContentAddressedDataBlobs(Path location) throws IOException {
+        try (Stream<Path> paths = Files.walk(location.resolve("content"))) {
+            return paths.filter(Files::isRegularFile)
+                .map(path -> path.getFileName().toString())
+                .filter(name -> name.startsWith(BlobStoreRepository.CONTENT_ADDRESSED_DATA_BLOB_PREFIX))
+                .collect(Collectors.toSet());
+        }
+    }
+
+    private static Set<String> listDataBlobs(Path location) throws IOException {
+        try (Stream<Path> paths = Files.walk(location.resolve("indices"))) {
+            return paths.map(path -> path.getFileName().toString())
+                .filter(name -> name.startsWith(BlobStoreRepository.UPLOADED_DATA_BLOB_PREFIX))
+                .collect(Collectors.toSet());
+        }
+    }
+
     public void testRepositoryDataDetails() throws Exception {
         final BlobStoreRepository repository = setupRepo();
         final String repositoryName = repository.getMetadata().name();
@@ -28,6 +28,7 @@ import org.elasticsearch.xcontent.XContentType;
 import org.elasticsearch.xcontent.json.JsonXContent;
 
 import java.io.IOException;
+import java.util.Iterator;
 import java.util.function.Predicate;
 
 public class SearchHitsTests extends AbstractChunkedSerializingTestCase<SearchHits> {
@@ -258,6 +259,63 @@ public class SearchHitsTests extends AbstractChunkedSerializingTestCase<SearchHi
             }"""), Strings.toString(builder));
     }
 
+    public void testToXContentChunkedReleasingHits() throws IOException {
+        final int numHits = randomIntBetween(1, 10);
+        final SearchHit[] hits = new SearchHit[numHits];
+        for (int i = 0; i < numHits; i++) {
+            hits[i] = new SearchHit(i, "id" + i);
+        }
+        final SearchHits searchHits = new SearchHits(hits, new TotalHits(numHits, TotalHits.Relation.EQUAL_TO), 1.5f);
+        assertTrue(searchHits.isPooled());
+
+        final XContentBuilder expected = JsonXContent.contentBuilder();
+        expected.startObject();
+        ChunkedToXContent.wrapAsToXContent(searchHits).toXContent(expected, ToXContent.EMPTY_PARAMS);
+        expected.endObject();
+
+        final boolean renderCompletely = randomBoolean();
+        final XContentBuilder builder = JsonXContent.contentBuilder();
+        builder.startObject();
+        final Iterator<? extends ToXContent> chunks = searchHits.toXContentChunkedReleasingHits(ToXContent.EMPTY_PARAMS);
+        int chunksToRender = renderCompletely ? Integer.MAX_VALUE : between(0, 3 + numHits);
+        while (chunks.hasNext() && chunksToRender-- > 0) {
+            chunks.next().toXContent(builder, ToXContent.EMPTY_PARAMS);
+        }
+        if (renderCompletely) {
+            builder.endObject();
+            assertEquals(Strings.toString(expected), Strings.toString(builder));
+            for (SearchHit hit : hits) {
+                assertFalse(hit.hasReferences());
+            }
+        }
+        // rendering leaves the hits in place
+        assertArrayEquals(hits, searchHits.getHits());
+
+        // releasing the hits must release the hits that were not rendered yet exactly once
+        searchHits.decRef();
+        for (SearchHit hit : hits) {
+            assertFalse(hit.hasReferences());
+        }
+    }
+
+    public void testReleasingHitsWhileRenderingReleasesEachHitOnce() throws IOException {
+        final SearchHit[] hits = new SearchHit[] { new SearchHit(0, "id0"), new SearchHit(1, "id1") };
+        final SearchHits searchHits = new SearchHits(hits, new TotalHits(2, TotalHits.Relation.EQUAL_TO), 1.5f);
+        final XContentBuilder builder = JsonXContent.contentBuilder();
+        builder.startObject();
+        final Iterator<? extends ToXContent> chunks = searchHits.toXContentChunkedReleasingHits(ToXContent.EMPTY_PARAMS);
+        while (hits[0].hasReferences()) {
+            chunks.next().toXContent(builder, ToXContent.EMPTY_PARAMS);
+        }
+        assertTrue(hits[1].hasReferences());
+
+        // the hits are released, e.g. because the channel was closed, before the remaining hit was rendered
+        searchHits.decRef();
+        assertFalse(searchHits.hasReferences());
+        assertFalse(hits[0].hasReferences());
+        assertFalse(hits[1].hasReferences());
+    }
+
     public void testFromXContentWithShards() throws IOException {
         for (boolean withExplanation : new boolean[] { true, false }) {
             final SearchHit[] hits = new SearchHit[] {
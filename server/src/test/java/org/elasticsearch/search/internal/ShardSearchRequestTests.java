@@ -17,6 +17,7 @@ import org.elasticsearch.cluster.metadata.IndexMetadata;
 import org.elasticsearch.common.CheckedBiConsumer;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.UUIDs;
+import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.compress.CompressedXContent;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.StreamOutput;
@@ -248,6 +249,29 @@ public class ShardSearchRequestTests extends AbstractSearchTestCase {
         }
     }
 
+    public void testSerializationWithSourceBytesCache() throws IOException {
+        final ShardSearchRequest request = createShardSearchRequest();
+        final BytesReference expected = serialize(request);
+
+        final SearchSourceBytesCache cache = new SearchSourceBytesCache(request.source());
+        request.sourceBytesCache(cache);
+        assertEquals(expected, serialize(request));
+        // the second serialization reuses the cached bytes
+        assertEquals(expected, serialize(request));
+        assertEquals(request, copyWriteable(request, namedWriteableRegistry, ShardSearchRequest::new));
+
+        // a cache of a different source is ignored
+        request.sourceBytesCache(new SearchSourceBytesCache(new SearchSourceBuilder().size(randomIntBetween(0, 100))));
+        assertEquals(expected, serialize(request));
+    }
+
+    private static BytesReference serialize(ShardSearchRequest request) throws IOException {
+        try (BytesStreamOutput out = new BytesStreamOutput()) {
+            request.writeTo(out);
+            return out.bytes();
+        }
+    }
+
     public void testWillCallRequestCacheKeyDifferentiators() throws IOException {
         final ShardSearchRequest shardSearchRequest = createShardSearchRequest();
         final AtomicBoolean invoked = new AtomicBoolean(false);
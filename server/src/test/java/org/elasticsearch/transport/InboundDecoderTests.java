@@ -8,8 +8,10 @@
 
 package org.elasticsearch.transport;
 
+import org.apache.lucene.util.Version;
 import org.elasticsearch.TransportVersion;
 import org.elasticsearch.TransportVersions;
+import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.bytes.ReleasableBytesReference;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
@@ -17,6 +19,9 @@ import org.elasticsearch.common.io.stream.RecyclerBytesStreamOutput;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.util.MockPageCacheRecycler;
 import org.elasticsearch.common.util.concurrent.ThreadContext;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.index.store.StoreFileMetadata;
+import org.elasticsearch.indices.recovery.RecoveryFileChunkRequest;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.test.TransportVersionUtils;
 import org.elasticsearch.transport.InboundDecoder.ChannelType;
@@ -310,6 +315,53 @@ public class InboundDecoderTests extends ESTestCase {
         }
     }
 
+    public void testSerializeZeroCopyRequest() throws IOException {
+        final ReleasableBytesReference content = ReleasableBytesReference.wrap(new BytesArray(randomByteArrayOfLength(between(1, 1024))));
+        final RecoveryFileChunkRequest request = new RecoveryFileChunkRequest(
+            randomNonNegativeLong(),
+            randomNonNegativeLong(),
+            new ShardId(randomAlphaOfLength(10), randomAlphaOfLength(10), between(0, 10)),
+            new StoreFileMetadata(randomAlphaOfLength(10), between(1, 100000), randomAlphaOfLength(10), Version.LATEST.toString()),
+            randomNonNegativeLong(),
+            content,
+            randomBoolean(),
+            between(0, 100),
+            randomNonNegativeLong()
+        );
+        content.decRef();
+
+        final OutboundMessage message = new OutboundMessage.Request(
+            threadContext,
+            request,
+            TransportVersion.current(),
+            "test-request",
+            randomNonNegativeLong(),
+            false,
+            null
+        );
+
+        try (RecyclerBytesStreamOutput os = new RecyclerBytesStreamOutput(recycler); BytesStreamOutput expected = new BytesStreamOutput()) {
+            final BytesReference totalBytes = message.serialize(os);
+            int totalHeaderSize = TcpHeader.headerSize(TransportVersion.current()) + totalBytes.getInt(
+                TcpHeader.VARIABLE_HEADER_SIZE_POSITION
+            );
+            final BytesReference messageBytes = totalBytes.slice(totalHeaderSize, totalBytes.length() - totalHeaderSize);
+
+            // the file chunk is sent without copying it, but the wire format is the same as the one of the regular serialization
+            request.writeTo(expected);
+            assertEquals(expected.bytes(), messageBytes);
+
+            final RecoveryFileChunkRequest deserialized = new RecoveryFileChunkRequest(messageBytes.streamInput());
+            assertEquals(request.name(), deserialized.name());
+            assertEquals(request.position(), deserialized.position());
+            assertEquals(request.lastChunk(), deserialized.lastChunk());
+            assertEquals(request.content(), deserialized.content());
+            deserialized.decRef();
+        } finally {
+            request.decRef();
+        }
+    }
+
     public void testCompressedDecode() throws IOException {
         boolean isRequest = randomBoolean();
         String action = "test-request";
@@ -8,6 +8,7 @@
 package org.elasticsearch.transport;
 
 import org.elasticsearch.TransportVersion;
+import org.elasticsearch.TransportVersions;
 import org.elasticsearch.Version;
 import org.elasticsearch.action.support.PlainActionFuture;
 import org.elasticsearch.cluster.node.DiscoveryNode;
@@ -17,6 +18,7 @@ import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.tasks.TaskId;
 import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.test.TransportVersionUtils;
 import org.elasticsearch.threadpool.TestThreadPool;
 
 import java.io.IOException;
@@ -59,7 +61,7 @@ public class TransportHandshakerTests extends ESTestCase {
     }
 
     public void testHandshakeRequestAndResponse() throws IOException {
-        PlainActionFuture<TransportVersion> versionFuture = new PlainActionFuture<>();
+        PlainActionFuture<TcpTransport.HandshakeResult> versionFuture = new PlainActionFuture<>();
         long reqId = randomLongBetween(1, 10);
         handshaker.sendHandshake(reqId, node, channel, new TimeValue(30, TimeUnit.SECONDS), versionFuture);
 
@@ -79,7 +81,53 @@ public class TransportHandshakerTests extends ESTestCase {
         handler.handleResponse((TransportHandshaker.HandshakeResponse) responseFuture.actionGet());
 
         assertTrue(versionFuture.isDone());
-        assertEquals(TransportVersion.current(), versionFuture.actionGet());
+        assertEquals(TransportVersion.current(), versionFuture.actionGet().transportVersion());
+        assertEquals(Compression.Scheme.isZstdAvailable(), versionFuture.actionGet().zstdAvailable());
+    }
+
+    public void testZstdAvailabilitySerialization() throws IOException {
+        final boolean zstdAvailable = randomBoolean();
+
+        // the flag is only sent to nodes which understand it
+        final TransportVersion requestVersion = TransportVersionUtils.randomVersionBetween(
+            random(),
+            Compression.Scheme.ZSTD_VERSION,
+            TransportVersion.current()
+        );
+        BytesStreamOutput output = new BytesStreamOutput();
+        new TransportHandshaker.HandshakeResponse(TransportVersion.current(), requestVersion, zstdAvailable).writeTo(output);
+        StreamInput input = output.bytes().streamInput();
+        TransportHandshaker.HandshakeResponse response = handshaker.removeHandlerForHandshake(sendHandshake()).read(input);
+        assertEquals(0, input.available());
+        assertEquals(TransportVersion.current(), response.getResponseVersion());
+        assertEquals(zstdAvailable, response.isZstdAvailable());
+
+        final TransportVersion oldRequestVersion = TransportVersionUtils.getPreviousVersion(Compression.Scheme.ZSTD_VERSION);
+        output = new BytesStreamOutput();
+        new TransportHandshaker.HandshakeResponse(TransportVersion.current(), oldRequestVersion, zstdAvailable).writeTo(output);
+        final BytesStreamOutput expected = new BytesStreamOutput();
+        TransportVersion.writeVersion(TransportVersion.current(), expected);
+        assertEquals(expected.bytes(), output.bytes());
+
+        // and only read from nodes which send it
+        final TransportVersion oldResponseVersion = TransportVersionUtils.randomVersionBetween(
+            random(),
+            TransportVersions.MINIMUM_COMPATIBLE,
+            oldRequestVersion
+        );
+        output = new BytesStreamOutput();
+        TransportVersion.writeVersion(oldResponseVersion, output);
+        input = output.bytes().streamInput();
+        response = handshaker.removeHandlerForHandshake(sendHandshake()).read(input);
+        assertEquals(0, input.available());
+        assertEquals(oldResponseVersion, response.getResponseVersion());
+        assertFalse(response.isZstdAvailable());
+    }
+
+    private long sendHandshake() {
+        final long reqId = randomLongBetween(1, 1000);
+        handshaker.sendHandshake(reqId, node, channel, new TimeValue(30, TimeUnit.SECONDS), new PlainActionFuture<>());
+        return reqId;
     }
 
     public void testHandshakeRequestFutureVersionsCompatibility() throws IOException {
@@ -118,7 +166,7 @@ public class TransportHandshakerTests extends ESTestCase {
     }
 
     public void testHandshakeError() throws IOException {
-        PlainActionFuture<TransportVersion> versionFuture = new PlainActionFuture<>();
+        PlainActionFuture<TcpTransport.HandshakeResult> versionFuture = new PlainActionFuture<>();
         long reqId = randomLongBetween(1, 10);
         handshaker.sendHandshake(reqId, node, channel, new TimeValue(30, TimeUnit.SECONDS), versionFuture);
 
@@ -135,7 +183,7 @@ public class TransportHandshakerTests extends ESTestCase {
     }
 
     public void testSendRequestThrowsException() throws IOException {
-        PlainActionFuture<TransportVersion> versionFuture = new PlainActionFuture<>();
+        PlainActionFuture<TcpTransport.HandshakeResult> versionFuture = new PlainActionFuture<>();
         long reqId = randomLongBetween(1, 10);
         doThrow(new IOException("boom")).when(requestSender)
             .sendRequest(node, channel, reqId, TransportHandshaker.REQUEST_HANDSHAKE_VERSION);
@@ -149,7 +197,7 @@ public class TransportHandshakerTests extends ESTestCase {
     }
 
     public void testHandshakeTimeout() throws IOException {
-        PlainActionFuture<TransportVersion> versionFuture = new PlainActionFuture<>();
+        PlainActionFuture<TcpTransport.HandshakeResult> versionFuture = new PlainActionFuture<>();
         long reqId = randomLongBetween(1, 10);
         handshaker.sendHandshake(reqId, node, channel, new TimeValue(100, TimeUnit.MILLISECONDS), versionFuture);
 
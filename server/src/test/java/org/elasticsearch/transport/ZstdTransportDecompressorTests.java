@@ -0,0 +1,189 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.transport;
+
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.CompositeBytesReference;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
+import org.elasticsearch.common.io.Streams;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.OutputStreamStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.recycler.Recycler;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.MockPageCacheRecycler;
+import org.elasticsearch.core.Releasables;
+import org.elasticsearch.nativeaccess.NativeAccess;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class ZstdTransportDecompressorTests extends ESTestCase {
+
+    private final Recycler<BytesRef> recycler = new BytesRefRecycler(new MockPageCacheRecycler(Settings.EMPTY));
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        assumeTrue("requires native zstd", Compression.Scheme.isZstdAvailable());
+    }
+
+    public void testPoolsABoundedNumberOfNativeBuffers() {
+        final int poolSize = Math.max(1, Runtime.getRuntime().availableProcessors());
+        final List<ZstdBlockBuffers> acquired = new ArrayList<>();
+        for (int i = 0; i < poolSize + between(1, 10); i++) {
+            acquired.add(ZstdBlockBuffers.acquire());
+        }
+        Releasables.close(acquired);
+        // the buffers that did not fit back into the pool were closed instead of being left to leak
+        assertThat(ZstdBlockBuffers.pooledCount(), lessThanOrEqualTo(poolSize));
+
+        try (ZstdBlockBuffers buffers = ZstdBlockBuffers.acquire()) {
+            assertThat(buffers.uncompressed().buffer().position(), equalTo(0));
+            assertThat(buffers.compressed().buffer().remaining(), equalTo(Compression.Scheme.ZSTD_MAX_COMPRESSED_BLOCK_SIZE));
+        }
+    }
+
+    public void testSimpleCompression() throws IOException {
+        try (BytesStreamOutput output = new BytesStreamOutput()) {
+            byte randomByte = randomByte();
+            try (OutputStream zstdStream = Compression.Scheme.zstdOutputStream(org.elasticsearch.core.Streams.noCloseStream(output))) {
+                zstdStream.write(randomByte);
+            }
+
+            BytesReference bytes = output.bytes();
+            assertTrue(Compression.Scheme.isZstd(bytes));
+
+            try (ZstdTransportDecompressor decompressor = new ZstdTransportDecompressor(recycler)) {
+                int bytesConsumed = decompressor.decompress(bytes);
+                assertEquals(bytes.length(), bytesConsumed);
+                ReleasableBytesReference releasableBytesReference = decompressor.pollDecompressedPage(true);
+                assertEquals(1, releasableBytesReference.length());
+                assertEquals(randomByte, releasableBytesReference.get(0));
+                releasableBytesReference.close();
+            }
+        }
+    }
+
+    public void testIncrementalMultiBlockCompression() throws IOException {
+        // spans several compressed blocks and many decompressed pages
+        int intsToWrite = between(Compression.Scheme.ZSTD_BLOCK_SIZE / 4, Compression.Scheme.ZSTD_BLOCK_SIZE);
+        int uncompressedLength = intsToWrite * 4;
+
+        try (BytesStreamOutput output = new BytesStreamOutput()) {
+            try (
+                StreamOutput zstdStream = new OutputStreamStreamOutput(
+                    Compression.Scheme.zstdOutputStream(Streams.flushOnCloseStream(output))
+                )
+            ) {
+                for (int i = 0; i < intsToWrite; ++i) {
+                    zstdStream.writeInt(expectedInt(i));
+                }
+            }
+
+            BytesReference bytes = output.bytes();
+            // Since 200 / 255 data is repeated, we should get a compression ratio of at least 50%
+            assertThat(bytes.length(), lessThan(uncompressedLength / 2));
+
+            final List<ReleasableBytesReference> polledReferences = new ArrayList<>();
+            try (ZstdTransportDecompressor decompressor = new ZstdTransportDecompressor(recycler)) {
+                BytesReference unconsumed = BytesArray.EMPTY;
+                int offset = 0;
+                int totalConsumed = 0;
+                while (offset < bytes.length()) {
+                    int length = between(1, bytes.length() - offset);
+                    BytesReference next = CompositeBytesReference.of(unconsumed, bytes.slice(offset, length));
+                    offset += length;
+                    int consumed = decompressor.decompress(next);
+                    totalConsumed += consumed;
+                    unconsumed = next.slice(consumed, next.length() - consumed);
+                    ReleasableBytesReference page;
+                    while ((page = decompressor.pollDecompressedPage(offset == bytes.length())) != null) {
+                        polledReferences.add(page);
+                    }
+                }
+                assertEquals(bytes.length(), totalConsumed);
+            }
+
+            BytesReference composite = CompositeBytesReference.of(polledReferences.toArray(new ReleasableBytesReference[0]));
+            assertEquals(uncompressedLength, composite.length());
+            StreamInput streamInput = composite.streamInput();
+            for (int i = 0; i < intsToWrite; ++i) {
+                assertEquals(expectedInt(i), streamInput.readInt());
+            }
+            Releasables.close(polledReferences);
+        }
+    }
+
+    public void testCorruptedBlockHeader() throws IOException {
+        try (BytesStreamOutput output = new BytesStreamOutput()) {
+            try (OutputStream zstdStream = Compression.Scheme.zstdOutputStream(org.elasticsearch.core.Streams.noCloseStream(output))) {
+                zstdStream.write(randomByteArrayOfLength(between(1, 100)));
+            }
+            BytesReference bytes = output.bytes();
+            byte[] corrupted = BytesReference.toBytes(bytes);
+            // set the uncompressed length of the first block to a negative value
+            corrupted[Compression.Scheme.HEADER_LENGTH + 4] = (byte) 0xFF;
+
+            try (ZstdTransportDecompressor decompressor = new ZstdTransportDecompressor(recycler)) {
+                expectThrows(IllegalStateException.class, () -> decompressor.decompress(new BytesArray(corrupted)));
+                expectThrows(IllegalStateException.class, () -> decompressor.decompress(new BytesArray(corrupted)));
+            }
+        }
+    }
+
+    public void testRejectsOversizedCompressedBlock() throws IOException {
+        assertEquals(
+            NativeAccess.instance().getZstd().compressBound(Compression.Scheme.ZSTD_BLOCK_SIZE),
+            Compression.Scheme.ZSTD_MAX_COMPRESSED_BLOCK_SIZE
+        );
+
+        try (BytesStreamOutput output = new BytesStreamOutput()) {
+            try (OutputStream zstdStream = Compression.Scheme.zstdOutputStream(org.elasticsearch.core.Streams.noCloseStream(output))) {
+                zstdStream.write(randomByteArrayOfLength(between(1, 100)));
+            }
+            byte[] corrupted = BytesReference.toBytes(output.bytes());
+            // set the compressed length of the first block to more than any block can compress to
+            final int compressedLength = between(Compression.Scheme.ZSTD_MAX_COMPRESSED_BLOCK_SIZE + 1, Integer.MAX_VALUE);
+            for (int i = 0; i < 4; i++) {
+                corrupted[Compression.Scheme.HEADER_LENGTH + i] = (byte) (compressedLength >>> (24 - 8 * i));
+            }
+
+            try (ZstdTransportDecompressor decompressor = new ZstdTransportDecompressor(recycler)) {
+                final IllegalStateException e = expectThrows(
+                    IllegalStateException.class,
+                    () -> decompressor.decompress(new BytesArray(corrupted))
+                );
+                assertThat(e.getMessage(), containsString("invalid compressedLength"));
+            }
+        }
+    }
+
+    private static int expectedInt(int i) {
+        int lowByte = (i & 0xFF);
+        if (lowByte < 128) {
+            return 0;
+        } else if (lowByte < 200) {
+            return 1;
+        } else {
+            return i;
+        }
+    }
+}
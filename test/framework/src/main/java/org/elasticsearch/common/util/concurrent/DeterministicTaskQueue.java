@@ -342,6 +342,11 @@ public class DeterministicTaskQueue {
                 throw new AssertionError("DeterministicTaskQueue does not support nanosecond-precision timestamps");
             }
 
+            @Override
+            public long rawRelativeTimeInNanos() {
+                throw new AssertionError("DeterministicTaskQueue does not support nanosecond-precision timestamps");
+            }
+
             @Override
             public long relativeTimeInMillis() {
                 return currentTimeMillis;
@@ -16,6 +16,9 @@ public class BlobCacheMetrics {
     private final LongCounter cacheMissCounter;
     private final LongCounter evictedCountNonZeroFrequency;
     private final LongHistogram cacheMissLoadTimes;
+    private final LongCounter admissionRejectedCounter;
+    private final LongCounter prefetchedRegionUsedCounter;
+    private final LongCounter prefetchedRegionWastedCounter;
 
     public BlobCacheMetrics(MeterRegistry meterRegistry) {
         this(
@@ -33,14 +36,39 @@ public class BlobCacheMetrics {
                 "es.blob_cache.cache_miss_load_times.histogram",
                 "The time in microseconds for populating entries in the blob store resulting from a cache miss, expressed as a histogram.",
                 "micros"
+            ),
+            meterRegistry.registerLongCounter(
+                "es.blob_cache.admission_rejected.total",
+                "The number of times a region was not cached because it was accessed less often than the region it would have evicted",
+                "count"
+            ),
+            meterRegistry.registerLongCounter(
+                "es.blob_cache.prefetched_region_used.total",
+                "The number of regions that were prefetched for a sequential read and then read",
+                "count"
+            ),
+            meterRegistry.registerLongCounter(
+                "es.blob_cache.prefetched_region_wasted.total",
+                "The number of regions that were prefetched for a sequential read that stopped before reaching them",
+                "count"
             )
         );
     }
 
-    BlobCacheMetrics(LongCounter cacheMissCounter, LongCounter evictedCountNonZeroFrequency, LongHistogram cacheMissLoadTimes) {
+    BlobCacheMetrics(
+        LongCounter cacheMissCounter,
+        LongCounter evictedCountNonZeroFrequency,
+        LongHistogram cacheMissLoadTimes,
+        LongCounter admissionRejectedCounter,
+        LongCounter prefetchedRegionUsedCounter,
+        LongCounter prefetchedRegionWastedCounter
+    ) {
         this.cacheMissCounter = cacheMissCounter;
         this.evictedCountNonZeroFrequency = evictedCountNonZeroFrequency;
         this.cacheMissLoadTimes = cacheMissLoadTimes;
+        this.admissionRejectedCounter = admissionRejectedCounter;
+        this.prefetchedRegionUsedCounter = prefetchedRegionUsedCounter;
+        this.prefetchedRegionWastedCounter = prefetchedRegionWastedCounter;
     }
 
     public static BlobCacheMetrics NOOP = new BlobCacheMetrics(TelemetryProvider.NOOP.getMeterRegistry());
@@ -56,4 +84,16 @@ public class BlobCacheMetrics {
     public LongHistogram getCacheMissLoadTimes() {
         return cacheMissLoadTimes;
     }
+
+    public LongCounter getAdmissionRejectedCounter() {
+        return admissionRejectedCounter;
+    }
+
+    public LongCounter getPrefetchedRegionUsedCounter() {
+        return prefetchedRegionUsedCounter;
+    }
+
+    public LongCounter getPrefetchedRegionWastedCounter() {
+        return prefetchedRegionWastedCounter;
+    }
 }
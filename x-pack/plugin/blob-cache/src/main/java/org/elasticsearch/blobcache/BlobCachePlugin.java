@@ -27,7 +27,9 @@ public class BlobCachePlugin extends Plugin implements ExtensiblePlugin {
             SharedBlobCacheService.SHARED_CACHE_DECAY_INTERVAL_SETTING,
             SharedBlobCacheService.SHARED_CACHE_MIN_TIME_DELTA_SETTING,
             SharedBlobCacheService.SHARED_CACHE_MMAP,
-            SharedBlobCacheService.SHARED_CACHE_COUNT_READS
+            SharedBlobCacheService.SHARED_CACHE_COUNT_READS,
+            SharedBlobCacheService.SHARED_CACHE_ADMISSION_ENABLED,
+            SharedBlobCacheService.SHARED_CACHE_PREFETCH_MAX_REGIONS_SETTING
         );
     }
 }
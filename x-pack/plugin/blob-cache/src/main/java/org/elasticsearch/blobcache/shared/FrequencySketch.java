@@ -0,0 +1,136 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.blobcache.shared;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A count-min sketch that estimates how often a key has been accessed recently. Counters are 4 bits wide and packed sixteen to a long,
+ * so that tracking the popularity of keys that are not (or no longer) in the cache costs only a few bytes per cache region. Once the
+ * number of recorded accesses reaches the sample size all counters are halved, so that old accesses count less than recent ones.
+ *
+ * Accesses can be recorded at most once per key and epoch, mirroring how the LFU cache promotes a region at most once per epoch, so that a
+ * burst of reads of the same region (e.g. the many small reads of a scan) counts as a single access rather than saturating its counter.
+ *
+ * Counters are updated with compare-and-set operations, so the sketch can be updated concurrently without locking. Estimates are only
+ * ever approximate anyway, so concurrent updates and resets may lose the odd increment.
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_COUNT = 15;
+    private static final int MIN_TABLE_LENGTH = 64;
+
+    private final AtomicLongArray table;
+    private final int counterMask;
+    private final int sampleSize;
+    private final AtomicInteger size = new AtomicInteger();
+    // the epoch (upper 32 bits) and hash (lower 32 bits) of the last key recorded in each slot, see #increment(int, long)
+    private final AtomicLongArray lastRecorded;
+
+    /**
+     * @param expectedKeys the number of keys whose frequency should be tracked accurately, typically the number of cache regions
+     */
+    FrequencySketch(int expectedKeys) {
+        final int tableLength = Integer.highestOneBit(Math.max(expectedKeys, MIN_TABLE_LENGTH) - 1) << 1;
+        this.table = new AtomicLongArray(tableLength);
+        this.counterMask = tableLength * 16 - 1;
+        this.sampleSize = tableLength * 10;
+        this.lastRecorded = new AtomicLongArray(tableLength);
+    }
+
+    /**
+     * Records an access to the key with the given hash code in the given epoch, unless an access to the same key was already recorded in
+     * that epoch. Keys share a fixed number of slots to remember when they were last recorded, so a key whose slot was taken over by
+     * another key in the meantime may be recorded more than once per epoch.
+     */
+    void increment(int keyHash, long epoch) {
+        final int hash = spread(keyHash);
+        final int slot = hash & (lastRecorded.length() - 1);
+        final long recorded = (epoch << 32) | (hash & 0xFFFFFFFFL);
+        final long previous = lastRecorded.get(slot);
+        if (previous != recorded && lastRecorded.compareAndSet(slot, previous, recorded)) {
+            increment(keyHash);
+        }
+    }
+
+    /**
+     * Records an access to the key with the given hash code.
+     */
+    void increment(int keyHash) {
+        final int hash = spread(keyHash);
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            added |= incrementAt(indexOf(hash, i));
+        }
+        if (added && size.incrementAndGet() >= sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * Returns the estimated number of recent accesses to the key with the given hash code, which is at most 15.
+     */
+    int frequency(int keyHash) {
+        final int hash = spread(keyHash);
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < SEEDS.length; i++) {
+            final int index = indexOf(hash, i);
+            final int count = (int) ((table.get(index >>> 4) >>> shift(index)) & MAX_COUNT);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    private boolean incrementAt(int index) {
+        final int word = index >>> 4;
+        final int shift = shift(index);
+        final long mask = (long) MAX_COUNT << shift;
+        while (true) {
+            final long current = table.get(word);
+            if ((current & mask) == mask) {
+                return false;
+            }
+            if (table.compareAndSet(word, current, current + (1L << shift))) {
+                return true;
+            }
+        }
+    }
+
+    private synchronized void reset() {
+        if (size.get() < sampleSize) {
+            // another thread reset the counters already
+            return;
+        }
+        for (int i = 0; i < table.length(); i++) {
+            long current;
+            do {
+                current = table.get(i);
+            } while (table.compareAndSet(i, current, (current >>> 1) & RESET_MASK) == false);
+        }
+        size.set(size.get() >>> 1);
+    }
+
+    private int indexOf(int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        h += h >>> 32;
+        return (int) h & counterMask;
+    }
+
+    private static int shift(int index) {
+        return (index & 15) << 2;
+    }
+
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+}
@@ -29,6 +29,7 @@ import org.elasticsearch.common.unit.RelativeByteSizeValue;
 import org.elasticsearch.common.util.concurrent.AbstractRunnable;
 import org.elasticsearch.core.AbstractRefCounted;
 import org.elasticsearch.core.Assertions;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Releasable;
 import org.elasticsearch.core.Releasables;
 import org.elasticsearch.core.TimeValue;
@@ -45,6 +46,7 @@ import java.lang.invoke.VarHandle;
 import java.lang.reflect.Array;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -59,6 +61,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.function.IntConsumer;
+import java.util.function.LongFunction;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -256,6 +259,28 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
         Setting.Property.NodeScope
     );
 
+    /**
+     * Whether regions that are not in the cache yet have to be accessed more often than the least frequently used region in the cache
+     * before they may evict it. This keeps one-off reads, like a large scan, from pushing regions that are read over and over out of the
+     * cache. Reads of regions that are not admitted go to the blob store directly.
+     */
+    public static final Setting<Boolean> SHARED_CACHE_ADMISSION_ENABLED = Setting.boolSetting(
+        SHARED_CACHE_SETTINGS_PREFIX + "admission.enabled",
+        false,
+        Setting.Property.NodeScope
+    );
+
+    /**
+     * The maximum number of regions that are fetched ahead of a {@link CacheFile} that is read sequentially, see
+     * {@link CacheFile#maybePrefetch}. Prefetching is disabled if set to 0.
+     */
+    public static final Setting<Integer> SHARED_CACHE_PREFETCH_MAX_REGIONS_SETTING = Setting.intSetting(
+        SHARED_CACHE_SETTINGS_PREFIX + "prefetch.max_regions",
+        0,
+        0,
+        Setting.Property.NodeScope
+    );
+
     // used in tests
     void computeDecay() {
         if (cache instanceof LFUCache lfuCache) {
@@ -278,6 +303,15 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
     private interface Cache<K, T> extends Releasable {
         CacheEntry<T> get(K cacheKey, long fileLength, int region);
 
+        /**
+         * Adds the given region to the cache if it is not cached yet and a free region is available for it. Unlike {@link #get} this
+         * neither records an access to the region nor evicts anything, so it suits speculative fetches.
+         *
+         * @return the new entry, or {@code null} if the region is already cached or no free region is available
+         */
+        @Nullable
+        CacheEntry<T> getIfAbsentInFreeRegion(K cacheKey, long fileLength, int region);
+
         int forceEvict(Predicate<K> cacheKeyPredicate);
     }
 
@@ -303,6 +337,7 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
     private final int regionSize;
     private final int rangeSize;
     private final int recoveryRangeSize;
+    private final int maxPrefetchRegions;
 
     private final int numRegions;
     private final ConcurrentLinkedQueue<SharedBytes.IO> freeRegions = new ConcurrentLinkedQueue<>();
@@ -367,6 +402,7 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
 
         this.rangeSize = BlobCacheUtils.toIntBytes(SHARED_CACHE_RANGE_SIZE_SETTING.get(settings).getBytes());
         this.recoveryRangeSize = BlobCacheUtils.toIntBytes(SHARED_CACHE_RECOVERY_RANGE_SIZE_SETTING.get(settings).getBytes());
+        this.maxPrefetchRegions = SHARED_CACHE_PREFETCH_MAX_REGIONS_SETTING.get(settings);
 
         this.blobCacheMetrics = blobCacheMetrics;
         this.evictIncrementer = blobCacheMetrics.getEvictedCountNonZeroFrequency()::increment;
@@ -635,7 +671,9 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
         );
     }
 
-    // used by tests
+    /**
+     * Evicts one of the least used regions if there is one that is not in use, see {@link LFUCache#maybeEvictLeastUsed()}.
+     */
     boolean maybeEvictLeastUsed() {
         if (cache instanceof LFUCache lfuCache) {
             return lfuCache.maybeEvictLeastUsed();
@@ -647,8 +685,11 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
         throw new AlreadyClosedException(message);
     }
 
-    // used by tests
-    int freeRegionCount() {
+    /**
+     * Returns the number of regions of the cache that are not assigned to any blob region, i.e. that can be filled without evicting
+     * anything.
+     */
+    public int freeRegionCount() {
         return freeRegions.size();
     }
 
@@ -1015,6 +1056,13 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
 
         private CacheEntry<CacheFileRegion> lastAccessedRegion;
 
+        // sequential read detection, only ever accessed by the thread that reads from this instance
+        private int lastReadRegion = -1;
+        private int prefetchedUpToRegion = -1;
+        private int prefetchWindow;
+        // the regions that were filled by prefetching and not read yet, null until something is prefetched
+        private BitSet prefetchedRegions;
+
         private CacheFile(KeyType cacheKey, long length) {
             this.cacheKey = cacheKey;
             this.length = length;
@@ -1057,6 +1105,114 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
             return res;
         }
 
+        /**
+         * Records a read starting at the given position. Once reads move on from one region to the next, the regions following the
+         * current one are fetched in the background so that a sequential read does not have to wait for the blob store on every region.
+         * The number of regions fetched ahead doubles every time a read reaches a prefetched region, up to
+         * {@link #SHARED_CACHE_PREFETCH_MAX_REGIONS_SETTING}, and halves every time reads stop being sequential. Regions are only ever
+         * prefetched into free regions of the cache, prefetching never evicts other regions. Regions that are already cached are
+         * skipped, and prefetching a region does not count as an access to it.
+         *
+         * @param position          the position at which the read starts
+         * @param writerForRegion   returns the writer that fills the region starting at the given position of the blob; the relative
+         *                          positions passed to the writer are relative to the start of that region
+         * @param fetchExecutor     an executor to use for reading from the blob store
+         */
+        public void maybePrefetch(long position, LongFunction<RangeMissingHandler> writerForRegion, Executor fetchExecutor) {
+            if (maxPrefetchRegions == 0) {
+                return;
+            }
+            final int region = getRegion(position);
+            if (region == lastReadRegion) {
+                return;
+            }
+            if (lastReadRegion < 0 || region != lastReadRegion + 1) {
+                if (prefetchedRegions != null && prefetchedRegions.isEmpty() == false) {
+                    blobCacheMetrics.getPrefetchedRegionWastedCounter().incrementBy(prefetchedRegions.cardinality());
+                    prefetchedRegions.clear();
+                }
+                prefetchedUpToRegion = -1;
+                prefetchWindow /= 2;
+                lastReadRegion = region;
+                return;
+            }
+            lastReadRegion = region;
+            if (region <= prefetchedUpToRegion) {
+                if (prefetchedRegions != null && prefetchedRegions.get(region)) {
+                    blobCacheMetrics.getPrefetchedRegionUsedCounter().increment();
+                    prefetchedRegions.clear(region);
+                }
+                prefetchWindow = Math.min(prefetchWindow * 2, maxPrefetchRegions);
+            } else {
+                prefetchWindow = Math.max(prefetchWindow, 1);
+            }
+            final int lastRegion = Math.min(region + prefetchWindow, getEndingRegion(length));
+            for (int r = Math.max(region + 1, prefetchedUpToRegion + 1); r <= lastRegion; r++) {
+                if (freeRegionCount() < 1) {
+                    // only prefetch into free regions, a guess about what will be read next is not worth evicting anything for
+                    return;
+                }
+                final int regionToFetch = r;
+                try {
+                    // not a read of the region, so the fetch is neither recorded as an access nor evicts anything
+                    final CacheEntry<CacheFileRegion> entry = cache.getIfAbsentInFreeRegion(cacheKey, length, regionToFetch);
+                    if (entry == null) {
+                        // already cached or no free region left, either way this region is not prefetched
+                        prefetchedUpToRegion = regionToFetch;
+                        continue;
+                    }
+                    entry.chunk.populate(
+                        ByteRange.of(0L, computeCacheFileRegionSize(length, regionToFetch)),
+                        writerForRegion.apply(getRegionStart(regionToFetch)),
+                        fetchExecutor,
+                        ActionListener.wrap(
+                            ignored -> {},
+                            e -> logger.debug(() -> "failed to prefetch region [" + regionToFetch + "] of " + this, e)
+                        )
+                    );
+                } catch (AlreadyClosedException e) {
+                    // no region available for prefetching
+                    return;
+                }
+                if (prefetchedRegions == null) {
+                    prefetchedRegions = new BitSet();
+                }
+                prefetchedRegions.set(regionToFetch);
+                prefetchedUpToRegion = regionToFetch;
+            }
+        }
+
+        /**
+         * Fetches the given region of this file into the cache if it is not cached yet and there is a free region to do so. Unlike
+         * {@link SharedBlobCacheService#maybeFetchRegion} this never evicts anything and does not count as an access to the region, so it
+         * suits speculative fetches like warming up the cache. The listener is completed with {@code true} if this call fetched the region.
+         *
+         * @param writerForRegion   returns the writer that fills the region starting at the given position of the blob; the relative
+         *                          positions passed to the writer are relative to the start of that region
+         */
+        public void maybeFetchRegion(
+            int region,
+            LongFunction<RangeMissingHandler> writerForRegion,
+            Executor fetchExecutor,
+            ActionListener<Boolean> listener
+        ) {
+            try {
+                final CacheEntry<CacheFileRegion> entry = cache.getIfAbsentInFreeRegion(cacheKey, length, region);
+                if (entry == null) {
+                    listener.onResponse(false);
+                    return;
+                }
+                entry.chunk.populate(
+                    ByteRange.of(0L, computeCacheFileRegionSize(length, region)),
+                    writerForRegion.apply(getRegionStart(region)),
+                    fetchExecutor,
+                    listener
+                );
+            } catch (Exception e) {
+                listener.onFailure(e);
+            }
+        }
+
         public int populateAndRead(
             final ByteRange rangeToWrite,
             final ByteRange rangeToRead,
@@ -1291,6 +1447,10 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
         private final LFUCacheEntry[] freqs;
         private final int maxFreq;
         private final DecayAndNewEpochTask decayAndNewEpochTask;
+        // estimates how often regions were accessed recently, including regions that are not in the cache, or null if every region
+        // is admitted to the cache
+        @Nullable
+        private final FrequencySketch frequencySketch;
 
         private final AtomicLong epoch = new AtomicLong();
 
@@ -1299,6 +1459,7 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
             this.maxFreq = SHARED_CACHE_MAX_FREQ_SETTING.get(settings);
             freqs = (LFUCacheEntry[]) Array.newInstance(LFUCacheEntry.class, maxFreq);
             decayAndNewEpochTask = new DecayAndNewEpochTask(threadPool.generic());
+            frequencySketch = SHARED_CACHE_ADMISSION_ENABLED.get(settings) ? new FrequencySketch(numRegions) : null;
         }
 
         @Override
@@ -1314,6 +1475,10 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
         public LFUCacheEntry get(KeyType cacheKey, long fileLength, int region) {
             final RegionKey<KeyType> regionKey = new RegionKey<>(cacheKey, region);
             final long now = epoch.get();
+            if (frequencySketch != null) {
+                // like promotions, count an access to a region at most once per epoch
+                frequencySketch.increment(regionKey.hashCode(), now);
+            }
             // try to just get from the map on the fast-path to save instantiating the capturing lambda needed on the slow path
             // if we did not find an entry
             var entry = keyMapping.get(regionKey);
@@ -1339,6 +1504,29 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
             return entry;
         }
 
+        @Override
+        public LFUCacheEntry getIfAbsentInFreeRegion(KeyType cacheKey, long fileLength, int region) {
+            final RegionKey<KeyType> regionKey = new RegionKey<>(cacheKey, region);
+            if (keyMapping.containsKey(regionKey)) {
+                return null;
+            }
+            final SharedBytes.IO freeSlot = freeRegions.poll();
+            if (freeSlot == null) {
+                return null;
+            }
+            final int effectiveRegionSize = computeCacheFileRegionSize(fileLength, region);
+            final LFUCacheEntry entry = new LFUCacheEntry(new CacheFileRegion(regionKey, effectiveRegionSize), epoch.get());
+            // hold the lock until io is assigned so that concurrent gets of this region do not initialize the entry themselves
+            synchronized (entry.chunk) {
+                if (keyMapping.putIfAbsent(regionKey, entry) != null) {
+                    freeRegions.add(freeSlot);
+                    return null;
+                }
+                assignToSlot(entry, freeSlot);
+            }
+            return entry;
+        }
+
         @Override
         public int forceEvict(Predicate<KeyType> cacheKeyPredicate) {
             final List<LFUCacheEntry> matchingEntries = new ArrayList<>();
@@ -1387,7 +1575,7 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
                 // need to evict something
                 SharedBytes.IO io;
                 synchronized (SharedBlobCacheService.this) {
-                    io = maybeEvictAndTake(evictIncrementer);
+                    io = maybeEvictAndTake(evictIncrementer, regionKey);
                 }
                 if (io == null) {
                     io = freeRegions.poll();
@@ -1570,9 +1758,13 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
          *
          * Also regularly polls for free regions and thus might steal one in case any become available.
          *
+         * Entries with a frequency of 0 are always evicted if possible. If admission is enabled, entries with a higher frequency are
+         * only evicted if the candidate region is estimated to be accessed more often than them.
+         *
+         * @param candidate the region that the returned IO region is for
          * @return a now free IO region or null if none available.
          */
-        private SharedBytes.IO maybeEvictAndTake(Runnable evictedNotification) {
+        private SharedBytes.IO maybeEvictAndTake(Runnable evictedNotification, RegionKey<KeyType> candidate) {
             assert Thread.holdsLock(SharedBlobCacheService.this);
             long currentEpoch = epoch.get(); // must be captured before attempting to evict a freq 0
             SharedBytes.IO freq0 = maybeEvictAndTakeForFrequency(evictedNotification, 0);
@@ -1589,6 +1781,11 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
                 if (freeRegion != null) {
                     return freeRegion;
                 }
+                final LFUCacheEntry victim = freqs[currentFreq];
+                if (victim != null && admit(candidate, victim) == false) {
+                    // entries with a higher frequency are even less likely to be worth evicting, give up
+                    return null;
+                }
                 SharedBytes.IO taken = maybeEvictAndTakeForFrequency(evictedNotification, currentFreq);
                 if (taken != null) {
                     return taken;
@@ -1598,6 +1795,15 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
             return null;
         }
 
+        private boolean admit(RegionKey<KeyType> candidate, LFUCacheEntry victim) {
+            if (frequencySketch == null
+                || frequencySketch.frequency(candidate.hashCode()) > frequencySketch.frequency(victim.chunk.regionKey.hashCode())) {
+                return true;
+            }
+            blobCacheMetrics.getAdmissionRejectedCounter().increment();
+            return false;
+        }
+
         private SharedBytes.IO maybeEvictAndTakeForFrequency(Runnable evictedNotification, int currentFreq) {
             for (LFUCacheEntry entry = freqs[currentFreq]; entry != null; entry = entry.next) {
                 boolean evicted = entry.chunk.tryEvictNoDecRef();
@@ -0,0 +1,67 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.blobcache.shared;
+
+import org.elasticsearch.test.ESTestCase;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+
+public class FrequencySketchTests extends ESTestCase {
+
+    public void testFrequency() {
+        final FrequencySketch sketch = new FrequencySketch(randomIntBetween(1, 1024));
+        final int key = randomInt();
+        assertThat(sketch.frequency(key), equalTo(0));
+        final int accesses = randomIntBetween(1, 15);
+        for (int i = 0; i < accesses; i++) {
+            sketch.increment(key);
+        }
+        // a count-min sketch never underestimates
+        assertThat(sketch.frequency(key), greaterThanOrEqualTo(accesses));
+    }
+
+    public void testFrequencySaturates() {
+        final FrequencySketch sketch = new FrequencySketch(randomIntBetween(1, 1024));
+        final int key = randomInt();
+        final int accesses = between(15, 100);
+        for (int i = 0; i < accesses; i++) {
+            sketch.increment(key);
+        }
+        assertThat(sketch.frequency(key), equalTo(15));
+    }
+
+    public void testFrequencyIsRecordedOncePerEpoch() {
+        final FrequencySketch sketch = new FrequencySketch(randomIntBetween(1, 1024));
+        final int key = randomInt();
+        final int epochs = randomIntBetween(1, 15);
+        for (long epoch = 0; epoch < epochs; epoch++) {
+            final int accesses = between(1, 10);
+            for (int i = 0; i < accesses; i++) {
+                sketch.increment(key, epoch);
+            }
+        }
+        // the key is the only one recorded so its estimate is exact
+        assertThat(sketch.frequency(key), equalTo(epochs));
+    }
+
+    public void testCountersAreHalvedOnceSampleSizeIsReached() {
+        final FrequencySketch sketch = new FrequencySketch(64);
+        final int hotKey = randomInt();
+        for (int i = 0; i < 15; i++) {
+            sketch.increment(hotKey);
+        }
+        assertThat(sketch.frequency(hotKey), equalTo(15));
+        // the sample size is ten times the number of longs in the table, so this is guaranteed to reset the counters at least once
+        for (int i = 0; i < 64 * 10; i++) {
+            sketch.increment(hotKey + 1 + i);
+        }
+        assertThat(sketch.frequency(hotKey), lessThan(15));
+    }
+}
@@ -29,11 +29,15 @@ import org.elasticsearch.env.Environment;
 import org.elasticsearch.env.NodeEnvironment;
 import org.elasticsearch.env.TestEnvironment;
 import org.elasticsearch.node.NodeRoleSettings;
+import org.elasticsearch.telemetry.InstrumentType;
+import org.elasticsearch.telemetry.Measurement;
+import org.elasticsearch.telemetry.RecordingMeterRegistry;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.threadpool.TestThreadPool;
 import org.elasticsearch.threadpool.ThreadPool;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -42,13 +46,16 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.BrokenBarrierException;
 import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static org.elasticsearch.node.Node.NODE_NAME_SETTING;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.instanceOf;
@@ -183,6 +190,292 @@ public class SharedBlobCacheServiceTests extends ESTestCase {
         }
     }
 
+    public void testAdmissionKeepsFrequentlyUsedRegionsDuringScan() throws IOException {
+        final boolean admissionEnabled = randomBoolean();
+        Settings settings = Settings.builder()
+            .put(NODE_NAME_SETTING.getKey(), "node")
+            .put(SharedBlobCacheService.SHARED_CACHE_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(size(500)).getStringRep())
+            .put(SharedBlobCacheService.SHARED_CACHE_REGION_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(size(100)).getStringRep())
+            .put(SharedBlobCacheService.SHARED_CACHE_ADMISSION_ENABLED.getKey(), admissionEnabled)
+            .put("path.home", createTempDir())
+            .build();
+        final RecordingMeterRegistry meterRegistry = new RecordingMeterRegistry();
+        final DeterministicTaskQueue taskQueue = new DeterministicTaskQueue();
+        try (
+            NodeEnvironment environment = new NodeEnvironment(settings, TestEnvironment.newEnvironment(settings));
+            var cacheService = new SharedBlobCacheService<>(
+                environment,
+                settings,
+                taskQueue.getThreadPool(),
+                ThreadPool.Names.GENERIC,
+                new BlobCacheMetrics(meterRegistry)
+            )
+        ) {
+            // replay a trace of a dashboard that reads the same three regions over and over, followed by a scan over a large file
+            final var dashboardKey = generateCacheKey();
+            final List<SharedBlobCacheService<Object>.CacheFileRegion> dashboardRegions = new ArrayList<>();
+            for (int access = 0; access < 5; access++) {
+                for (int region = 0; region < 3; region++) {
+                    final var fileRegion = cacheService.get(dashboardKey, size(300), region);
+                    if (access == 0) {
+                        dashboardRegions.add(fileRegion);
+                    }
+                }
+            }
+            assertEquals(2, cacheService.freeRegionCount());
+
+            final var scanKey = generateCacheKey();
+            final int scanRegions = 20;
+            int notAdmitted = 0;
+            for (int region = 0; region < scanRegions; region++) {
+                try {
+                    cacheService.get(scanKey, size(100L * scanRegions), region);
+                } catch (AlreadyClosedException e) {
+                    notAdmitted++;
+                }
+            }
+
+            final long dashboardRegionsEvicted = dashboardRegions.stream()
+                .filter(SharedBlobCacheService.CacheFileRegion::isEvicted)
+                .count();
+            final long rejectedCount = meterRegistry.getRecorder()
+                .getMeasurements(InstrumentType.LONG_COUNTER, "es.blob_cache.admission_rejected.total")
+                .stream()
+                .mapToLong(Measurement::getLong)
+                .sum();
+            if (admissionEnabled) {
+                assertEquals(0L, dashboardRegionsEvicted);
+                assertEquals(scanRegions - 2, notAdmitted);
+                assertEquals(scanRegions - 2, rejectedCount);
+            } else {
+                assertEquals(3L, dashboardRegionsEvicted);
+                assertEquals(0, notAdmitted);
+                assertEquals(0L, rejectedCount);
+            }
+        }
+    }
+
+    public void testPrefetchOnSequentialReads() throws IOException {
+        Settings settings = Settings.builder()
+            .put(NODE_NAME_SETTING.getKey(), "node")
+            .put(SharedBlobCacheService.SHARED_CACHE_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(size(1000)).getStringRep())
+            .put(SharedBlobCacheService.SHARED_CACHE_REGION_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(size(100)).getStringRep())
+            .put(SharedBlobCacheService.SHARED_CACHE_PREFETCH_MAX_REGIONS_SETTING.getKey(), 4)
+            .put("path.home", createTempDir())
+            .build();
+        final RecordingMeterRegistry meterRegistry = new RecordingMeterRegistry();
+        final DeterministicTaskQueue taskQueue = new DeterministicTaskQueue();
+        try (
+            NodeEnvironment environment = new NodeEnvironment(settings, TestEnvironment.newEnvironment(settings));
+            var cacheService = new SharedBlobCacheService<>(
+                environment,
+                settings,
+                taskQueue.getThreadPool(),
+                ThreadPool.Names.GENERIC,
+                new BlobCacheMetrics(meterRegistry)
+            )
+        ) {
+            final var cacheFile = cacheService.getCacheFile(generateCacheKey(), size(800));
+            final Set<Long> prefetchedRegionStarts = new HashSet<>();
+            final LongFunction<SharedBlobCacheService.RangeMissingHandler> writerForRegion = regionStart -> (
+                channel,
+                channelPos,
+                relativePos,
+                length,
+                progressUpdater) -> {
+                prefetchedRegionStarts.add(regionStart);
+                progressUpdater.accept(length);
+            };
+            final Executor executor = taskQueue.getThreadPool().generic();
+
+            // the first read and reads within the same region do not prefetch anything
+            cacheFile.maybePrefetch(0L, writerForRegion, executor);
+            cacheFile.maybePrefetch(size(50), writerForRegion, executor);
+            taskQueue.runAllRunnableTasks();
+            assertThat(prefetchedRegionStarts, empty());
+
+            // moving on to the next region starts prefetching, and the window doubles as prefetched regions get read
+            cacheFile.maybePrefetch(size(100), writerForRegion, executor);
+            taskQueue.runAllRunnableTasks();
+            assertThat(prefetchedRegionStarts, equalTo(Set.of(size(200))));
+            cacheFile.maybePrefetch(size(200), writerForRegion, executor);
+            taskQueue.runAllRunnableTasks();
+            assertThat(prefetchedRegionStarts, equalTo(Set.of(size(200), size(300), size(400))));
+            cacheFile.maybePrefetch(size(300), writerForRegion, executor);
+            taskQueue.runAllRunnableTasks();
+            assertThat(prefetchedRegionStarts, equalTo(Set.of(size(200), size(300), size(400), size(500), size(600), size(700))));
+            assertEquals(10 - 6, cacheService.freeRegionCount());
+
+            // seeking backwards ends the sequential read, leaving the regions after the current one unused
+            cacheFile.maybePrefetch(0L, writerForRegion, executor);
+            assertThat(prefetchedRegionCount(meterRegistry, "es.blob_cache.prefetched_region_used.total"), equalTo(2L));
+            assertThat(prefetchedRegionCount(meterRegistry, "es.blob_cache.prefetched_region_wasted.total"), equalTo(4L));
+        }
+    }
+
+    public void testPrefetchOnlyUsesFreeRegions() throws IOException {
+        Settings settings = Settings.builder()
+            .put(NODE_NAME_SETTING.getKey(), "node")
+            .put(SharedBlobCacheService.SHARED_CACHE_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(size(300)).getStringRep())
+            .put(SharedBlobCacheService.SHARED_CACHE_REGION_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(size(100)).getStringRep())
+            .put(SharedBlobCacheService.SHARED_CACHE_PREFETCH_MAX_REGIONS_SETTING.getKey(), 4)
+            .put("path.home", createTempDir())
+            .build();
+        final DeterministicTaskQueue taskQueue = new DeterministicTaskQueue();
+        try (
+            NodeEnvironment environment = new NodeEnvironment(settings, TestEnvironment.newEnvironment(settings));
+            var cacheService = new SharedBlobCacheService<>(
+                environment,
+                settings,
+                taskQueue.getThreadPool(),
+                ThreadPool.Names.GENERIC,
+                BlobCacheMetrics.NOOP
+            )
+        ) {
+            // two regions of another file that are not used anymore and could be evicted
+            final var otherKey = generateCacheKey();
+            final var otherRegion0 = cacheService.get(otherKey, size(200), 0);
+            final var otherRegion1 = cacheService.get(otherKey, size(200), 1);
+            cacheService.computeDecay();
+            assertEquals(1, cacheService.freeRegionCount());
+
+            final var cacheFile = cacheService.getCacheFile(generateCacheKey(), size(800));
+            final Set<Long> prefetchedRegionStarts = new HashSet<>();
+            final LongFunction<SharedBlobCacheService.RangeMissingHandler> writerForRegion = regionStart -> (
+                channel,
+                channelPos,
+                relativePos,
+                length,
+                progressUpdater) -> {
+                prefetchedRegionStarts.add(regionStart);
+                progressUpdater.accept(length);
+            };
+            final Executor executor = taskQueue.getThreadPool().generic();
+
+            cacheFile.maybePrefetch(0L, writerForRegion, executor);
+            cacheFile.maybePrefetch(size(100), writerForRegion, executor);
+            taskQueue.runAllRunnableTasks();
+            assertThat(prefetchedRegionStarts, equalTo(Set.of(size(200))));
+            assertEquals(0, cacheService.freeRegionCount());
+
+            // the window grows but there are no free regions left to prefetch into
+            cacheFile.maybePrefetch(size(200), writerForRegion, executor);
+            taskQueue.runAllRunnableTasks();
+            assertThat(prefetchedRegionStarts, equalTo(Set.of(size(200))));
+            assertFalse(otherRegion0.isEvicted());
+            assertFalse(otherRegion1.isEvicted());
+        }
+    }
+
+    public void testPrefetchSkipsCachedRegions() throws IOException {
+        Settings settings = Settings.builder()
+            .put(NODE_NAME_SETTING.getKey(), "node")
+            .put(SharedBlobCacheService.SHARED_CACHE_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(size(1000)).getStringRep())
+            .put(SharedBlobCacheService.SHARED_CACHE_REGION_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(size(100)).getStringRep())
+            .put(SharedBlobCacheService.SHARED_CACHE_PREFETCH_MAX_REGIONS_SETTING.getKey(), 4)
+            .put("path.home", createTempDir())
+            .build();
+        final RecordingMeterRegistry meterRegistry = new RecordingMeterRegistry();
+        final DeterministicTaskQueue taskQueue = new DeterministicTaskQueue();
+        try (
+            NodeEnvironment environment = new NodeEnvironment(settings, TestEnvironment.newEnvironment(settings));
+            var cacheService = new SharedBlobCacheService<>(
+                environment,
+                settings,
+                taskQueue.getThreadPool(),
+                ThreadPool.Names.GENERIC,
+                new BlobCacheMetrics(meterRegistry)
+            )
+        ) {
+            final var cacheKey = generateCacheKey();
+            final var cachedRegion = cacheService.get(cacheKey, size(800), 2);
+            final var cacheFile = cacheService.getCacheFile(cacheKey, size(800));
+            final Set<Long> prefetchedRegionStarts = new HashSet<>();
+            final LongFunction<SharedBlobCacheService.RangeMissingHandler> writerForRegion = regionStart -> (
+                channel,
+                channelPos,
+                relativePos,
+                length,
+                progressUpdater) -> {
+                prefetchedRegionStarts.add(regionStart);
+                progressUpdater.accept(length);
+            };
+            final Executor executor = taskQueue.getThreadPool().generic();
+
+            // the next region is already cached so there is nothing to prefetch
+            cacheFile.maybePrefetch(0L, writerForRegion, executor);
+            cacheFile.maybePrefetch(size(100), writerForRegion, executor);
+            taskQueue.runAllRunnableTasks();
+            assertThat(prefetchedRegionStarts, empty());
+            assertSame(cachedRegion, cacheService.get(cacheKey, size(800), 2));
+
+            // reading the cached region grows the window but does not count as a prefetched region being used
+            cacheFile.maybePrefetch(size(200), writerForRegion, executor);
+            taskQueue.runAllRunnableTasks();
+            assertThat(prefetchedRegionStarts, equalTo(Set.of(size(300), size(400))));
+            assertThat(prefetchedRegionCount(meterRegistry, "es.blob_cache.prefetched_region_used.total"), equalTo(0L));
+
+            // only the regions that were actually prefetched count as wasted
+            cacheFile.maybePrefetch(0L, writerForRegion, executor);
+            assertThat(prefetchedRegionCount(meterRegistry, "es.blob_cache.prefetched_region_wasted.total"), equalTo(2L));
+        }
+    }
+
+    private static long prefetchedRegionCount(RecordingMeterRegistry meterRegistry, String name) {
+        return meterRegistry.getRecorder()
+            .getMeasurements(InstrumentType.LONG_COUNTER, name)
+            .stream()
+            .mapToLong(Measurement::getLong)
+            .sum();
+    }
+
+    public void testAdmissionCountsRepeatedReadsOfScanRegionOnce() throws IOException {
+        Settings settings = Settings.builder()
+            .put(NODE_NAME_SETTING.getKey(), "node")
+            .put(SharedBlobCacheService.SHARED_CACHE_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(size(500)).getStringRep())
+            .put(SharedBlobCacheService.SHARED_CACHE_REGION_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(size(100)).getStringRep())
+            .put(SharedBlobCacheService.SHARED_CACHE_ADMISSION_ENABLED.getKey(), true)
+            .put("path.home", createTempDir())
+            .build();
+        final RecordingMeterRegistry meterRegistry = new RecordingMeterRegistry();
+        final DeterministicTaskQueue taskQueue = new DeterministicTaskQueue();
+        try (
+            NodeEnvironment environment = new NodeEnvironment(settings, TestEnvironment.newEnvironment(settings));
+            var cacheService = new SharedBlobCacheService<>(
+                environment,
+                settings,
+                taskQueue.getThreadPool(),
+                ThreadPool.Names.GENERIC,
+                new BlobCacheMetrics(meterRegistry)
+            )
+        ) {
+            final var dashboardKey = generateCacheKey();
+            final List<SharedBlobCacheService<Object>.CacheFileRegion> dashboardRegions = new ArrayList<>();
+            for (int region = 0; region < 3; region++) {
+                dashboardRegions.add(cacheService.get(dashboardKey, size(300), region));
+            }
+            assertEquals(2, cacheService.freeRegionCount());
+
+            // a scan reads each region many times in a row, which must not make it look more popular than the dashboard regions
+            final var scanKey = generateCacheKey();
+            final int scanRegions = 20;
+            final int readsPerRegion = between(2, 10);
+            int notAdmitted = 0;
+            for (int region = 0; region < scanRegions; region++) {
+                for (int read = 0; read < readsPerRegion; read++) {
+                    try {
+                        cacheService.get(scanKey, size(100L * scanRegions), region);
+                    } catch (AlreadyClosedException e) {
+                        notAdmitted++;
+                    }
+                }
+            }
+            assertEquals(0L, dashboardRegions.stream().filter(SharedBlobCacheService.CacheFileRegion::isEvicted).count());
+            assertEquals((scanRegions - 2) * readsPerRegion, notAdmitted);
+            assertEquals(0L, cacheService.epoch());
+        }
+    }
+
     public void testForceEviction() throws IOException {
         Settings settings = Settings.builder()
             .put(NODE_NAME_SETTING.getKey(), "node")
@@ -192,6 +192,12 @@ public class SearchableSnapshots extends Plugin implements IndexStorePlugin, Eng
         Setting.Property.NodeScope,
         Setting.Property.NotCopyableOnResize
     );
+    // The file extensions of partially mounted shards that are fetched into the shared cache when the shard is mounted
+    public static final Setting<List<String>> SNAPSHOT_PARTIAL_WARM_UP_FILE_TYPES_SETTING = Setting.stringListSetting(
+        "index.store.snapshot.partial.warm_up_file_types",
+        Setting.Property.IndexScope,
+        Setting.Property.NotCopyableOnResize
+    );
     public static final Setting<ByteSizeValue> SNAPSHOT_UNCACHED_CHUNK_SIZE_SETTING = Setting.byteSizeSetting(
         "index.store.snapshot.uncached_chunk_size",
         ByteSizeValue.MINUS_ONE,
@@ -296,6 +302,7 @@ public class SearchableSnapshots extends Plugin implements IndexStorePlugin, Eng
             SNAPSHOT_CACHE_ENABLED_SETTING,
             SNAPSHOT_CACHE_PREWARM_ENABLED_SETTING,
             SNAPSHOT_CACHE_EXCLUDED_FILE_TYPES_SETTING,
+            SNAPSHOT_PARTIAL_WARM_UP_FILE_TYPES_SETTING,
             SNAPSHOT_UNCACHED_CHUNK_SIZE_SETTING,
             DELETE_SEARCHABLE_SNAPSHOT_ON_INDEX_DELETION,
             SearchableSnapshotsSettings.SNAPSHOT_PARTIAL_SETTING,
@@ -89,6 +89,7 @@ import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SN
 import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_CACHE_PREWARM_ENABLED_SETTING;
 import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_INDEX_ID_SETTING;
 import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_INDEX_NAME_SETTING;
+import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_PARTIAL_WARM_UP_FILE_TYPES_SETTING;
 import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_REPOSITORY_NAME_SETTING;
 import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_REPOSITORY_UUID_SETTING;
 import static org.elasticsearch.xpack.searchablesnapshots.SearchableSnapshots.SNAPSHOT_SNAPSHOT_ID_SETTING;
@@ -124,6 +125,7 @@ public class SearchableSnapshotDirectory extends BaseDirectory {
     private final boolean useCache;
     private final boolean prewarmCache;
     private final Set<String> excludedFileTypes;
+    private final Set<String> warmUpFileTypes;
     private final long uncachedChunkSize; // if negative use BlobContainer#readBlobPreferredLength, see #getUncachedChunkSize()
     private final Path cacheDir;
     private final ShardPath shardPath;
@@ -172,6 +174,7 @@ public class SearchableSnapshotDirectory extends BaseDirectory {
         this.partial = SNAPSHOT_PARTIAL_SETTING.get(indexSettings);
         this.prewarmCache = partial == false && useCache ? SNAPSHOT_CACHE_PREWARM_ENABLED_SETTING.get(indexSettings) : false;
         this.excludedFileTypes = new HashSet<>(SNAPSHOT_CACHE_EXCLUDED_FILE_TYPES_SETTING.get(indexSettings));
+        this.warmUpFileTypes = partial && useCache ? Set.copyOf(SNAPSHOT_PARTIAL_WARM_UP_FILE_TYPES_SETTING.get(indexSettings)) : Set.of();
         this.uncachedChunkSize = SNAPSHOT_UNCACHED_CHUNK_SIZE_SETTING.get(indexSettings).getBytes();
         this.blobStoreCacheMaxLength = SNAPSHOT_BLOB_CACHE_METADATA_FILES_MAX_LENGTH_SETTING.get(indexSettings);
         this.threadPool = threadPool;
@@ -477,6 +480,9 @@ public class SearchableSnapshotDirectory extends BaseDirectory {
             recoveryState.setPreWarmComplete();
             return v;
         }))) {
+            if (warmUpFileTypes.isEmpty() == false && cancelPreWarming.get() == false) {
+                warmUpSharedCache(completionListener, cancelPreWarming);
+            }
             if (prewarmCache == false || cancelPreWarming.get()) {
                 return;
             }
@@ -553,6 +559,76 @@ public class SearchableSnapshotDirectory extends BaseDirectory {
         }
     }
 
+    /**
+     * Fetches the files of a partially mounted shard with the extensions listed in
+     * {@link SearchableSnapshots#SNAPSHOT_PARTIAL_WARM_UP_FILE_TYPES_SETTING} into the shared cache, so that the first searches do not
+     * have to wait for the blob store to read the files that almost every search needs, like the terms and points indices. Regions are
+     * fetched on the prewarming thread pool, at most as many at a time as it has threads. Warming up never evicts anything from the
+     * shared cache: it stops once the cache has no free region left. The bytes fetched are reported as cached bytes written in the
+     * searchable snapshots stats.
+     */
+    private void warmUpSharedCache(RefCountingListener completionListener, Supplier<Boolean> cancelWarmUp) {
+        assert partial;
+        final var warmUpTaskRunner = new ThrottledTaskRunner(
+            "warm_up_task_runner" + shardId,
+            threadPool.info(SearchableSnapshots.CACHE_PREWARMING_THREAD_POOL_NAME).getMax(),
+            prewarmExecutor()
+        );
+        final long regionSize = sharedBlobCacheService.getRegionSize();
+        for (BlobStoreIndexShardSnapshot.FileInfo file : snapshot().indexFiles()) {
+            if (cancelWarmUp.get()) {
+                return;
+            }
+            if (file.metadata().hashEqualsContents()
+                || file.length() == 0L
+                || isExcludedFromCache(file.physicalName())
+                || warmUpFileTypes.contains(getNonNullFileExt(file.physicalName())) == false) {
+                continue;
+            }
+            try {
+                final IndexInput input = openInput(file.physicalName(), CachedBlobContainerIndexInput.CACHE_WARMING_CONTEXT);
+                assert input instanceof FrozenIndexInput : "expected frozen index input but got " + input.getClass();
+                final FrozenIndexInput frozenIndexInput = (FrozenIndexInput) input;
+                final int regions = Math.toIntExact((file.length() + regionSize - 1) / regionSize);
+                try (
+                    var fileListener = new RefCountingListener(
+                        ActionListener.runBefore(completionListener.acquire(), () -> IOUtils.closeWhileHandlingException(frozenIndexInput))
+                    )
+                ) {
+                    for (int r = 0; r < regions; r++) {
+                        if (sharedBlobCacheService.freeRegionCount() < 1) {
+                            logger.debug("{} stopping warm up of the shared cache, no free region left", shardId);
+                            return;
+                        }
+                        final int region = r;
+                        final ActionListener<Void> regionListener = fileListener.acquire();
+                        warmUpTaskRunner.enqueueTask(regionListener.delegateFailureAndWrap((l, releasable) -> {
+                            if (cancelWarmUp.get() || sharedBlobCacheService.freeRegionCount() < 1) {
+                                try (releasable) {
+                                    l.onResponse(null);
+                                }
+                                return;
+                            }
+                            frozenIndexInput.prefetchRegion(region, ActionListener.releaseAfter(ActionListener.wrap(fetched -> {
+                                logger.trace("{} region [{}] of [{}] warmed up: {}", shardId, region, file.physicalName(), fetched);
+                                l.onResponse(null);
+                            }, e -> {
+                                // warming up is best effort, searches will fetch the region again if needed
+                                logger.debug(
+                                    () -> format("%s unable to warm up region [%s] of [%s]", shardId, region, file.physicalName()),
+                                    e
+                                );
+                                l.onResponse(null);
+                            }), releasable));
+                        }));
+                    }
+                }
+            } catch (Exception e) {
+                logger.warn(() -> format("%s unable to warm up file [%s]", shardId, file.physicalName()), e);
+            }
+        }
+    }
+
     public static Directory create(
         RepositoriesService repositories,
         CacheService cache,
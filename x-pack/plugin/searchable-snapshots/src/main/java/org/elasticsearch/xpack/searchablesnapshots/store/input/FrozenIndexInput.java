@@ -11,6 +11,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.lucene.store.IOContext;
 import org.apache.lucene.store.IndexInput;
+import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.blobcache.BlobCacheUtils;
 import org.elasticsearch.blobcache.common.ByteBufferReference;
 import org.elasticsearch.blobcache.common.ByteRange;
@@ -25,12 +26,17 @@ import org.elasticsearch.xpack.searchablesnapshots.store.SearchableSnapshotDirec
 
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.util.concurrent.Executor;
+import java.util.function.LongFunction;
 
 public final class FrozenIndexInput extends MetadataCachingIndexInput {
 
     private static final Logger logger = LogManager.getLogger(FrozenIndexInput.class);
 
     private final SharedBlobCacheService<CacheKey>.CacheFile cacheFile;
+    // resolved once rather than on every read
+    private final LongFunction<SharedBlobCacheService.RangeMissingHandler> prefetchWriter = this::regionWriter;
+    private final Executor prefetchExecutor = directory.cacheFetchAsyncExecutor();
 
     public FrozenIndexInput(
         String name,
@@ -107,6 +113,7 @@ public final class FrozenIndexInput extends MetadataCachingIndexInput {
     protected void readWithoutBlobCache(ByteBuffer b) throws Exception {
         final long position = getAbsolutePosition();
         final int length = b.remaining();
+        cacheFile.maybePrefetch(position, prefetchWriter, prefetchExecutor);
         if (cacheFile.tryRead(b, position)) {
             // fast-path succeeded, increment stats and return
             stats.addCachedBytesRead(length);
@@ -178,6 +185,45 @@ public final class FrozenIndexInput extends MetadataCachingIndexInput {
         }
     }
 
+    /**
+     * Fetches the given region of the file into the shared cache if there is a free region to do so. The region is read from the blob
+     * store on the cache fetch executor.
+     */
+    public void prefetchRegion(int region, ActionListener<Boolean> listener) {
+        cacheFile.maybeFetchRegion(region, prefetchWriter, prefetchExecutor, listener);
+    }
+
+    /**
+     * Returns a writer that fills the cache region starting at the given position of the file from the blob store.
+     */
+    private SharedBlobCacheService.RangeMissingHandler regionWriter(long regionStart) {
+        return (channel, channelPos, relativePos, len, progressUpdater) -> {
+            final long startTimeNanos = stats.currentTimeNanos();
+            try (InputStream input = openInputStreamFromBlobStore(regionStart + relativePos, len)) {
+                assert ThreadPool.assertCurrentThreadPool(SearchableSnapshots.CACHE_FETCH_ASYNC_THREAD_POOL_NAME);
+                logger.trace(
+                    "{}: prefetching channel {} pos {} length {} (details: {})",
+                    fileInfo.physicalName(),
+                    channelPos,
+                    regionStart + relativePos,
+                    len,
+                    cacheFile
+                );
+                SharedBytes.copyToCacheFileAligned(
+                    channel,
+                    input,
+                    channelPos,
+                    relativePos,
+                    len,
+                    progressUpdater,
+                    writeBuffer.get().clear()
+                );
+                final long endTimeNanos = stats.currentTimeNanos();
+                stats.addCachedBytesWritten(len, endTimeNanos - startTimeNanos);
+            }
+        };
+    }
+
     @Override
     protected MetadataCachingIndexInput doSlice(
         String sliceName,
@@ -9,6 +9,7 @@ package org.elasticsearch.xpack.searchablesnapshots.store.input;
 
 import org.apache.lucene.store.IndexInput;
 import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.support.PlainActionFuture;
 import org.elasticsearch.blobcache.BlobCacheMetrics;
 import org.elasticsearch.blobcache.shared.SharedBlobCacheService;
 import org.elasticsearch.blobcache.shared.SharedBytes;
@@ -39,12 +40,15 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.elasticsearch.core.IOUtils.WINDOWS;
 import static org.elasticsearch.xpack.searchablesnapshots.cache.full.CacheService.resolveSnapshotCache;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
 
 public class FrozenIndexInputTests extends AbstractSearchableSnapshotsTestCase {
 
@@ -145,6 +149,76 @@ public class FrozenIndexInputTests extends AbstractSearchableSnapshotsTestCase {
         }
     }
 
+    public void testWarmUpOnMount() throws Exception {
+        final String extension = randomFrom("tip", "kdi", "cfe");
+        final String fileName = randomAlphaOfLength(5) + '.' + extension;
+        final Tuple<String, byte[]> bytes = randomChecksumBytes(randomIntBetween(1, 100_000));
+        final byte[] fileData = bytes.v2();
+        final FileInfo fileInfo = new FileInfo(
+            randomAlphaOfLength(10),
+            new StoreFileMetadata(fileName, fileData.length, bytes.v1(), IndexVersion.current().luceneVersion().toString()),
+            ByteSizeValue.ofBytes(fileData.length)
+        );
+
+        final boolean warmUp = randomBoolean();
+        final Settings warmUpSettings = warmUp
+            ? Settings.builder().putList(SearchableSnapshots.SNAPSHOT_PARTIAL_WARM_UP_FILE_TYPES_SETTING.getKey(), extension).build()
+            : Settings.EMPTY;
+        final long regionSize = randomIntBetween(1, 16) * SharedBytes.PAGE_SIZE;
+        final long regions = (fileData.length + regionSize - 1) / regionSize;
+        // warming up stops once the cache is full rather than evicting anything
+        final long cacheRegions = randomBoolean() ? regions : randomLongBetween(1, regions);
+        final Settings settings = Settings.builder()
+            .put(SharedBlobCacheService.SHARED_CACHE_REGION_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(regionSize))
+            .put(SharedBlobCacheService.SHARED_CACHE_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(cacheRegions * regionSize))
+            .put("path.home", createTempDir())
+            .build();
+        final Environment environment = TestEnvironment.newEnvironment(settings);
+        for (Path path : environment.dataFiles()) {
+            Files.createDirectories(path);
+        }
+        SnapshotId snapshotId = new SnapshotId("_name", "_uuid");
+        final Path shardDir = randomShardPath(SHARD_ID);
+        final ShardPath shardPath = new ShardPath(false, shardDir, shardDir, SHARD_ID);
+        final Path cacheDir = Files.createDirectories(resolveSnapshotCache(shardDir).resolve(snapshotId.getUUID()));
+        try (
+            NodeEnvironment nodeEnvironment = new NodeEnvironment(settings, environment);
+            SharedBlobCacheService<CacheKey> sharedBlobCacheService = new SharedBlobCacheService<>(
+                nodeEnvironment,
+                settings,
+                threadPool,
+                SearchableSnapshots.CACHE_FETCH_ASYNC_THREAD_POOL_NAME,
+                BlobCacheMetrics.NOOP
+            );
+            CacheService cacheService = randomCacheService();
+            TestSearchableSnapshotDirectory directory = new TestSearchableSnapshotDirectory(
+                sharedBlobCacheService,
+                cacheService,
+                fileInfo,
+                snapshotId,
+                fileData,
+                shardPath,
+                cacheDir,
+                warmUpSettings
+            )
+        ) {
+            cacheService.start();
+            final PlainActionFuture<Void> warmUpFuture = new PlainActionFuture<>();
+            directory.loadSnapshot(createRecoveryState(true), () -> false, warmUpFuture);
+            warmUpFuture.get(30, TimeUnit.SECONDS);
+
+            if (warmUp && cacheRegions == regions) {
+                assertThat(directory.getStats().get(extension).getCachedBytesWritten().total(), equalTo((long) fileData.length));
+            } else if (warmUp) {
+                final long cachedBytesWritten = directory.getStats().get(extension).getCachedBytesWritten().total();
+                assertThat(cachedBytesWritten, lessThanOrEqualTo(cacheRegions * regionSize));
+                assertThat(sharedBlobCacheService.freeRegionCount(), equalTo(0));
+            } else {
+                assertThat(directory.getStats().get(extension), nullValue());
+            }
+        }
+    }
+
     private class TestSearchableSnapshotDirectory extends SearchableSnapshotDirectory {
 
         TestSearchableSnapshotDirectory(
@@ -155,6 +229,19 @@ public class FrozenIndexInputTests extends AbstractSearchableSnapshotsTestCase {
             byte[] fileData,
             ShardPath shardPath,
             Path cacheDir
+        ) {
+            this(service, cacheService, fileInfo, snapshotId, fileData, shardPath, cacheDir, Settings.EMPTY);
+        }
+
+        TestSearchableSnapshotDirectory(
+            SharedBlobCacheService<CacheKey> service,
+            CacheService cacheService,
+            FileInfo fileInfo,
+            SnapshotId snapshotId,
+            byte[] fileData,
+            ShardPath shardPath,
+            Path cacheDir,
+            Settings indexSettings
         ) {
             super(
                 () -> TestUtils.singleBlobContainer(fileInfo.partName(0), fileData),
@@ -165,6 +252,7 @@ public class FrozenIndexInputTests extends AbstractSearchableSnapshotsTestCase {
                 new IndexId(SHARD_ID.getIndex().getName(), SHARD_ID.getIndex().getUUID()),
                 SHARD_ID,
                 Settings.builder()
+                    .put(indexSettings)
                     .put(SearchableSnapshotsSettings.SNAPSHOT_PARTIAL_SETTING.getKey(), true)
                     .put(SearchableSnapshots.SNAPSHOT_CACHE_ENABLED_SETTING.getKey(), true)
                     .build(),